@@ -13,11 +13,10 @@ if [[ ! -e $POM_PATH ]]; then
     exit 2
 fi
 
-PLUGIN=com.spotify:missinglink-maven-plugin:0.1.1-SNAPSHOT
-# use a modified "profile" template for flight recorder, the default won't have some stuff enabled
-DIR=$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )
-JFR_SETTINGS=$DIR/profile.jfc
+PLUGIN=com.spotify:missinglink-maven-plugin:0.2.12-SNAPSHOT
 
-# launch maven
-JFR_OPTS="-XX:+UnlockCommercialFeatures -XX:+FlightRecorder -XX:StartFlightRecording=duration=60s,filename=$RECORDING_FILENAME,settings=$JFR_SETTINGS"
+# launch maven with the built-in "profile" settings of Flight Recorder (Java 11 or later), which
+# also record the missinglink events: every loaded jar, slow classes and the phases of the check.
+# Print them with: jfr print --categories missinglink <filename for recording>
+JFR_OPTS="-XX:StartFlightRecording=filename=$RECORDING_FILENAME,settings=profile"
 MAVEN_OPTS=$JFR_OPTS mvn $PLUGIN:check -f "$POM_PATH"
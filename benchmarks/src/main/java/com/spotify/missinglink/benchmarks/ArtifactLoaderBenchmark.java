@@ -0,0 +1,128 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.ArtifactLoader;
+import com.spotify.missinglink.datamodel.Artifact;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Loads a set of jars with {@link ArtifactLoader}: either asm-5.0.4.jar, a real jar bundled as a
+ * resource, or a generated {@link SyntheticClasspath} of 20 jars of 500 classes each. The loaders
+ * are created without a cache, so that every jar is read and parsed every time.
+ */
+@State(Scope.Benchmark)
+public class ArtifactLoaderBenchmark {
+
+  @Param({"asm", "synthetic"})
+  public String jars;
+
+  private List<File> files;
+  private File asmJar;
+  private SyntheticClasspath classpath;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    if (jars.equals("asm")) {
+      asmJar = File.createTempFile("asm-5.0.4", ".jar");
+      try (InputStream in = getClass().getResourceAsStream("/asm-5.0.4.jar")) {
+        Files.copy(in, asmJar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      files = new ArrayList<>();
+      files.add(asmJar);
+    } else {
+      classpath = SyntheticClasspath.builder().jars(20).classesPerJar(500).generate();
+      files = classpath.dependencyJars();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    if (asmJar != null) {
+      Files.delete(asmJar.toPath());
+    }
+    if (classpath != null) {
+      classpath.delete();
+    }
+  }
+
+  @Benchmark
+  public List<Artifact> load() throws IOException {
+    final List<Artifact> artifacts = new ArrayList<>(files.size());
+    try (ArtifactLoader loader = new ArtifactLoader()) {
+      for (File file : files) {
+        artifacts.add(loader.load(file));
+      }
+    }
+    return artifacts;
+  }
+
+  @Benchmark
+  public List<Artifact> loadDeclarations() throws IOException {
+    final List<Artifact> artifacts = new ArrayList<>(files.size());
+    try (ArtifactLoader loader = new ArtifactLoader()) {
+      for (File file : files) {
+        artifacts.add(loader.loadDeclarations(file));
+      }
+    }
+    return artifacts;
+  }
+
+  /** Only lists the classes of the jars, which is all a lazy loader does up front. */
+  @Benchmark
+  public List<Artifact> loadLazily() throws IOException {
+    final List<Artifact> artifacts = new ArrayList<>(files.size());
+    try (ArtifactLoader loader = new ArtifactLoader(null, true)) {
+      for (File file : files) {
+        artifacts.add(loader.load(file));
+      }
+    }
+    return artifacts;
+  }
+}
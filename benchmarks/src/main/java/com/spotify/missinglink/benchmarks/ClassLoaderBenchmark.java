@@ -0,0 +1,130 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.ClassLoader;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares analysing every class of a real jar (asm-5.0.4.jar, bundled as a resource) with the
+ * single-pass {@link ClassLoader} against the original implementation that builds a complete
+ * ClassNode tree first.
+ */
+@State(Scope.Benchmark)
+public class ClassLoaderBenchmark {
+
+  private List<byte[]> classFiles;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    classFiles = readClassFiles("/asm-5.0.4.jar");
+  }
+
+  @Benchmark
+  public void streaming(Blackhole blackhole) throws IOException {
+    for (byte[] classFile : classFiles) {
+      blackhole.consume(ClassLoader.load(new ByteArrayInputStream(classFile)));
+    }
+  }
+
+  @Benchmark
+  public void tree(Blackhole blackhole) throws IOException {
+    for (byte[] classFile : classFiles) {
+      blackhole.consume(TreeClassLoader.load(new ByteArrayInputStream(classFile)));
+    }
+  }
+
+  @Benchmark
+  public void declarationsOnly(Blackhole blackhole) throws IOException {
+    for (byte[] classFile : classFiles) {
+      DeclaredClass declaredClass =
+          ClassLoader.loadDeclarations(new ByteArrayInputStream(classFile));
+      blackhole.consume(declaredClass);
+    }
+  }
+
+  /** Where each thread is in the list of classes for {@link #perClass}. */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+  }
+
+  /** Analyses one class per invocation, cycling through the classes of the jar. */
+  @Benchmark
+  public DeclaredClass perClass(Cursor cursor) throws IOException {
+    final byte[] classFile = classFiles.get(cursor.next);
+    cursor.next = (cursor.next + 1) % classFiles.size();
+    return ClassLoader.load(new ByteArrayInputStream(classFile));
+  }
+
+  static List<byte[]> readClassFiles(String resource) throws IOException {
+    final List<byte[]> classFiles = new ArrayList<>();
+    try (InputStream in = ClassLoaderBenchmark.class.getResourceAsStream(resource);
+        JarInputStream jar = new JarInputStream(in)) {
+      JarEntry entry;
+      while ((entry = jar.getNextJarEntry()) != null) {
+        if (entry.getName().endsWith(".class")) {
+          classFiles.add(readFully(jar));
+        }
+      }
+    }
+    return classFiles;
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+}
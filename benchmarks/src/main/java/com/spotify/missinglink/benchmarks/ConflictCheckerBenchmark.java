@@ -0,0 +1,126 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.ArtifactLoader;
+import com.spotify.missinglink.Conflict;
+import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.Java9ModuleLoader;
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.TypeDescriptor;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Runs the reachability analysis and the complete check of {@link ConflictChecker} on a generated
+ * {@link SyntheticClasspath} of 500 classes per jar. The artifacts, along with the declarations of
+ * {@code java.base}, are loaded once per trial, so only the checker itself is measured. The
+ * brute-force {@link #reachableFrom} does not depend on {@code methodReachability}.
+ */
+@State(Scope.Benchmark)
+public class ConflictCheckerBenchmark {
+
+  @Param({"10", "100"})
+  public int jars;
+
+  @Param({"false", "true"})
+  public boolean methodReachability;
+
+  private SyntheticClasspath classpath;
+  private Artifact projectArtifact;
+  private List<Artifact> dependencies;
+  private List<Artifact> allArtifacts;
+  private Map<ClassTypeDescriptor, DeclaredClass> knownClasses;
+  private ConflictChecker checker;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    classpath = SyntheticClasspath.builder().jars(jars).classesPerJar(500).generate();
+    try (ArtifactLoader loader = new ArtifactLoader()) {
+      projectArtifact = loader.load(classpath.projectJar());
+      dependencies = new ArrayList<>();
+      for (File jar : classpath.dependencyJars()) {
+        dependencies.add(loader.load(jar));
+      }
+    }
+    allArtifacts = new ArrayList<>();
+    allArtifacts.add(projectArtifact);
+    allArtifacts.addAll(dependencies);
+    allArtifacts.addAll(
+        Java9ModuleLoader.getJava9ModuleArtifacts(
+            (message, e) -> {}, null, Collections.singleton("java.lang"), true));
+
+    // the first definition of a class wins, as on the classpath
+    knownClasses = new HashMap<>();
+    for (Artifact artifact : allArtifacts) {
+      for (Map.Entry<ClassTypeDescriptor, DeclaredClass> entry : artifact.classes().entrySet()) {
+        knownClasses.putIfAbsent(entry.getKey(), entry.getValue());
+      }
+    }
+
+    checker = new ConflictChecker().withMethodReachability(methodReachability);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    classpath.delete();
+  }
+
+  @Benchmark
+  public Set<TypeDescriptor> reachableFrom() {
+    return ConflictChecker.reachableFrom(projectArtifact.classes().values(), knownClasses);
+  }
+
+  @Benchmark
+  public List<Conflict> check() {
+    return checker.check(projectArtifact, dependencies, allArtifacts);
+  }
+}
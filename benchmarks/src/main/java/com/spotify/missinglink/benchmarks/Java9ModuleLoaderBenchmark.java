@@ -0,0 +1,73 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.Java9ModuleLoader;
+import com.spotify.missinglink.datamodel.Artifact;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Loads the modules of the running JDK without a cache, either all of them or only {@code
+ * java.base}, as when the checked classes only reference {@code java.lang}. Every load takes long
+ * enough to be timed on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+public class Java9ModuleLoaderBenchmark {
+
+  @Param({"true", "false"})
+  public boolean declarationsOnly;
+
+  @Param({"all", "referenced"})
+  public String modules;
+
+  @Benchmark
+  public List<Artifact> load() {
+    final Set<String> referencedPackages =
+        modules.equals("all") ? null : Collections.singleton("java.lang");
+    return Java9ModuleLoader.getJava9ModuleArtifacts(
+        // the odd class that cannot be read is no reason to stop the benchmark
+        (message, e) -> {}, null, referencedPackages, declarationsOnly);
+  }
+}
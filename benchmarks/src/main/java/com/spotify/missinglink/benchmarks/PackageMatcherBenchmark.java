@@ -0,0 +1,120 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.PackageMatcher;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the compiled {@link PackageMatcher} to the linear scan over the package filters that the
+ * Maven plugin used to do for every conflict, for a batch of class names of which about half are in
+ * one of the packages.
+ */
+@State(Scope.Benchmark)
+public class PackageMatcherBenchmark {
+
+  @Param({"10", "100", "500"})
+  public int filterCount;
+
+  private final List<String> packages = new ArrayList<>();
+  private final List<Boolean> subpackages = new ArrayList<>();
+  private PackageMatcher matcher;
+  private ClassTypeDescriptor[] classNames;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    final Random random = new Random(filterCount);
+    final PackageMatcher.Builder builder = PackageMatcher.builder();
+    for (int i = 0; i < filterCount; i++) {
+      final String name = "com.example.team" + i + ".service";
+      final boolean includeSubpackages = random.nextBoolean();
+      packages.add(name);
+      subpackages.add(includeSubpackages);
+      builder.add(name, includeSubpackages);
+    }
+    matcher = builder.build();
+
+    classNames = new ClassTypeDescriptor[1024];
+    for (int i = 0; i < classNames.length; i++) {
+      // half of the teams are not configured, and some classes are in subpackages
+      final String pkg =
+          "com/example/team"
+              + random.nextInt(filterCount * 2)
+              + "/service"
+              + (random.nextBoolean() ? "" : "/impl");
+      classNames[i] = TypeDescriptors.fromClassName(pkg + "/Class" + i);
+    }
+  }
+
+  @Benchmark
+  public void packageMatcher(Blackhole blackhole) {
+    for (ClassTypeDescriptor className : classNames) {
+      blackhole.consume(matcher.matches(className));
+    }
+  }
+
+  @Benchmark
+  public void linearScan(Blackhole blackhole) {
+    for (ClassTypeDescriptor className : classNames) {
+      blackhole.consume(linearScan(className));
+    }
+  }
+
+  /** The matching the plugin did before, with a substring and a scan over every filter. */
+  private boolean linearScan(ClassTypeDescriptor classTypeDescriptor) {
+    final String className = classTypeDescriptor.getClassName().replace('/', '.');
+    final String conflictPackageName = className.substring(0, className.lastIndexOf('.'));
+    for (int i = 0; i < packages.size(); i++) {
+      final String packageName = packages.get(i);
+      if (conflictPackageName.equals(packageName)
+          || (subpackages.get(i) && conflictPackageName.startsWith(packageName + "."))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
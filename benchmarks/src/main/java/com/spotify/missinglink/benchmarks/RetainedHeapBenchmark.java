@@ -0,0 +1,136 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.ClassLoader;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.SymbolTable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the heap retained by the loaded classes of a large classpath: every class of the running
+ * JDK (or asm-5.0.4.jar on Java 8, which has no jrt filesystem). The {@code compact} loader is the
+ * {@link ClassLoader} with its compact datamodel; {@code builders} is the original implementation,
+ * which builds the AutoMatter values with their HashSet and HashMap copies.
+ *
+ * <p>The interesting result is the {@code retainedBytes} counter, the difference in used heap after
+ * a full GC before and after loading; the time is mostly spent collecting garbage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+public class RetainedHeapBenchmark {
+
+  @Param({"compact", "builders"})
+  public String loader;
+
+  private List<byte[]> classFiles;
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class RetainedHeap {
+    public long retainedBytes;
+    public long classes;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    try {
+      classFiles = readJdkClassFiles();
+    } catch (ProviderNotFoundException e) {
+      classFiles = ClassLoaderBenchmark.readClassFiles("/asm-5.0.4.jar");
+    }
+  }
+
+  @Benchmark
+  public List<DeclaredClass> load(RetainedHeap heap) throws IOException {
+    // start from an empty symbol table, so that the shared descriptors are counted every time
+    SymbolTable.reset();
+    final long before = usedHeapAfterGc();
+
+    final List<DeclaredClass> classes = new ArrayList<>(classFiles.size());
+    for (byte[] classFile : classFiles) {
+      final ByteArrayInputStream in = new ByteArrayInputStream(classFile);
+      classes.add(loader.equals("compact") ? ClassLoader.load(in) : TreeClassLoader.load(in));
+    }
+
+    heap.retainedBytes = usedHeapAfterGc() - before;
+    heap.classes = classes.size();
+    return classes;
+  }
+
+  private static long usedHeapAfterGc() {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static List<byte[]> readJdkClassFiles() throws IOException {
+    final FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+    final List<byte[]> classFiles = new ArrayList<>();
+    try (Stream<Path> paths = Files.walk(jrt.getPath("/modules"))) {
+      final Iterator<Path> it = paths.iterator();
+      while (it.hasNext()) {
+        final Path path = it.next();
+        if (path.toString().endsWith(".class") && !path.endsWith("module-info.class")) {
+          classFiles.add(Files.readAllBytes(path));
+        }
+      }
+    }
+    return classFiles;
+  }
+}
@@ -0,0 +1,150 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.ArtifactLoader;
+import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.Java9ModuleLoader;
+import com.spotify.missinglink.datamodel.Artifact;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Loads and checks a generated {@link SyntheticClasspath} the way the Maven plugin does, loading
+ * the jars in parallel and checking the reachable classes in parallel. At 1000 jars of 500 classes
+ * this is half a million classes, so the heap has to be sized accordingly, for instance with {@code
+ * -jvmArgs -Xmx8g}.
+ *
+ * <p>The {@code conflicts} counter is the number of conflicts found, which should be close to the
+ * {@code injectedConflicts} counter; only injected calls in methods or classes that are never
+ * reached are not found.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+public class ScaleBenchmark {
+
+  @Param({"100", "1000"})
+  public int jars;
+
+  @Param({"500"})
+  public int classesPerJar;
+
+  @Param({"3"})
+  public int inheritanceDepth;
+
+  @Param({"false", "true"})
+  public boolean methodReachability;
+
+  private SyntheticClasspath classpath;
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Counters {
+    public long classes;
+    public long conflicts;
+    public long injectedConflicts;
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    classpath =
+        SyntheticClasspath.builder()
+            .jars(jars)
+            .classesPerJar(classesPerJar)
+            .inheritanceDepth(inheritanceDepth)
+            .conflicts(jars)
+            .generate();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    classpath.delete();
+  }
+
+  @Benchmark
+  public void loadAndCheck(Counters counters) throws IOException {
+    final Artifact projectArtifact;
+    final List<Artifact> dependencies;
+    try (ArtifactLoader loader = new ArtifactLoader()) {
+      projectArtifact = loader.load(classpath.projectJar());
+      dependencies =
+          classpath
+              .dependencyJars()
+              .parallelStream()
+              .map(jar -> load(loader, jar))
+              .collect(Collectors.toList());
+    }
+
+    final List<Artifact> allArtifacts = new ArrayList<>();
+    allArtifacts.add(projectArtifact);
+    allArtifacts.addAll(dependencies);
+    allArtifacts.addAll(
+        Java9ModuleLoader.getJava9ModuleArtifacts(
+            (message, e) -> {}, null, Collections.singleton("java.lang"), true));
+
+    counters.conflicts =
+        new ConflictChecker()
+            .withMethodReachability(methodReachability)
+            .withParallelChecking(true)
+            .check(projectArtifact, dependencies, allArtifacts)
+            .size();
+    counters.classes = classpath.classes();
+    counters.injectedConflicts = classpath.conflicts();
+  }
+
+  private static Artifact load(ArtifactLoader loader, File jar) {
+    try {
+      return loader.load(jar);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
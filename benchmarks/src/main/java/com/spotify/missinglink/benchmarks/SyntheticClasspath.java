@@ -0,0 +1,399 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Generates a classpath of jars with ASM, so that the benchmarks and scale tests can run on a
+ * classpath of any size without downloading anything.
+ *
+ * <p>Jar {@code j} holds the classes {@code gen/jarJ/ClassC}, each with static methods {@code mM}
+ * that call methods of randomly picked classes of the same or earlier jars. The classes of a jar
+ * form inheritance chains of the configured depth, where every class declares only some of the
+ * methods and inherits the others, so that calls have to be resolved through the hierarchy. The
+ * project jar calls into every jar, so that all of them are reachable.
+ *
+ * <p>A configured number of the calls, spread over all jars, are to methods or classes that do not
+ * exist, so every one of them that is reachable is a conflict. The classes are the same for the
+ * same parameters.
+ *
+ * <p>The jars can also be written to a directory from the command line, for instance to run the
+ * Maven plugin on them:
+ *
+ * <pre>
+ * java -cp benchmarks.jar com.spotify.missinglink.benchmarks.SyntheticClasspath \
+ *     target/classpath jars=1000 classesPerJar=500 conflicts=100
+ * </pre>
+ */
+final class SyntheticClasspath {
+
+  private final Path directory;
+  private final File projectJar;
+  private final List<File> dependencyJars;
+  private final int classes;
+  private final int conflicts;
+
+  private SyntheticClasspath(
+      Path directory, File projectJar, List<File> dependencyJars, int classes, int conflicts) {
+    this.directory = directory;
+    this.projectJar = projectJar;
+    this.dependencyJars = dependencyJars;
+    this.classes = classes;
+    this.conflicts = conflicts;
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  File projectJar() {
+    return projectJar;
+  }
+
+  List<File> dependencyJars() {
+    return dependencyJars;
+  }
+
+  /** The number of classes in all jars, including the project jar. */
+  int classes() {
+    return classes;
+  }
+
+  /** The number of calls to missing methods or classes. */
+  int conflicts() {
+    return conflicts;
+  }
+
+  /** Deletes the jars and their directory. */
+  void delete() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println(
+          "Usage: SyntheticClasspath <directory> [jars=N] [classesPerJar=N] [methodsPerClass=N]"
+              + " [callsPerMethod=N] [inheritanceDepth=N] [conflicts=N]");
+      System.exit(1);
+    }
+    final Builder builder = builder();
+    for (int i = 1; i < args.length; i++) {
+      final String[] option = args[i].split("=", 2);
+      if (option.length != 2) {
+        throw new IllegalArgumentException("Expected name=value but got " + args[i]);
+      }
+      builder.set(option[0], Integer.parseInt(option[1]));
+    }
+    final Path directory = Paths.get(args[0]);
+    Files.createDirectories(directory);
+    final SyntheticClasspath classpath = builder.generate(directory);
+    System.out.println(
+        "Wrote "
+            + classpath.dependencyJars().size()
+            + " jars and "
+            + classpath.projectJar()
+            + " with "
+            + classpath.classes()
+            + " classes and "
+            + classpath.conflicts()
+            + " conflicts");
+  }
+
+  static final class Builder {
+
+    private int jars = 10;
+    private int classesPerJar = 100;
+    private int methodsPerClass = 10;
+    private int callsPerMethod = 5;
+    private int inheritanceDepth = 1;
+    private int conflicts;
+
+    private Builder() {}
+
+    /** The number of dependency jars. */
+    Builder jars(int jars) {
+      this.jars = requireAtLeast("jars", jars, 1);
+      return this;
+    }
+
+    /** The number of classes in each jar, including the project jar. */
+    Builder classesPerJar(int classesPerJar) {
+      this.classesPerJar = requireAtLeast("classesPerJar", classesPerJar, 1);
+      return this;
+    }
+
+    /** The number of methods of each class, counting the inherited ones. */
+    Builder methodsPerClass(int methodsPerClass) {
+      this.methodsPerClass = requireAtLeast("methodsPerClass", methodsPerClass, 1);
+      return this;
+    }
+
+    /** The number of calls each method makes to other methods. */
+    Builder callsPerMethod(int callsPerMethod) {
+      this.callsPerMethod = requireAtLeast("callsPerMethod", callsPerMethod, 0);
+      return this;
+    }
+
+    /** The number of classes in each inheritance chain, 1 for no inheritance at all. */
+    Builder inheritanceDepth(int inheritanceDepth) {
+      this.inheritanceDepth = requireAtLeast("inheritanceDepth", inheritanceDepth, 1);
+      return this;
+    }
+
+    /** The number of calls to missing methods or classes. */
+    Builder conflicts(int conflicts) {
+      this.conflicts = requireAtLeast("conflicts", conflicts, 0);
+      return this;
+    }
+
+    private void set(String name, int value) {
+      switch (name) {
+        case "jars":
+          jars(value);
+          break;
+        case "classesPerJar":
+          classesPerJar(value);
+          break;
+        case "methodsPerClass":
+          methodsPerClass(value);
+          break;
+        case "callsPerMethod":
+          callsPerMethod(value);
+          break;
+        case "inheritanceDepth":
+          inheritanceDepth(value);
+          break;
+        case "conflicts":
+          conflicts(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown parameter: " + name);
+      }
+    }
+
+    /** Writes the jars to a new temporary directory. */
+    SyntheticClasspath generate() throws IOException {
+      return generate(Files.createTempDirectory("missinglink-classpath"));
+    }
+
+    /** Writes the jars to the directory, which must exist. */
+    SyntheticClasspath generate(Path directory) throws IOException {
+      return new Generator(this).generate(directory);
+    }
+
+    private static int requireAtLeast(String name, int value, int minimum) {
+      if (value < minimum) {
+        throw new IllegalArgumentException(name + " must be at least " + minimum + ": " + value);
+      }
+      return value;
+    }
+  }
+
+  private static final class Generator {
+
+    private final Builder parameters;
+    private final Random random;
+    // the indices of the calls that are made to something missing, in ascending order
+    private final long[] conflictingCalls;
+    private long calls;
+    private int conflicts;
+
+    Generator(Builder parameters) {
+      this.parameters = parameters;
+      this.random = new Random(parameters.jars * 31L + parameters.classesPerJar);
+      long declaredMethods = 0;
+      for (int cls = 0; cls < parameters.classesPerJar; cls++) {
+        declaredMethods += declaredMethods(cls);
+      }
+      final long totalCalls = (parameters.jars + 1) * declaredMethods * parameters.callsPerMethod;
+      if (parameters.conflicts > totalCalls) {
+        throw new IllegalArgumentException(
+            "Cannot inject " + parameters.conflicts + " conflicts into " + totalCalls + " calls");
+      }
+      this.conflictingCalls = new long[parameters.conflicts];
+      for (int i = 0; i < conflictingCalls.length; i++) {
+        // evenly spread, so that every jar gets its share
+        conflictingCalls[i] = i * totalCalls / conflictingCalls.length;
+      }
+    }
+
+    SyntheticClasspath generate(Path directory) throws IOException {
+      final List<File> dependencyJars = new ArrayList<>(parameters.jars);
+      for (int jar = 0; jar < parameters.jars; jar++) {
+        final File file = directory.resolve("jar" + jar + ".jar").toFile();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(file.toPath()))) {
+          for (int cls = 0; cls < parameters.classesPerJar; cls++) {
+            // jars only call into themselves and the jars before them
+            writeClass(out, "gen/jar" + jar, cls, jar + 1);
+          }
+        }
+        dependencyJars.add(file);
+      }
+
+      final File projectJar = directory.resolve("project.jar").toFile();
+      try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(projectJar.toPath()))) {
+        for (int cls = 0; cls < parameters.classesPerJar; cls++) {
+          writeClass(out, "gen/project", cls, parameters.jars);
+        }
+        writeEntryPoint(out);
+      }
+
+      return new SyntheticClasspath(
+          directory,
+          projectJar,
+          Collections.unmodifiableList(dependencyJars),
+          (parameters.jars + 1) * parameters.classesPerJar + 1,
+          conflicts);
+    }
+
+    /** The position of a class in its inheritance chain, 0 for the root of the chain. */
+    private int depth(int cls) {
+      return cls % parameters.inheritanceDepth;
+    }
+
+    /** The number of methods that a class declares itself. */
+    private int declaredMethods(int cls) {
+      int count = 0;
+      final int depth = depth(cls);
+      return depth < parameters.methodsPerClass
+          ? (parameters.methodsPerClass - depth - 1) / parameters.inheritanceDepth + 1
+          : 0;
+    }
+
+    private void writeClass(JarOutputStream out, String pkg, int cls, int calleeJars)
+        throws IOException {
+      final String name = pkg + "/Class" + cls;
+      final int depth = depth(cls);
+      final String superName = depth == 0 ? "java/lang/Object" : pkg + "/Class" + (cls - 1);
+
+      final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+      // no stack map frames before Java 6, so there is no need to compute them
+      cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, name, null, superName, null);
+      // each class in a chain declares its share of the methods and inherits the ones before
+      for (int method = depth;
+          method < parameters.methodsPerClass;
+          method += parameters.inheritanceDepth) {
+        final MethodVisitor mv =
+            cw.visitMethod(
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "m" + method, "()V", null, null);
+        mv.visitCode();
+        for (int call = 0; call < parameters.callsPerMethod; call++) {
+          writeCall(mv, calleeJars);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+      }
+      cw.visitEnd();
+      write(out, name, cw.toByteArray());
+    }
+
+    private void writeCall(MethodVisitor mv, int calleeJars) {
+      final int calleeClass = random.nextInt(parameters.classesPerJar);
+      String owner = "gen/jar" + random.nextInt(calleeJars) + "/Class" + calleeClass;
+      int method = random.nextInt(parameters.methodsPerClass);
+      // only call methods that the class declares or inherits
+      final int calleeDepth = depth(calleeClass);
+      final int methodDepth = method % parameters.inheritanceDepth;
+      if (methodDepth > calleeDepth) {
+        method -= methodDepth - methodDepth % (calleeDepth + 1);
+      }
+      String methodName = "m" + method;
+
+      if (conflicts < conflictingCalls.length && conflictingCalls[conflicts] == calls) {
+        // every missing method or class is different, so that no two conflicts are the same
+        if (conflicts % 2 == 0) {
+          methodName = "missing" + conflicts;
+        } else {
+          owner = "gen/missing/Class" + conflicts;
+        }
+        conflicts++;
+      }
+      calls++;
+      mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, methodName, "()V", false);
+    }
+
+    private void writeEntryPoint(JarOutputStream out) throws IOException {
+      final String name = "gen/project/Main";
+      final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+      cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+      final MethodVisitor mv =
+          cw.visitMethod(
+              Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC,
+              "main",
+              "([Ljava/lang/String;)V",
+              null,
+              null);
+      mv.visitCode();
+      // make sure that every jar is reachable, even if no random call picked it
+      for (int jar = 0; jar < parameters.jars; jar++) {
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, "gen/jar" + jar + "/Class0", "m0", "()V", false);
+      }
+      mv.visitInsn(Opcodes.RETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+      cw.visitEnd();
+      write(out, name, cw.toByteArray());
+    }
+
+    private static void write(JarOutputStream out, String name, byte[] classFile)
+        throws IOException {
+      out.putNextEntry(new JarEntry(name + ".class"));
+      out.write(classFile);
+      out.closeEntry();
+    }
+  }
+}
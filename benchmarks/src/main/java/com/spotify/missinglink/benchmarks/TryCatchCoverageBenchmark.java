@@ -0,0 +1,136 @@
+/*-
+ * -\-\-
+ * missinglink-benchmarks
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.benchmarks;
+
+import com.spotify.missinglink.ClassLoader;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Analyses a generated class with one huge method protected by many overlapping try/catch blocks,
+ * like the methods of generated parsers. Resolving which blocks protect each call used to be
+ * quadratic in the size of the method, so the original tree-based implementation is only run on a
+ * tenth of the size.
+ */
+@State(Scope.Benchmark)
+public class TryCatchCoverageBenchmark {
+
+  private byte[] largeMethod;
+  private byte[] smallMethod;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    largeMethod = classWithLargeMethod(50_000, 1_000);
+    smallMethod = classWithLargeMethod(5_000, 100);
+  }
+
+  @Benchmark
+  public DeclaredClass streaming50k() throws IOException {
+    return ClassLoader.load(new ByteArrayInputStream(largeMethod));
+  }
+
+  @Benchmark
+  public DeclaredClass streaming5k() throws IOException {
+    return ClassLoader.load(new ByteArrayInputStream(smallMethod));
+  }
+
+  @Benchmark
+  public DeclaredClass tree5k() throws IOException {
+    return TreeClassLoader.load(new ByteArrayInputStream(smallMethod));
+  }
+
+  /**
+   * Generates a class with a static method of roughly the given number of instructions, one in ten
+   * being a method call, and the given number of try/catch blocks. Each block covers a twentieth of
+   * the method, and they start at evenly spaced points, so many blocks are active at any time.
+   */
+  static byte[] classWithLargeMethod(int instructions, int handlers) {
+    final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    // no stack map frames before Java 6, so there is no need to compute them
+    cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, "Generated", null, "java/lang/Object", null);
+
+    final MethodVisitor mv =
+        cw.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "large", "()V", null, null);
+    mv.visitCode();
+
+    final Label[] starts = new Label[handlers + 1];
+    for (int i = 0; i < starts.length; i++) {
+      starts[i] = new Label();
+    }
+    final int span = Math.max(1, handlers / 20);
+    final Label[] catches = new Label[handlers];
+    for (int i = 0; i < handlers; i++) {
+      catches[i] = new Label();
+      final Label end = starts[Math.min(i + span, handlers)];
+      final String type = i % 2 == 0 ? "java/lang/RuntimeException" : "java/lang/LinkageError";
+      mv.visitTryCatchBlock(starts[i], end, catches[i], type);
+    }
+
+    final int perBlock = instructions / handlers;
+    for (int i = 0; i < instructions; i++) {
+      if (i % perBlock == 0 && i / perBlock < handlers) {
+        mv.visitLabel(starts[i / perBlock]);
+      }
+      if (i % 10 == 0) {
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, "Callee", "m" + (i % 100), "()V", false);
+      } else {
+        mv.visitInsn(Opcodes.NOP);
+      }
+    }
+    mv.visitLabel(starts[handlers]);
+    mv.visitInsn(Opcodes.RETURN);
+
+    for (Label handler : catches) {
+      mv.visitLabel(handler);
+      mv.visitInsn(Opcodes.POP);
+      mv.visitInsn(Opcodes.RETURN);
+    }
+    mv.visitMaxs(0, 0);
+    mv.visitEnd();
+    cw.visitEnd();
+    return cw.toByteArray();
+  }
+}
@@ -0,0 +1,316 @@
+/*-
+ * -\-\-
+ * missinglink-cli
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.spotify.missinglink.Conflict.ConflictCategory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The command line of {@link MissingLinkCli}. The options mirror the parameters of the Maven
+ * plugin, spelled in lower case with dashes, and options that take several values can be repeated.
+ */
+final class CliOptions {
+
+  enum Format {
+    TEXT,
+    JSON
+  }
+
+  static final String USAGE =
+      String.join(
+          "\n",
+          "Usage: missinglink [options] <project classes or jar>",
+          "       missinglink [options] --deployed <jar or directory> [project classes or jar]",
+          "",
+          "Checks the project against a runtime classpath, outside of Maven.",
+          "",
+          "Classpath:",
+          "  --classpath <path>                  entries separated like the java classpath",
+          "  --classpath-file <file>             one entry per line, # starts a comment",
+          "  --boot-classpath <path>             check against these jars instead of the JDK",
+          "  --exclude-dependency <glob>         only load the declarations of the classpath",
+          "                                      entries whose file name matches",
+          "  --deployed <jar or directory>       check a Spring Boot jar, war, shaded jar or",
+          "                                      directory of jars as it is deployed",
+          "  --application-package <package>     the application classes of a shaded jar,",
+          "                                      default the package of its Main-Class",
+          "Filters:",
+          "  --include-category <category>       " + Arrays.toString(ConflictCategory.values()),
+          "  --ignore-source-package <package>   including its subpackages",
+          "  --target-source-package <package>",
+          "  --ignore-destination-package <package>",
+          "  --target-destination-package <package>",
+          "  --max-conflicts <n>                 stop after finding n conflicts",
+          "Loading and checking:",
+          "  --threads <n>                       default one per processor",
+          "  --no-cache                          don't cache the classes of jars",
+          "  --cache-directory <dir>             default ~/.m2/missinglink-cache",
+          "  --referenced-jdk-modules-only",
+          "  --lazy-loading",
+          "  --method-reachability",
+          "Output:",
+          "  --format text|json                  default text",
+          "  --output <file>                     default standard output",
+          "  --fail-on-conflicts                 exit with status 1 if there are conflicts",
+          "  --print-metrics",
+          "  --metrics-file <file>",
+          "  --verbose",
+          "  --help",
+          "");
+
+  File project;
+  final List<File> classpath = new ArrayList<>();
+  String bootClasspath;
+  File deployed;
+  final List<String> applicationPackages = new ArrayList<>();
+  final List<String> excludeDependencies = new ArrayList<>();
+  final Set<ConflictCategory> includeCategories = EnumSet.noneOf(ConflictCategory.class);
+  final List<String> ignoreSourcePackages = new ArrayList<>();
+  final List<String> targetSourcePackages = new ArrayList<>();
+  final List<String> ignoreDestinationPackages = new ArrayList<>();
+  final List<String> targetDestinationPackages = new ArrayList<>();
+  int maxConflicts;
+  int threads;
+  boolean cache = true;
+  File cacheDirectory = new File(System.getProperty("user.home"), ".m2/missinglink-cache");
+  boolean referencedJdkModulesOnly;
+  boolean lazyLoading;
+  boolean methodReachability;
+  Format format = Format.TEXT;
+  File output;
+  boolean failOnConflicts;
+  boolean printMetrics;
+  File metricsFile;
+  boolean verbose;
+  boolean help;
+
+  /**
+   * Parses the command line.
+   *
+   * @throws IllegalArgumentException if it can't be, with a message for the user
+   */
+  static CliOptions parse(String... args) {
+    final CliOptions options = new CliOptions();
+    final List<String> positional = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      final String arg = args[i];
+      if (!arg.startsWith("--")) {
+        positional.add(arg);
+        continue;
+      }
+      switch (arg) {
+        case "--help":
+          options.help = true;
+          return options;
+        case "--no-cache":
+          options.cache = false;
+          break;
+        case "--referenced-jdk-modules-only":
+          options.referencedJdkModulesOnly = true;
+          break;
+        case "--lazy-loading":
+          options.lazyLoading = true;
+          break;
+        case "--method-reachability":
+          options.methodReachability = true;
+          break;
+        case "--fail-on-conflicts":
+          options.failOnConflicts = true;
+          break;
+        case "--print-metrics":
+          options.printMetrics = true;
+          break;
+        case "--verbose":
+          options.verbose = true;
+          break;
+        default:
+          if (i + 1 == args.length) {
+            throw new IllegalArgumentException("Missing value for " + arg);
+          }
+          options.set(arg, args[++i]);
+      }
+    }
+
+    if (options.help) {
+      return options;
+    }
+    if (positional.size() > 1) {
+      throw new IllegalArgumentException("Expected a single project, got " + positional);
+    }
+    if (positional.isEmpty() && options.deployed == null) {
+      throw new IllegalArgumentException("Missing the project classes or jar");
+    }
+    if (!positional.isEmpty()) {
+      options.project = new File(positional.get(0));
+    }
+    if (!options.ignoreSourcePackages.isEmpty() && !options.targetSourcePackages.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Either --ignore-source-package or --target-source-package can be set, but not both.");
+    }
+    if (!options.ignoreDestinationPackages.isEmpty()
+        && !options.targetDestinationPackages.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Either --ignore-destination-package or --target-destination-package can be set, "
+              + "but not both.");
+    }
+    return options;
+  }
+
+  private void set(String option, String value) {
+    switch (option) {
+      case "--classpath":
+        for (String path : value.split(File.pathSeparator)) {
+          if (!path.isEmpty()) {
+            classpath.add(new File(path));
+          }
+        }
+        break;
+      case "--classpath-file":
+        classpath.addAll(readClasspathFile(new File(value)));
+        break;
+      case "--boot-classpath":
+        bootClasspath = value;
+        break;
+      case "--deployed":
+        deployed = new File(value);
+        break;
+      case "--application-package":
+        applicationPackages.add(value);
+        break;
+      case "--exclude-dependency":
+        excludeDependencies.add(value);
+        break;
+      case "--include-category":
+        try {
+          includeCategories.add(ConflictCategory.valueOf(value));
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException(
+              "Invalid category: " + value + ". Valid choices are: " + categoryNames());
+        }
+        break;
+      case "--ignore-source-package":
+        ignoreSourcePackages.add(value);
+        break;
+      case "--target-source-package":
+        targetSourcePackages.add(value);
+        break;
+      case "--ignore-destination-package":
+        ignoreDestinationPackages.add(value);
+        break;
+      case "--target-destination-package":
+        targetDestinationPackages.add(value);
+        break;
+      case "--max-conflicts":
+        maxConflicts = parseInt(option, value);
+        break;
+      case "--threads":
+        threads = parseInt(option, value);
+        break;
+      case "--cache-directory":
+        cacheDirectory = new File(value);
+        break;
+      case "--format":
+        try {
+          format = Format.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Invalid format: " + value + ", use text or json");
+        }
+        break;
+      case "--output":
+        output = new File(value);
+        break;
+      case "--metrics-file":
+        metricsFile = new File(value);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown option: " + option);
+    }
+  }
+
+  /** The number of threads to use, resolving the default. */
+  int threadCount() {
+    return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
+  private static int parseInt(String option, String value) {
+    try {
+      final int n = Integer.parseInt(value);
+      if (n < 0) {
+        throw new NumberFormatException();
+      }
+      return n;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Expected a non-negative number for " + option + ", got " + value);
+    }
+  }
+
+  private static String categoryNames() {
+    final List<String> names = new ArrayList<>();
+    for (ConflictCategory category : ConflictCategory.values()) {
+      names.add(category.name());
+    }
+    return String.join(", ", names);
+  }
+
+  private static List<File> readClasspathFile(File file) {
+    final List<String> lines;
+    try {
+      lines = Files.readAllLines(file.toPath(), UTF_8);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Could not read classpath file " + file + ": " + e);
+    }
+    final List<File> entries = new ArrayList<>();
+    for (String line : lines) {
+      final String entry = line.trim();
+      if (!entry.isEmpty() && !entry.startsWith("#")) {
+        entries.add(new File(entry));
+      }
+    }
+    return Collections.unmodifiableList(entries);
+  }
+}
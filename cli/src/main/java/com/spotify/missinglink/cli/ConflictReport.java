@@ -0,0 +1,193 @@
+/*-
+ * -\-\-
+ * missinglink-cli
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.cli;
+
+import com.spotify.missinglink.Conflict;
+import com.spotify.missinglink.Conflict.ConflictCategory;
+import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.Dependency;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/** Writes the conflicts found by the command line runner, for people or for other tools. */
+final class ConflictReport {
+
+  private ConflictReport() {}
+
+  /**
+   * The conflicts grouped by category, artifact and class, in the same layout as the Maven plugin
+   * logs them.
+   */
+  static String text(Collection<Conflict> conflicts) {
+    final Map<ConflictCategory, String> descriptions = new EnumMap<>(ConflictCategory.class);
+    descriptions.put(ConflictCategory.CLASS_NOT_FOUND, "Class being called not found");
+    descriptions.put(ConflictCategory.METHOD_SIGNATURE_NOT_FOUND, "Method being called not found");
+
+    final StringBuilder sb = new StringBuilder();
+    final Map<ConflictCategory, List<Conflict>> byCategory =
+        conflicts.stream()
+            .collect(
+                Collectors.groupingBy(
+                    Conflict::category,
+                    () -> new EnumMap<>(ConflictCategory.class),
+                    Collectors.toList()));
+    byCategory.forEach(
+        (category, conflictsInCategory) -> {
+          sb.append("Category: ")
+              .append(descriptions.getOrDefault(category, category.name().replace('_', ' ')))
+              .append('\n');
+
+          final Map<ArtifactName, List<Conflict>> byArtifact =
+              conflictsInCategory.stream()
+                  .collect(
+                      Collectors.groupingBy(
+                          Conflict::usedBy, LinkedHashMap::new, Collectors.toList()));
+          byArtifact.forEach(
+              (artifactName, conflictsInArtifact) -> {
+                sb.append("  In artifact: ").append(artifactName.name()).append('\n');
+
+                final Map<ClassTypeDescriptor, List<Conflict>> byClass =
+                    conflictsInArtifact.stream()
+                        .collect(
+                            Collectors.groupingBy(
+                                c -> c.dependency().fromClass(),
+                                LinkedHashMap::new,
+                                Collectors.toList()));
+                byClass.forEach(
+                    (className, conflictsInClass) -> {
+                      sb.append("    In class: ").append(className).append('\n');
+                      for (Conflict conflict : conflictsInClass) {
+                        final Dependency dependency = conflict.dependency();
+                        sb.append("      In method:  ")
+                            .append(dependency.fromMethod().prettyWithoutReturnType());
+                        if (dependency.fromLineNumber() != 0) {
+                          sb.append(':').append(dependency.fromLineNumber());
+                        }
+                        sb.append('\n')
+                            .append("      ")
+                            .append(dependency.describe())
+                            .append('\n')
+                            .append("      Problem: ")
+                            .append(conflict.reason())
+                            .append('\n');
+                        if (conflict.existsIn() != ConflictChecker.UNKNOWN_ARTIFACT_NAME) {
+                          sb.append("      Found in: ")
+                              .append(conflict.existsIn().name())
+                              .append('\n');
+                        }
+                        sb.append("      --------\n");
+                      }
+                    });
+              });
+          sb.append('\n');
+        });
+    return sb.toString();
+  }
+
+  /**
+   * The conflicts as a JSON object, like {@code {"conflicts": [{"category": "CLASS_NOT_FOUND",
+   * "usedBy": ..., "fromClass": ..., "reason": ...}, ...], "truncated": false}}, where truncated
+   * tells whether the check stopped at the maximum number of conflicts.
+   */
+  static String json(Collection<Conflict> conflicts, boolean truncated) {
+    final StringBuilder sb = new StringBuilder("{\n  \"conflicts\": [");
+    String separator = "\n";
+    for (Conflict conflict : conflicts) {
+      final Dependency dependency = conflict.dependency();
+      sb.append(separator).append("    {");
+      field(sb, "category", conflict.category().name(), ", ");
+      field(sb, "usedBy", conflict.usedBy().name(), ", ");
+      if (conflict.existsIn() != ConflictChecker.UNKNOWN_ARTIFACT_NAME) {
+        field(sb, "existsIn", conflict.existsIn().name(), ", ");
+      }
+      field(sb, "fromClass", dependency.fromClass().toString(), ", ");
+      field(sb, "fromMethod", dependency.fromMethod().prettyWithoutReturnType(), ", ");
+      if (dependency.fromLineNumber() != 0) {
+        sb.append("\"line\": ").append(dependency.fromLineNumber()).append(", ");
+      }
+      field(sb, "targetClass", dependency.targetClass().toString(), ", ");
+      field(sb, "dependency", dependency.describe(), ", ");
+      field(sb, "reason", conflict.reason(), "");
+      sb.append('}');
+      separator = ",\n";
+    }
+    sb.append(conflicts.isEmpty() ? "],\n" : "\n  ],\n");
+    return sb.append("  \"truncated\": ").append(truncated).append("\n}\n").toString();
+  }
+
+  private static void field(StringBuilder sb, String name, String value, String separator) {
+    sb.append('"').append(name).append("\": ");
+    quote(sb, value);
+    sb.append(separator);
+  }
+
+  static void quote(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          sb.append("\\\"");
+          break;
+        case '\\':
+          sb.append("\\\\");
+          break;
+        case '\n':
+          sb.append("\\n");
+          break;
+        case '\r':
+          sb.append("\\r");
+          break;
+        case '\t':
+          sb.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            sb.append(String.format("\\u%04x", (int) c));
+          } else {
+            sb.append(c);
+          }
+      }
+    }
+    sb.append('"');
+  }
+}
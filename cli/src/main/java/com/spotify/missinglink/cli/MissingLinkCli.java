@@ -0,0 +1,420 @@
+/*-
+ * -\-\-
+ * missinglink-cli
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.spotify.missinglink.ArtifactCache;
+import com.spotify.missinglink.ArtifactLoader;
+import com.spotify.missinglink.CheckMetrics;
+import com.spotify.missinglink.CheckPhase;
+import com.spotify.missinglink.CheckRunner;
+import com.spotify.missinglink.Conflict;
+import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.ConflictSink;
+import com.spotify.missinglink.DeployedClasspath;
+import com.spotify.missinglink.DeployedClasspath.Source;
+import com.spotify.missinglink.Java9ModuleLoader;
+import com.spotify.missinglink.PackageMatcher;
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a check from the command line, without Maven: on a project's classes or jar and an explicit
+ * classpath, for instance the lib directory of an assembled application, or on an application as it
+ * is deployed, see {@link DeployedClasspath}. Loading and checking are the same as in the Maven
+ * plugin, and so are the options, see {@link CliOptions#USAGE}.
+ *
+ * <p>The exit status is 0 when the check ran, 1 when conflicts were found and {@code
+ * --fail-on-conflicts} is set, and 2 when the check could not run.
+ */
+public final class MissingLinkCli {
+
+  static final int OK = 0;
+  static final int CONFLICTS_FOUND = 1;
+  static final int ERROR = 2;
+
+  private final CliOptions options;
+  private final PrintStream out;
+  private final PrintStream err;
+  private final Consumer<String> log;
+  private final CheckMetrics metrics = new CheckMetrics();
+  private final List<PathMatcher> excludes = new ArrayList<>();
+  private ArtifactCache cache;
+  private ArtifactLoader loader;
+
+  private MissingLinkCli(CliOptions options, PrintStream out, PrintStream err) {
+    this.options = options;
+    this.out = out;
+    this.err = err;
+    this.log = options.verbose ? err::println : message -> {};
+    for (String exclude : options.excludeDependencies) {
+      excludes.add(FileSystems.getDefault().getPathMatcher("glob:" + exclude));
+    }
+  }
+
+  public static void main(String[] args) {
+    System.exit(run(args, System.out, System.err));
+  }
+
+  /** Runs the command line, and returns the exit status. */
+  static int run(String[] args, PrintStream out, PrintStream err) {
+    final CliOptions options;
+    try {
+      options = CliOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      err.println(e.getMessage());
+      err.println();
+      err.print(CliOptions.USAGE);
+      return ERROR;
+    }
+    if (options.help) {
+      out.print(CliOptions.USAGE);
+      return OK;
+    }
+    try {
+      return new MissingLinkCli(options, out, err).run();
+    } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+      err.println("missinglink: " + e.getMessage());
+      return ERROR;
+    }
+  }
+
+  private int run() throws IOException {
+    if (options.cache) {
+      log.accept("caching loaded dependencies in " + options.cacheDirectory);
+      cache = new ArtifactCache(options.cacheDirectory);
+    }
+    loader = new ArtifactLoader(cache, options.lazyLoading, metrics);
+    final ConflictChecker checker =
+        new ConflictChecker()
+            .withMethodReachability(options.methodReachability)
+            .withParallelChecking(options.threadCount() > 1)
+            .withCategories(options.includeCategories)
+            .withSourceFilter(
+                packageFilter(options.ignoreSourcePackages, options.targetSourcePackages))
+            .withDestinationFilter(
+                packageFilter(options.ignoreDestinationPackages, options.targetDestinationPackages))
+            .withListener(metrics)
+            .withResolutionStatistics(
+                statistics -> log.accept("Member resolution cache: " + statistics));
+
+    final CollectingSink sink = new CollectingSink(options.maxConflicts);
+
+    final DeployedClasspath deployed =
+        options.deployed != null
+            ? DeployedClasspath.open(options.deployed, options.applicationPackages)
+            : null;
+    if (deployed != null) {
+      log.accept("reading " + options.deployed + " as a " + deployed.layout() + " layout");
+    }
+    final ForkJoinPool pool =
+        options.threadCount() > 1 ? ArtifactLoader.newPool(options.threadCount()) : null;
+    try {
+      inPool(
+          pool,
+          () -> {
+            check(checker, sink, deployed);
+            return null;
+          });
+    } finally {
+      if (pool != null) {
+        pool.shutdown();
+      }
+      loader.close();
+      // lazily loaded nested jars are read from the deployed jar until the check is done
+      if (deployed != null) {
+        deployed.close();
+      }
+    }
+
+    outputMetrics();
+    final List<Conflict> conflicts = sink.conflicts;
+    writeReport(conflicts, sink.truncated);
+
+    if (conflicts.isEmpty()) {
+      err.println("No conflicts found");
+      return OK;
+    }
+    err.println(conflicts.size() + " conflicts found!");
+    if (sink.truncated) {
+      err.println(
+          "Stopped checking after finding more than maxConflicts="
+              + options.maxConflicts
+              + " conflicts, only the first ones are reported.");
+    }
+    return options.failOnConflicts ? CONFLICTS_FOUND : OK;
+  }
+
+  private void check(ConflictChecker checker, ConflictSink sink, DeployedClasspath deployed) {
+    long start = System.nanoTime();
+    final Source project = projectSource(deployed);
+    final Artifact projectArtifact = load(project, false);
+    if (projectArtifact.classes().isEmpty()) {
+      err.println("No classes found in " + project);
+    }
+    final List<Source> entries = classpathSources(deployed);
+    final List<Artifact> classpathArtifacts =
+        (ForkJoinTask.inForkJoinPool() ? entries.parallelStream() : entries.stream())
+            .map(source -> load(source, isExcluded(source)))
+            .collect(Collectors.toList());
+    long end = System.nanoTime();
+    metrics.phaseFinished(CheckPhase.LOAD, end - start);
+
+    start = end;
+    final List<Artifact> bootstrapArtifacts =
+        loadBootstrapArtifacts(projectArtifact, classpathArtifacts);
+    metrics.phaseFinished(CheckPhase.BOOTSTRAP, System.nanoTime() - start);
+    log.accept(
+        "loaded "
+            + classpathArtifacts.size()
+            + " classpath entries and "
+            + bootstrapArtifacts.size()
+            + " bootstrap artifacts");
+
+    final List<Artifact> artifactsToCheck = new ArrayList<>();
+    for (int i = 0; i < entries.size(); i++) {
+      if (!isExcluded(entries.get(i))) {
+        artifactsToCheck.add(classpathArtifacts.get(i));
+      }
+    }
+    checker.check(
+        projectArtifact,
+        artifactsToCheck,
+        CheckRunner.allArtifacts(classpathArtifacts, bootstrapArtifacts),
+        sink);
+  }
+
+  private List<Artifact> loadBootstrapArtifacts(
+      Artifact projectArtifact, List<Artifact> classpathArtifacts) {
+    if (options.bootClasspath != null) {
+      log.accept("using configured boot classpath: " + options.bootClasspath);
+      final List<Artifact> artifacts = new ArrayList<>();
+      for (String path : options.bootClasspath.split(File.pathSeparator)) {
+        final File file = new File(path);
+        if (isValidEntry(file)) {
+          artifacts.add(load(Source.of(new ArtifactName(path), file), true));
+        }
+      }
+      return artifacts;
+    }
+    Set<String> referencedPackages = null;
+    if (options.referencedJdkModulesOnly) {
+      referencedPackages =
+          Java9ModuleLoader.referencedPackages(projectArtifact, classpathArtifacts);
+    }
+    return CheckRunner.loadBootstrapArtifacts(loader, cache, referencedPackages);
+  }
+
+  /** The project given on the command line, or else the application classes of the deployment. */
+  private Source projectSource(DeployedClasspath deployed) {
+    if (options.project != null) {
+      return Source.of(new ArtifactName("project"), options.project);
+    }
+    if (deployed.application() == null) {
+      throw new IllegalArgumentException(
+          "No application classes found in " + options.deployed + ", give the project classes");
+    }
+    return deployed.application();
+  }
+
+  /**
+   * The libraries of the deployment, in their classpath order, followed by the entries of the
+   * classpath options. A deployed library that is the project given on the command line is left
+   * out.
+   */
+  private List<Source> classpathSources(DeployedClasspath deployed) {
+    final List<Source> sources = new ArrayList<>();
+    if (deployed != null) {
+      for (Source library : deployed.libraries()) {
+        if (options.project == null
+            || !new File(library.location())
+                .getAbsoluteFile()
+                .equals(options.project.getAbsoluteFile())) {
+          sources.add(library);
+        }
+      }
+    }
+    for (File file : options.classpath) {
+      if (isValidEntry(file)) {
+        sources.add(Source.of(new ArtifactName(file.getPath()), file));
+      }
+    }
+    return sources;
+  }
+
+  private Artifact load(Source source, boolean declarationsOnly) {
+    log.accept("loading artifact for path: " + source);
+    try {
+      return source.load(loader, declarationsOnly);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not load " + source, e);
+    }
+  }
+
+  private boolean isValidEntry(File file) {
+    if (file.isDirectory() || (file.isFile() && file.getName().endsWith(".jar"))) {
+      return true;
+    }
+    err.println("Skipping classpath entry that is not a jar or a directory: " + file);
+    return false;
+  }
+
+  /**
+   * Excluded entries are matched by file name, like {@code logback-*.jar}, also when they are
+   * nested in a deployed jar.
+   */
+  private boolean isExcluded(Source source) {
+    final Path fileName = Paths.get(new File(source.location()).getName());
+    for (PathMatcher exclude : excludes) {
+      if (exclude.matches(fileName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void outputMetrics() throws IOException {
+    if (options.printMetrics) {
+      err.println("Check metrics:");
+      metrics.summary().forEach(line -> err.println("  " + line));
+    }
+    if (options.metricsFile != null) {
+      write(options.metricsFile, metrics.toJson());
+    }
+  }
+
+  private void writeReport(List<Conflict> conflicts, boolean truncated) throws IOException {
+    final String report =
+        options.format == CliOptions.Format.JSON
+            ? ConflictReport.json(conflicts, truncated)
+            : ConflictReport.text(conflicts);
+    if (options.output != null) {
+      write(options.output, report);
+    } else {
+      out.print(report);
+      out.flush();
+    }
+  }
+
+  private static void write(File file, String contents) throws IOException {
+    final File parent = file.getAbsoluteFile().getParentFile();
+    if (parent != null) {
+      Files.createDirectories(parent.toPath());
+    }
+    Files.write(file.toPath(), contents.getBytes(UTF_8));
+  }
+
+  /**
+   * Compiles the ignored or the targeted packages, of which only one can be set, into a test of
+   * whether to look for conflicts involving a class.
+   */
+  private static Predicate<ClassTypeDescriptor> packageFilter(
+      List<String> ignoredPackages, List<String> targetedPackages) {
+    if (!ignoredPackages.isEmpty()) {
+      final PackageMatcher matcher = packageMatcher(ignoredPackages);
+      return className -> !matcher.matches(className);
+    }
+    if (!targetedPackages.isEmpty()) {
+      return packageMatcher(targetedPackages)::matches;
+    }
+    return className -> true;
+  }
+
+  private static PackageMatcher packageMatcher(List<String> packages) {
+    final PackageMatcher.Builder builder = PackageMatcher.builder();
+    for (String pkg : packages) {
+      builder.add(pkg, true);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Collects the conflicts, at most maxConflicts of them if positive. Rather than stopping the
+   * check as soon as it has that many, it stops at the first conflict beyond them, which it drops,
+   * so that a run that finds exactly maxConflicts conflicts is not reported as truncated.
+   */
+  static final class CollectingSink implements ConflictSink {
+
+    final List<Conflict> conflicts = new ArrayList<>();
+    boolean truncated;
+    private final int maxConflicts;
+
+    CollectingSink(int maxConflicts) {
+      this.maxConflicts = maxConflicts;
+    }
+
+    @Override
+    public boolean accept(Conflict conflict) {
+      if (maxConflicts > 0 && conflicts.size() >= maxConflicts) {
+        truncated = true;
+        return false;
+      }
+      conflicts.add(conflict);
+      return true;
+    }
+  }
+
+  /**
+   * Runs the supplier on the pool, if there is one. Parallel streams started by the supplier (and
+   * by the ArtifactLoader) then use the threads of the pool rather than the common pool.
+   */
+  private static <T> T inPool(ForkJoinPool pool, Supplier<T> supplier) {
+    if (pool == null) {
+      return supplier.get();
+    }
+    return pool.submit(supplier::get).join();
+  }
+}
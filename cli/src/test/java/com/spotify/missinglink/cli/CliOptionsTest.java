@@ -0,0 +1,159 @@
+/*-
+ * -\-\-
+ * missinglink-cli
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.spotify.missinglink.Conflict.ConflictCategory;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CliOptionsTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testDefaults() {
+    final CliOptions options = CliOptions.parse("target/classes");
+
+    assertThat(options.project).isEqualTo(new File("target/classes"));
+    assertThat(options.classpath).isEmpty();
+    assertThat(options.cache).isTrue();
+    assertThat(options.methodReachability).isFalse();
+    assertThat(options.format).isEqualTo(CliOptions.Format.TEXT);
+    assertThat(options.threadCount()).isEqualTo(Runtime.getRuntime().availableProcessors());
+  }
+
+  @Test
+  public void testClasspathIsKeptInOrder() throws Exception {
+    final File classpathFile = folder.newFile("classpath.txt");
+    Files.write(
+        classpathFile.toPath(),
+        Arrays.asList("# from the image", "lib/c.jar", "", "lib/d.jar"),
+        StandardCharsets.UTF_8);
+
+    final CliOptions options =
+        CliOptions.parse(
+            "--classpath",
+            "a.jar" + File.pathSeparator + "b.jar",
+            "--classpath-file",
+            classpathFile.getPath(),
+            "app.jar");
+
+    assertThat(options.classpath)
+        .containsExactly(
+            new File("a.jar"), new File("b.jar"), new File("lib/c.jar"), new File("lib/d.jar"));
+  }
+
+  @Test
+  public void testOptions() {
+    final CliOptions options =
+        CliOptions.parse(
+            "--threads",
+            "3",
+            "--no-cache",
+            "--method-reachability",
+            "--include-category",
+            "CLASS_NOT_FOUND",
+            "--ignore-destination-package",
+            "groovy.lang",
+            "--exclude-dependency",
+            "logback-*.jar",
+            "--max-conflicts",
+            "10",
+            "--format",
+            "json",
+            "--fail-on-conflicts",
+            "app.jar");
+
+    assertThat(options.threadCount()).isEqualTo(3);
+    assertThat(options.cache).isFalse();
+    assertThat(options.methodReachability).isTrue();
+    assertThat(options.includeCategories).containsExactly(ConflictCategory.CLASS_NOT_FOUND);
+    assertThat(options.ignoreDestinationPackages).containsExactly("groovy.lang");
+    assertThat(options.excludeDependencies).containsExactly("logback-*.jar");
+    assertThat(options.maxConflicts).isEqualTo(10);
+    assertThat(options.format).isEqualTo(CliOptions.Format.JSON);
+    assertThat(options.failOnConflicts).isTrue();
+  }
+
+  @Test
+  public void testHelpNeedsNoProject() {
+    assertThat(CliOptions.parse("--help").help).isTrue();
+  }
+
+  @Test
+  public void testProjectIsRequired() {
+    assertThrows(IllegalArgumentException.class, () -> CliOptions.parse("--no-cache"));
+  }
+
+  @Test
+  public void testDeployedApplicationIsTheDefaultProject() {
+    final CliOptions options =
+        CliOptions.parse("--deployed", "app.jar", "--application-package", "com.example");
+    assertThat(options.deployed).isEqualTo(new File("app.jar"));
+    assertThat(options.applicationPackages).containsExactly("com.example");
+    assertThat(options.project).isNull();
+  }
+
+  @Test
+  public void testInvalidValues() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CliOptions.parse("--include-category", "NOT_A_CATEGORY", "app.jar"));
+    assertThrows(
+        IllegalArgumentException.class, () -> CliOptions.parse("--threads", "-1", "app.jar"));
+    assertThrows(
+        IllegalArgumentException.class, () -> CliOptions.parse("--format", "xml", "app.jar"));
+    assertThrows(IllegalArgumentException.class, () -> CliOptions.parse("app.jar", "--threads"));
+    assertThrows(IllegalArgumentException.class, () -> CliOptions.parse("--unknown", "app.jar"));
+  }
+
+  @Test
+  public void testIgnoredAndTargetedPackagesExcludeEachOther() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            CliOptions.parse(
+                "--ignore-source-package", "a", "--target-source-package", "b", "app.jar"));
+  }
+}
@@ -0,0 +1,123 @@
+/*-
+ * -\-\-
+ * missinglink-cli
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.Conflict;
+import com.spotify.missinglink.ConflictBuilder;
+import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.MethodDependencyBuilder;
+import com.spotify.missinglink.datamodel.MethodDescriptors;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class ConflictReportTest {
+
+  private static final Conflict METHOD_NOT_FOUND =
+      new ConflictBuilder()
+          .dependency(
+              new MethodDependencyBuilder()
+                  .fromClass(TypeDescriptors.fromClassName("com/foo/Bar"))
+                  .fromMethod(MethodDescriptors.fromDesc("()V", "run"))
+                  .fromLineNumber(12)
+                  .targetClass(TypeDescriptors.fromClassName("com/lib/Lib"))
+                  .targetMethod(MethodDescriptors.fromDesc("(Ljava/lang/String;)V", "call"))
+                  .build())
+          .reason("Method not found: com.lib.Lib.call(java.lang.String)")
+          .category(Conflict.ConflictCategory.METHOD_SIGNATURE_NOT_FOUND)
+          .usedBy(new ArtifactName("foo.jar"))
+          .existsIn(new ArtifactName("lib-2.0.jar"))
+          .build();
+
+  private static final Conflict CLASS_NOT_FOUND =
+      new ConflictBuilder()
+          .dependency(
+              new MethodDependencyBuilder()
+                  .fromClass(TypeDescriptors.fromClassName("com/foo/Bar"))
+                  .fromMethod(MethodDescriptors.fromDesc("()V", "init"))
+                  .fromLineNumber(0)
+                  .targetClass(TypeDescriptors.fromClassName("groovy/lang/Closure"))
+                  .targetMethod(MethodDescriptors.fromDesc("()V", "<init>"))
+                  .build())
+          .reason("Class not found: groovy.lang.Closure")
+          .category(Conflict.ConflictCategory.CLASS_NOT_FOUND)
+          .usedBy(new ArtifactName("foo.jar"))
+          .existsIn(ConflictChecker.UNKNOWN_ARTIFACT_NAME)
+          .build();
+
+  @Test
+  public void testTextIsGroupedByCategory() {
+    final String text = ConflictReport.text(Arrays.asList(METHOD_NOT_FOUND, CLASS_NOT_FOUND));
+
+    assertThat(text)
+        .startsWith("Category: Class being called not found\n  In artifact: foo.jar\n")
+        .contains("Category: Method being called not found\n")
+        .contains("      In method:  run():12\n")
+        .contains("      Problem: Method not found: com.lib.Lib.call(java.lang.String)\n")
+        .contains("      Found in: lib-2.0.jar\n")
+        .doesNotContain("<unknown>");
+  }
+
+  @Test
+  public void testJson() {
+    final String json = ConflictReport.json(Collections.singletonList(METHOD_NOT_FOUND), true);
+
+    assertThat(json)
+        .contains("\"category\": \"METHOD_SIGNATURE_NOT_FOUND\"")
+        .contains("\"usedBy\": \"foo.jar\"")
+        .contains("\"existsIn\": \"lib-2.0.jar\"")
+        .contains("\"fromClass\": \"com.foo.Bar\"")
+        .contains("\"line\": 12")
+        .contains("\"truncated\": true");
+  }
+
+  @Test
+  public void testEmptyJson() {
+    assertThat(ConflictReport.json(Collections.emptyList(), false))
+        .isEqualTo("{\n  \"conflicts\": [],\n  \"truncated\": false\n}\n");
+  }
+
+  @Test
+  public void testJsonStringsAreEscaped() {
+    final StringBuilder sb = new StringBuilder();
+    ConflictReport.quote(sb, "a \"b\" \\ c\n");
+    assertThat(sb.toString()).isEqualTo("\"a \\\"b\\\" \\\\ c\\n\"");
+  }
+}
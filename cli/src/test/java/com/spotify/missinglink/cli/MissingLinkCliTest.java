@@ -0,0 +1,166 @@
+/*-
+ * -\-\-
+ * missinglink-cli
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.Conflict;
+import com.spotify.missinglink.ConflictBuilder;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.MethodDependencyBuilder;
+import com.spotify.missinglink.datamodel.MethodDescriptors;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MissingLinkCliTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+  private int run(String... args) {
+    return MissingLinkCli.run(args, new PrintStream(out, true), new PrintStream(err, true));
+  }
+
+  @Test
+  public void testEmptyProject() throws Exception {
+    final File classes = folder.newFolder("classes");
+
+    assertThat(run("--no-cache", "--fail-on-conflicts", classes.getPath()))
+        .isEqualTo(MissingLinkCli.OK);
+    assertThat(err.toString("UTF-8")).contains("No conflicts found");
+  }
+
+  @Test
+  public void testJsonReportAndMetricsAreWritten() throws Exception {
+    final File classes = folder.newFolder("classes");
+    final File report = new File(folder.getRoot(), "out/report.json");
+    final File metrics = new File(folder.getRoot(), "out/metrics.json");
+
+    assertThat(
+            run(
+                "--no-cache",
+                "--format",
+                "json",
+                "--output",
+                report.getPath(),
+                "--metrics-file",
+                metrics.getPath(),
+                classes.getPath()))
+        .isEqualTo(MissingLinkCli.OK);
+    assertThat(new String(Files.readAllBytes(report.toPath()), UTF_8))
+        .contains("\"conflicts\": []");
+    assertThat(new String(Files.readAllBytes(metrics.toPath()), UTF_8)).contains("\"phases\"");
+    assertThat(out.size()).isZero();
+  }
+
+  @Test
+  public void testDeployedDirectory() throws Exception {
+    final File deployed = folder.newFolder("deployed");
+    Files.createDirectories(new File(deployed, "classes").toPath());
+    Files.createDirectories(new File(deployed, "lib").toPath());
+
+    assertThat(run("--no-cache", "--verbose", "--deployed", deployed.getPath()))
+        .isEqualTo(MissingLinkCli.OK);
+    assertThat(err.toString("UTF-8")).contains("DIRECTORY layout").contains("No conflicts found");
+  }
+
+  @Test
+  public void testMissingProject() throws Exception {
+    assertThat(run("--no-cache", new File(folder.getRoot(), "missing").getPath()))
+        .isEqualTo(MissingLinkCli.ERROR);
+    assertThat(err.toString("UTF-8")).contains("Path must exist");
+  }
+
+  @Test
+  public void testCollectingSinkOnlyReportsTruncationWhenItDropsAConflict() {
+    final MissingLinkCli.CollectingSink sink = new MissingLinkCli.CollectingSink(2);
+    assertThat(sink.accept(conflict("a"))).isTrue();
+    assertThat(sink.accept(conflict("b"))).isTrue();
+    // exactly maxConflicts conflicts is not truncated
+    assertThat(sink.truncated).isFalse();
+
+    assertThat(sink.accept(conflict("c"))).isFalse();
+    assertThat(sink.truncated).isTrue();
+    assertThat(sink.conflicts)
+        .extracting(c -> c.dependency().fromMethod().name())
+        .containsExactly("a", "b");
+  }
+
+  @Test
+  public void testCollectingSinkWithoutLimit() {
+    final MissingLinkCli.CollectingSink sink = new MissingLinkCli.CollectingSink(0);
+    for (int i = 0; i < 100; i++) {
+      assertThat(sink.accept(conflict("m" + i))).isTrue();
+    }
+    assertThat(sink.conflicts).hasSize(100);
+    assertThat(sink.truncated).isFalse();
+  }
+
+  @Test
+  public void testUsage() throws Exception {
+    assertThat(run("--no-such-option", "app.jar")).isEqualTo(MissingLinkCli.ERROR);
+    assertThat(err.toString("UTF-8")).contains("Unknown option").contains("Usage:");
+
+    assertThat(run("--help")).isEqualTo(MissingLinkCli.OK);
+    assertThat(out.toString("UTF-8")).startsWith("Usage:");
+  }
+
+  private static Conflict conflict(String fromMethod) {
+    return new ConflictBuilder()
+        .dependency(
+            new MethodDependencyBuilder()
+                .fromClass(TypeDescriptors.fromClassName("com/foo/Bar"))
+                .fromMethod(MethodDescriptors.fromDesc("()V", fromMethod))
+                .fromLineNumber(1)
+                .targetClass(TypeDescriptors.fromClassName("com/lib/Lib"))
+                .targetMethod(MethodDescriptors.fromDesc("()V", "call"))
+                .build())
+        .reason("Method not found")
+        .category(Conflict.ConflictCategory.METHOD_SIGNATURE_NOT_FOUND)
+        .usedBy(new ArtifactName("foo.jar"))
+        .existsIn(new ArtifactName("lib.jar"))
+        .build();
+  }
+}
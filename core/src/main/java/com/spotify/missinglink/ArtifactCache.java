@@ -0,0 +1,184 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A directory of previously loaded jars, so that jars that have not changed since the last run do
+ * not need to be parsed again.
+ *
+ * <p>There is one entry per jar path, validated against the size and modification time of the jar.
+ * Classes that do not map to a single jar, like the modules of the JDK, are stored under a key of
+ * their own and validated against the file they were read from. A jar that has changed simply
+ * overwrites its old entry, so the cache only grows with the number of distinct jars. The cache is
+ * safe to share between concurrent builds: entries are written to a temporary file and atomically
+ * moved into place.
+ */
+public class ArtifactCache {
+
+  private static final int MAGIC = 0x4d4c4e4b;
+  // bump whenever the layout of an entry changes; changes to the encoded classes themselves are
+  // covered by DeclaredClassCodec.VERSION
+  private static final int LAYOUT_VERSION = 1;
+  static final int FORMAT_VERSION = LAYOUT_VERSION << 16 | DeclaredClassCodec.VERSION;
+
+  private final File directory;
+
+  public ArtifactCache(File directory) {
+    this.directory = directory;
+  }
+
+  public File directory() {
+    return directory;
+  }
+
+  /**
+   * Returns the cached classes of the jar, or null if the jar has not been cached or has changed
+   * since it was. Unreadable entries are treated as missing.
+   */
+  public Map<ClassTypeDescriptor, DeclaredClass> get(File jar) {
+    return get(jar.getAbsolutePath(), jar);
+  }
+
+  /** Stores the classes loaded from the jar, replacing any previous entry for the same path. */
+  public void put(File jar, Map<ClassTypeDescriptor, DeclaredClass> classes) throws IOException {
+    put(jar.getAbsolutePath(), jar, classes);
+  }
+
+  /**
+   * Like {@link #get(File)}, for classes that are not the whole contents of a file, like a module
+   * of the JDK. The entry is identified by the key, and is valid as long as the source file it was
+   * loaded from does not change.
+   */
+  public Map<ClassTypeDescriptor, DeclaredClass> get(String key, File source) {
+    final File entry = entryFor(key);
+    if (!entry.isFile()) {
+      return null;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+      if (in.readInt() != MAGIC
+          || in.readInt() != FORMAT_VERSION
+          || !in.readUTF().equals(key)
+          || in.readLong() != source.length()
+          || in.readLong() != source.lastModified()) {
+        return null;
+      }
+      final List<DeclaredClass> classes = DeclaredClassCodec.read(in);
+      final Map<ClassTypeDescriptor, DeclaredClass> map = new HashMap<>();
+      for (DeclaredClass clazz : classes) {
+        map.put(clazz.className(), clazz);
+      }
+      return map;
+    } catch (IOException | RuntimeException e) {
+      // a truncated or otherwise corrupt entry; it will be overwritten by the next put()
+      return null;
+    }
+  }
+
+  /** Like {@link #put(File, Map)}, for entries read with {@link #get(String, File)}. */
+  public void put(String key, File source, Map<ClassTypeDescriptor, DeclaredClass> classes)
+      throws IOException {
+    Files.createDirectories(directory.toPath());
+    final File entry = entryFor(key);
+    final File tmp = File.createTempFile(entry.getName(), ".tmp", directory);
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(key);
+        out.writeLong(source.length());
+        out.writeLong(source.lastModified());
+        DeclaredClassCodec.write(out, classes.values());
+      }
+      try {
+        Files.move(
+            tmp.toPath(),
+            entry.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp.toPath());
+    }
+  }
+
+  private File entryFor(String key) {
+    // multi-release jars load differently depending on the Java version, so it is part of the key
+    final String versionedKey = key + '\0' + ArtifactLoader.currentJavaVersion();
+    return new File(directory, sha1(versionedKey) + ".bin");
+  }
+
+  private static String sha1(String s) {
+    return sha1(s.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static String sha1(byte[] bytes) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+      final StringBuilder sb = new StringBuilder();
+      for (byte b : digest) {
+        sb.append(String.format("%02x", b));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-1
+      throw new IllegalStateException(e);
+    }
+  }
+}
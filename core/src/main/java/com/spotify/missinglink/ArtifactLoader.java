@@ -42,24 +42,90 @@ import com.spotify.missinglink.datamodel.ArtifactBuilder;
 import com.spotify.missinglink.datamodel.ArtifactName;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
 import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public class ArtifactLoader {
+/**
+ * Loads {@link Artifact}s from jar files or directories of class files.
+ *
+ * <p>When invoked from a thread belonging to a {@link java.util.concurrent.ForkJoinPool}, the class
+ * files of each artifact are parsed in parallel using that pool. Callers that want to load several
+ * artifacts concurrently can therefore submit their work to a pool of their choosing and get both
+ * inter- and intra-artifact parallelism, while plain calls stay single-threaded.
+ *
+ * <p>Jars are memory-mapped and their class files are handed to the parser straight from reusable
+ * per-thread buffers, see {@link JarReader}. The workers of a pool made by {@link #newPool(int)}
+ * release their buffers when the pool shuts down, and closing the loader releases those of the
+ * calling thread.
+ *
+ * <p>A lazy loader only reads the list of classes of a jar when loading it, and parses each class
+ * the first time it is looked up in {@link Artifact#classes()}. Such jars are kept open until the
+ * loader is closed.
+ */
+public class ArtifactLoader implements Closeable {
+
+  // below this many class files, forking tasks is more expensive than just parsing the classes
+  private static final int PARALLEL_THRESHOLD = 16;
+
+  private final ArtifactCache cache;
+  private final boolean lazy;
+  private final CheckListener listener;
+  private final Set<LazyJar> openJars = ConcurrentHashMap.newKeySet();
+
+  public ArtifactLoader() {
+    this(null);
+  }
+
+  /**
+   * Creates a loader that reuses the classes of jars found in the cache, and adds newly loaded jars
+   * to it. Directories are never cached, since they are expected to change.
+   */
+  public ArtifactLoader(ArtifactCache cache) {
+    this(cache, false);
+  }
+
+  /**
+   * Creates a loader that, if lazy, only parses the classes of jars when they are looked up. Jars
+   * found in the cache are still used from it, but lazily loaded jars are not added to it since
+   * most of their classes are never parsed.
+   */
+  public ArtifactLoader(ArtifactCache cache, boolean lazy) {
+    this(cache, lazy, CheckListener.NONE);
+  }
+
+  /**
+   * Creates a loader that also tells the listener about every class file it parses and every lookup
+   * in the cache.
+   */
+  public ArtifactLoader(ArtifactCache cache, boolean lazy, CheckListener listener) {
+    this.cache = cache;
+    this.lazy = lazy;
+    this.listener = listener;
+  }
+
+  /** The listener this loader reports to, for the JDK modules loaded alongside its artifacts. */
+  CheckListener listener() {
+    return listener;
+  }
 
   /** Load artifact at path, using path name as artifactId */
   public Artifact load(File path) throws IOException {
@@ -68,30 +134,92 @@ public class ArtifactLoader {
 
   /** Load artifact at path with a custom artifactId */
   public Artifact load(ArtifactName artifactName, File path) throws IOException {
+    return load(artifactName, path, false);
+  }
+
+  /**
+   * Load only the declarations of the classes of the artifact at path, using path name as
+   * artifactId. See {@link ClassLoader#loadDeclarations(java.io.InputStream)}.
+   */
+  public Artifact loadDeclarations(File path) throws IOException {
+    return loadDeclarations(new ArtifactName(path.getName()), path);
+  }
+
+  /**
+   * Load only the declarations of the classes of the artifact at path with a custom artifactId.
+   * This is enough for artifacts whose own method bodies are never checked, like the JDK or
+   * excluded dependencies.
+   */
+  public Artifact loadDeclarations(ArtifactName artifactName, File path) throws IOException {
+    return load(artifactName, path, true);
+  }
+
+  /**
+   * Loads a jar that is not a file of its own, like a library nested in a Spring Boot jar or the
+   * application classes in it.
+   *
+   * @param location where the jar is, for error messages
+   * @param opener opens the jar; it is called again if a lazily loaded jar is reopened
+   * @param source the file the jar is read from, whose size and modification time validate the
+   *     cache entry
+   * @param cacheKey identifies the jar in the cache, or null to not cache it
+   */
+  Artifact load(
+      ArtifactName artifactName,
+      String location,
+      JarOpener opener,
+      File source,
+      String cacheKey,
+      boolean declarationsOnly) {
+    final ClassParser parser =
+        counting(declarationsOnly ? ClassLoader::loadDeclarations : ClassLoader::load);
+    return loadFromJar(
+        artifactName,
+        location,
+        opener,
+        source,
+        parser,
+        cacheKey == null ? null : cacheKey + (declarationsOnly ? "!declarations" : ""));
+  }
+
+  private Artifact load(ArtifactName artifactName, File path, boolean declarationsOnly)
+      throws IOException {
     if (!path.exists()) {
       throw new IllegalArgumentException("Path must exist: " + path);
     }
     if (!path.isFile() && !path.isDirectory()) {
       throw new IllegalArgumentException("Path must be a file or directory: " + path);
     }
+    final ClassParser parser =
+        counting(declarationsOnly ? ClassLoader::loadDeclarations : ClassLoader::load);
     if (path.isFile()) {
-      return loadFromJar(artifactName, path);
+      // the two kinds of artifacts must not be mixed up in the cache
+      final String cacheKey = path.getAbsolutePath() + (declarationsOnly ? "!declarations" : "");
+      final Object event = FlightRecorderEvents.ARTIFACT_LOADED.begin();
+      final Artifact artifact =
+          loadFromJar(
+              artifactName, path.getPath(), () -> JarReader.open(path), path, parser, cacheKey);
+      FlightRecorderEvents.ARTIFACT_LOADED.commit(
+          event, artifactName.name(), path.getPath(), artifact.classes().size(), path.length());
+      return artifact;
     }
-    return loadFromDirectory(artifactName, path);
+    return loadFromDirectory(artifactName, path, parser);
   }
 
   // This is designed to handle Multi-Release JAR files, where there are class files for multiple
   // versions of JVM in one jar.
   // You don't want to end up trying to parse a new class file when running on an old JVM.
   // https://openjdk.java.net/jeps/238
-  private Collection<JarEntry> getClassesForCurrentJavaVersion(Iterable<JarEntry> entries) {
+  // The returned map is keyed by the entry name with any version prefix removed.
+  // The values are the entry names as they are stored in the jar.
+  private Map<String, String> getClassesForCurrentJavaVersion(Iterable<String> entries) {
     // First categorize all the found class files by their target JVM
-    // classFilesPerJavaVersion: target JVM version -> normalized full name -> JarEntry
-    SortedMap<Integer, Map<String, JarEntry>> classFilesPerJavaVersion = new TreeMap<>();
+    // classFilesPerJavaVersion: target JVM version -> normalized full name -> entry name
+    SortedMap<Integer, Map<String, String>> classFilesPerJavaVersion = new TreeMap<>();
     String patternString = "META-INF/versions/(\\d+)/";
     Pattern pattern = Pattern.compile(patternString);
-    for (JarEntry entry : entries) {
-      String fileFullName = entry.getName();
+    for (String entry : entries) {
+      String fileFullName = entry;
       if (fileFullName.endsWith(".class")) {
         Matcher m = pattern.matcher(fileFullName);
         if (m.find()) {
@@ -113,74 +241,256 @@ public class ArtifactLoader {
     }
 
     // We have to figure out what JVM version we're running on.
-    Integer currentJavaVersion;
-    String[] javaVersionElements =
-        System.getProperty("java.version").replaceAll("\\-ea", "").split("\\.");
-    if (javaVersionElements[0].equals("1")) {
-      currentJavaVersion = Integer.parseInt(javaVersionElements[1]);
-    } else {
-      currentJavaVersion = Integer.parseInt(javaVersionElements[0]);
-    }
+    int currentJavaVersion = currentJavaVersion();
 
     // Start layering the class files from old JVM version to new and thus effectively override the
     // old files by the new ones.
-    Map<String, JarEntry> selectedClassFiles = new HashMap<>();
-    for (Map.Entry<Integer, Map<String, JarEntry>> entry : classFilesPerJavaVersion.entrySet()) {
+    Map<String, String> selectedClassFiles = new HashMap<>();
+    for (Map.Entry<Integer, Map<String, String>> entry : classFilesPerJavaVersion.entrySet()) {
       Integer targetJavaVersion = entry.getKey();
       if (targetJavaVersion > currentJavaVersion) {
         break;
       }
-      Map<String, JarEntry> pathToClassfile = entry.getValue();
+      Map<String, String> pathToClassfile = entry.getValue();
       selectedClassFiles.putAll(pathToClassfile);
     }
 
-    return selectedClassFiles.values();
+    return selectedClassFiles;
   }
 
-  private Artifact loadFromJar(ArtifactName artifactName, File path) {
-    try (JarFile jarFile = new JarFile(path)) {
-      Map<ClassTypeDescriptor, DeclaredClass> classes = new HashMap<>();
-      Iterable<JarEntry> classFiles =
-          getClassesForCurrentJavaVersion(Collections.list(jarFile.entries()));
-      for (JarEntry entry : classFiles) {
-        try {
-          DeclaredClass cl = ClassLoader.load(jarFile.getInputStream(entry));
-          classes.put(cl.className(), cl);
-        } catch (MissingLinkException e) {
-          throw e;
-        } catch (Exception e) {
-          throw new MissingLinkException("Could not load " + entry.getName() + " from " + path, e);
-        }
+  /** The major version of the running JVM, e.g. 8 for 1.8.0_292 and 17 for 17.0.1. */
+  static int currentJavaVersion() {
+    String[] javaVersionElements =
+        System.getProperty("java.version").replaceAll("\\-ea", "").split("\\.");
+    if (javaVersionElements[0].equals("1")) {
+      return Integer.parseInt(javaVersionElements[1]);
+    } else {
+      return Integer.parseInt(javaVersionElements[0]);
+    }
+  }
+
+  private Artifact loadFromJar(
+      ArtifactName artifactName,
+      String location,
+      JarOpener opener,
+      File path,
+      ClassParser parser,
+      String cacheKey) {
+    if (cache != null && cacheKey != null) {
+      final Map<ClassTypeDescriptor, DeclaredClass> cached = cache.get(cacheKey, path);
+      listener.artifactCacheLookup(cached != null);
+      if (cached != null) {
+        return new ArtifactBuilder().name(artifactName).classes(cached).build();
+      }
+    }
+
+    if (lazy) {
+      return loadLazilyFromJar(artifactName, location, opener, parser);
+    }
+
+    final Artifact artifact;
+    try {
+      final JarReader jar = opener.open();
+      try {
+        Collection<String> classFiles =
+            getClassesForCurrentJavaVersion(jar.classFileNames()).values();
+        List<DeclaredClass> loaded =
+            loadAll(classFiles, entry -> loadEntry(jar, entry, location, parser));
+        artifact = artifact(artifactName, loaded);
+      } finally {
+        jar.close();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Could not load " + location, e);
+    }
+
+    if (cache != null && cacheKey != null) {
+      try {
+        cache.put(cacheKey, path, artifact.classes());
+      } catch (IOException e) {
+        // the cache is only an optimization, failing to populate it is not a reason to fail
+      }
+    }
+    return artifact;
+  }
+
+  private ClassParser counting(ClassParser parser) {
+    if (listener == CheckListener.NONE) {
+      return parser;
+    }
+    return (classFile, length) -> {
+      final DeclaredClass declaredClass = parser.parse(classFile, length);
+      listener.classParsed(length);
+      return declaredClass;
+    };
+  }
+
+  private Artifact loadLazilyFromJar(
+      ArtifactName artifactName, String location, JarOpener opener, ClassParser parser) {
+    final Map<ClassTypeDescriptor, String> entryNames = new HashMap<>();
+    try {
+      final JarReader jar = opener.open();
+      try {
+        getClassesForCurrentJavaVersion(jar.classFileNames())
+            .forEach(
+                (name, entryName) -> {
+                  final String className = name.substring(0, name.length() - ".class".length());
+                  entryNames.put(TypeDescriptors.fromClassName(className), entryName);
+                });
+      } finally {
+        jar.close();
       }
-      return artifact(artifactName, classes);
     } catch (IOException e) {
-      throw new RuntimeException("Could not load " + path, e);
+      throw new RuntimeException("Could not load " + location, e);
     }
+    final LazyJar jar = new LazyJar(location, opener, parser);
+    return new LazyArtifact(artifactName, entryNames, jar::load);
   }
 
-  private Artifact loadFromDirectory(ArtifactName artifactName, File dir) throws IOException {
-    Map<ClassTypeDescriptor, DeclaredClass> classes = new HashMap<>();
+  /**
+   * Creates a pool to load and check with, whose threads release their buffers for parsing jars
+   * when they terminate.
+   */
+  public static ForkJoinPool newPool(int threads) {
+    return new ForkJoinPool(
+        threads,
+        pool ->
+            new ForkJoinWorkerThread(pool) {
+              @Override
+              protected void onTermination(Throwable exception) {
+                try {
+                  JarReader.releaseBuffers();
+                } finally {
+                  super.onTermination(exception);
+                }
+              }
+            },
+        null,
+        false);
+  }
 
+  /**
+   * Closes the jars that lazily loaded artifacts have opened, and releases the buffers the calling
+   * thread parsed jars with.
+   */
+  @Override
+  public void close() throws IOException {
+    for (LazyJar jar : openJars) {
+      jar.close();
+    }
+    JarReader.releaseBuffers();
+  }
+
+  private static DeclaredClass loadEntry(
+      JarReader jar, String entryName, String location, ClassParser parser) {
+    try {
+      return jar.parse(entryName, parser);
+    } catch (MissingLinkException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new MissingLinkException("Could not load " + entryName + " from " + location, e);
+    }
+  }
+
+  private Artifact loadFromDirectory(ArtifactName artifactName, File dir, ClassParser parser)
+      throws IOException {
     List<File> classFilesInDir =
         Files.walk(dir.toPath())
             .map(Path::toFile)
             .filter(file -> file.isFile() && file.getName().endsWith(".class"))
             .collect(toList());
 
-    for (File file : classFilesInDir) {
-      try (FileInputStream fis = new FileInputStream(file)) {
-        DeclaredClass cl = ClassLoader.load(fis);
-        classes.put(cl.className(), cl);
-      }
+    return artifact(artifactName, loadAll(classFilesInDir, file -> loadFile(file, parser)));
+  }
+
+  private static DeclaredClass loadFile(File file, ClassParser parser) {
+    try {
+      final byte[] classFile = Files.readAllBytes(file.toPath());
+      return parser.parse(classFile, classFile.length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Parses all the class files, in parallel if we are running inside a ForkJoinPool. The returned
+   * list is in the same order as the input, regardless of how the work was scheduled.
+   */
+  private static <T> List<DeclaredClass> loadAll(
+      Collection<T> classFiles, Function<T, DeclaredClass> loader) {
+    if (ForkJoinTask.inForkJoinPool() && classFiles.size() >= PARALLEL_THRESHOLD) {
+      return classFiles.parallelStream().map(loader).collect(toList());
     }
-    return artifact(artifactName, classes);
+    return classFiles.stream().map(loader).collect(toList());
   }
 
-  private static Artifact artifact(
-      ArtifactName name, Map<ClassTypeDescriptor, DeclaredClass> classes) {
+  private static Artifact artifact(ArtifactName name, List<DeclaredClass> loaded) {
+    Map<ClassTypeDescriptor, DeclaredClass> classes = new HashMap<>();
+    for (DeclaredClass cl : loaded) {
+      classes.put(cl.className(), cl);
+    }
     return new ArtifactBuilder().name(name).classes(classes).build();
   }
 
+  /**
+   * A jar that is opened when the first class is parsed from it, and stays open until the loader is
+   * closed. It is reopened if more classes are needed after that.
+   */
+  private final class LazyJar {
+
+    private final String location;
+    private final JarOpener opener;
+    private final ClassParser parser;
+    private JarReader jar;
+
+    LazyJar(String location, JarOpener opener, ClassParser parser) {
+      this.location = location;
+      this.opener = opener;
+      this.parser = parser;
+    }
+
+    DeclaredClass load(String entryName) {
+      final JarReader jar;
+      try {
+        jar = open();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not open " + location, e);
+      }
+      return loadEntry(jar, entryName, location, parser);
+    }
+
+    private synchronized JarReader open() throws IOException {
+      if (jar == null) {
+        jar = opener.open();
+        openJars.add(this);
+      }
+      return jar;
+    }
+
+    synchronized void close() throws IOException {
+      if (jar != null) {
+        openJars.remove(this);
+        jar.close();
+        jar = null;
+      }
+    }
+  }
+
+  /**
+   * Either {@link ClassLoader#load} or {@link ClassLoader#loadDeclarations}, given a class file in
+   * the first {@code length} bytes of a buffer that may be reused once the class is parsed.
+   */
+  @FunctionalInterface
+  interface ClassParser {
+    DeclaredClass parse(byte[] classFile, int length) throws IOException;
+  }
+
+  /** Opens a jar to load; a new reader every time, which the loader closes when it is done. */
+  @FunctionalInterface
+  interface JarOpener {
+    JarReader open() throws IOException;
+  }
+
   public static void main(String[] args) throws Exception {
     ArtifactLoader l = new ArtifactLoader();
     System.out.println(l.load(new File("core/src/test/resources/ArtifactLoaderTest.jar")));
@@ -0,0 +1,72 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+/**
+ * Is told what a check spends its time and work on. {@link ArtifactLoader} and {@link
+ * Java9ModuleLoader} report the classes they parse and their use of the cache, {@link
+ * ConflictChecker} reports the phases it runs and the classes it checks, and the caller reports the
+ * phases it runs itself, like loading the artifacts.
+ *
+ * <p>The methods are called from whichever threads do the work, so implementations must be
+ * thread-safe. They should also be cheap, since some are called once per class. All methods do
+ * nothing by default. See {@link CheckMetrics} for an implementation that adds everything up.
+ */
+public interface CheckListener {
+
+  /** A listener that ignores everything. */
+  CheckListener NONE = new CheckListener() {};
+
+  /** A phase of the check took the given time. Phases that run more than once add up. */
+  default void phaseFinished(CheckPhase phase, long nanos) {}
+
+  /**
+   * A class file of the given size was parsed. The size is that of the uncompressed class file, not
+   * of what was read from disk, since jars and the JDK image compress their classes.
+   */
+  default void classParsed(int bytes) {}
+
+  /**
+   * A jar or JDK module was looked up in the {@link ArtifactCache}, and found there if {@code hit}.
+   */
+  default void artifactCacheLookup(boolean hit) {}
+
+  /** The methods of a class were checked, with the given number of calls and field accesses. */
+  default void classChecked(int callSites, int fieldAccesses) {}
+
+  /** The member lookups of a check are done, see {@link ResolutionStatistics}. */
+  default void resolutionFinished(ResolutionStatistics statistics) {}
+}
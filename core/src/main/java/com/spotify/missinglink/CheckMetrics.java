@@ -0,0 +1,166 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link CheckListener} that adds up the time spent in each phase and the counters of all checks
+ * it is passed to, to be printed as a table or written as JSON at the end of a build.
+ */
+public final class CheckMetrics implements CheckListener {
+
+  private final Map<CheckPhase, LongAdder> phaseNanos = new EnumMap<>(CheckPhase.class);
+  private final LongAdder classesParsed = new LongAdder();
+  private final LongAdder uncompressedBytesParsed = new LongAdder();
+  private final LongAdder artifactCacheHits = new LongAdder();
+  private final LongAdder artifactCacheMisses = new LongAdder();
+  private final LongAdder classesChecked = new LongAdder();
+  private final LongAdder callSitesChecked = new LongAdder();
+  private final LongAdder fieldAccessesChecked = new LongAdder();
+  private final LongAdder resolutionCacheHits = new LongAdder();
+  private final LongAdder hierarchyLookups = new LongAdder();
+
+  public CheckMetrics() {
+    for (CheckPhase phase : CheckPhase.values()) {
+      phaseNanos.put(phase, new LongAdder());
+    }
+  }
+
+  @Override
+  public void phaseFinished(CheckPhase phase, long nanos) {
+    phaseNanos.get(phase).add(nanos);
+  }
+
+  @Override
+  public void classParsed(int bytes) {
+    classesParsed.increment();
+    uncompressedBytesParsed.add(bytes);
+  }
+
+  @Override
+  public void artifactCacheLookup(boolean hit) {
+    (hit ? artifactCacheHits : artifactCacheMisses).increment();
+  }
+
+  @Override
+  public void classChecked(int callSites, int fieldAccesses) {
+    classesChecked.increment();
+    callSitesChecked.add(callSites);
+    fieldAccessesChecked.add(fieldAccesses);
+  }
+
+  @Override
+  public void resolutionFinished(ResolutionStatistics statistics) {
+    resolutionCacheHits.add(statistics.methodHits() + statistics.fieldHits());
+    // every miss walks the class hierarchy
+    hierarchyLookups.add(statistics.methodMisses() + statistics.fieldMisses());
+  }
+
+  public long phaseMillis(CheckPhase phase) {
+    return TimeUnit.NANOSECONDS.toMillis(phaseNanos.get(phase).sum());
+  }
+
+  /** The counters by name, in the order they are printed. */
+  public Map<String, Long> counters() {
+    final Map<String, Long> counters = new LinkedHashMap<>();
+    counters.put("classesParsed", classesParsed.sum());
+    counters.put("uncompressedBytesParsed", uncompressedBytesParsed.sum());
+    counters.put("artifactCacheHits", artifactCacheHits.sum());
+    counters.put("artifactCacheMisses", artifactCacheMisses.sum());
+    counters.put("classesChecked", classesChecked.sum());
+    counters.put("callSitesChecked", callSitesChecked.sum());
+    counters.put("fieldAccessesChecked", fieldAccessesChecked.sum());
+    counters.put("resolutionCacheHits", resolutionCacheHits.sum());
+    counters.put("hierarchyLookups", hierarchyLookups.sum());
+    return counters;
+  }
+
+  /** The phase timings and counters as lines of a two-column table. */
+  public List<String> summary() {
+    final List<String> lines = new ArrayList<>();
+    long total = 0;
+    for (CheckPhase phase : CheckPhase.values()) {
+      final long millis = phaseMillis(phase);
+      total += millis;
+      lines.add(row(phase.name().toLowerCase(Locale.ROOT), millis + " ms"));
+    }
+    lines.add(row("total", total + " ms"));
+    for (Map.Entry<String, Long> counter : counters().entrySet()) {
+      lines.add(row(counter.getKey(), String.valueOf(counter.getValue())));
+    }
+    return lines;
+  }
+
+  /**
+   * The phase timings in milliseconds and the counters as a JSON object, like {@code {"phases":
+   * {"load": 1200, ...}, "counters": {"classesParsed": 52000, ...}}}.
+   */
+  public String toJson() {
+    final StringBuilder sb = new StringBuilder("{\n  \"phases\": {");
+    String separator = "\n";
+    for (CheckPhase phase : CheckPhase.values()) {
+      sb.append(separator)
+          .append("    \"")
+          .append(phase.name().toLowerCase(Locale.ROOT))
+          .append("\": ")
+          .append(phaseMillis(phase));
+      separator = ",\n";
+    }
+    sb.append("\n  },\n  \"counters\": {");
+    separator = "\n";
+    for (Map.Entry<String, Long> counter : counters().entrySet()) {
+      sb.append(separator)
+          .append("    \"")
+          .append(counter.getKey())
+          .append("\": ")
+          .append(counter.getValue());
+      separator = ",\n";
+    }
+    return sb.append("\n  }\n}\n").toString();
+  }
+
+  private static String row(String name, String value) {
+    return String.format(Locale.ROOT, "%-22s %14s", name, value);
+  }
+}
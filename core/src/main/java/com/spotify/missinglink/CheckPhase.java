@@ -0,0 +1,50 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+/** The phases of a check, in the order they run, as reported to a {@link CheckListener}. */
+public enum CheckPhase {
+  /** Loading the project and its runtime dependencies. */
+  LOAD,
+  /** Loading the JDK modules or the boot classpath. */
+  BOOTSTRAP,
+  /** Deciding which artifact each class is taken from, first come first served. */
+  CANONICAL_MAPPING,
+  /** Finding the classes, or methods, that are reachable from the project. */
+  REACHABILITY,
+  /** Checking the calls and field accesses of the reachable classes. */
+  CHECK
+}
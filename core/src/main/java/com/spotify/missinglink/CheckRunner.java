@@ -0,0 +1,212 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a whole check outside of Maven: loads the project classes, the classpath and the JDK, and
+ * checks them with a {@link ConflictChecker}. Like the loader and the checker, it works in parallel
+ * when called from a thread of a ForkJoinPool.
+ *
+ * <p>The JDK can be loaded once and passed to {@link #withBootstrapArtifacts}, which is what makes
+ * repeated checks in a long-running process cheap; otherwise it is loaded for every check.
+ */
+public final class CheckRunner {
+
+  private final ArtifactLoader loader;
+  private final ConflictChecker checker;
+  private final CheckListener listener;
+  private final List<Artifact> bootstrapArtifacts;
+
+  public CheckRunner(ArtifactLoader loader, ConflictChecker checker) {
+    this(loader, checker, CheckListener.NONE, null);
+  }
+
+  private CheckRunner(
+      ArtifactLoader loader,
+      ConflictChecker checker,
+      CheckListener listener,
+      List<Artifact> bootstrapArtifacts) {
+    this.loader = loader;
+    this.checker = checker;
+    this.listener = listener;
+    this.bootstrapArtifacts = bootstrapArtifacts;
+  }
+
+  /** Returns a runner that reports the load and bootstrap phases to the listener. */
+  public CheckRunner withListener(CheckListener listener) {
+    return new CheckRunner(loader, checker, listener, bootstrapArtifacts);
+  }
+
+  /** Returns a runner that checks against the given JDK classes instead of loading them. */
+  public CheckRunner withBootstrapArtifacts(List<Artifact> bootstrapArtifacts) {
+    return new CheckRunner(
+        loader,
+        checker,
+        listener,
+        Collections.unmodifiableList(new ArrayList<>(bootstrapArtifacts)));
+  }
+
+  /**
+   * Checks the project against the classpath.
+   *
+   * @param project a directory of class files or a jar, the entry point for reachability
+   * @param classpath the runtime classpath, in order; the first definition of a class wins
+   */
+  public List<Conflict> run(File project, List<File> classpath) {
+    final List<Conflict> conflicts = new ArrayList<>();
+    run(project, classpath, conflicts::add);
+    return conflicts;
+  }
+
+  /** Like {@link #run(File, List)}, passing the conflicts to the sink as they are found. */
+  public void run(File project, List<File> classpath, ConflictSink sink) {
+    long start = System.nanoTime();
+    final Artifact projectArtifact = load(new ArtifactName("project"), project);
+    final List<Artifact> classpathArtifacts = loadAll(classpath);
+    long end = System.nanoTime();
+    listener.phaseFinished(CheckPhase.LOAD, end - start);
+
+    start = end;
+    final List<Artifact> bootstrap =
+        bootstrapArtifacts != null ? bootstrapArtifacts : loadBootstrapArtifacts(loader, null);
+    listener.phaseFinished(CheckPhase.BOOTSTRAP, System.nanoTime() - start);
+
+    run(projectArtifact, classpathArtifacts, bootstrap, sink);
+  }
+
+  /** Checks artifacts that are already loaded, see {@link #run(File, List)}. */
+  public void run(
+      Artifact projectArtifact,
+      List<Artifact> classpathArtifacts,
+      List<Artifact> bootstrapArtifacts,
+      ConflictSink sink) {
+    checker.check(
+        projectArtifact,
+        classpathArtifacts,
+        allArtifacts(classpathArtifacts, bootstrapArtifacts),
+        sink);
+  }
+
+  /**
+   * The artifacts that calls are resolved against: the classpath followed by the JDK classes. The
+   * project is not part of them, it is only where reachability starts; this is how the Maven plugin
+   * has always checked, and the command line and the server do the same.
+   */
+  public static List<Artifact> allArtifacts(
+      List<Artifact> classpathArtifacts, List<Artifact> bootstrapArtifacts) {
+    final List<Artifact> allArtifacts = new ArrayList<>(classpathArtifacts);
+    allArtifacts.addAll(bootstrapArtifacts);
+    return allArtifacts;
+  }
+
+  /**
+   * Loads the jars and directories, concurrently when running in a ForkJoinPool. The artifacts are
+   * in the same order as the files, and are named after them.
+   */
+  public List<Artifact> loadAll(List<File> files) {
+    return (ForkJoinTask.inForkJoinPool() ? files.parallelStream() : files.stream())
+        .map(file -> load(new ArtifactName(file.getPath()), file))
+        .collect(Collectors.toList());
+  }
+
+  private Artifact load(ArtifactName name, File file) {
+    try {
+      return loader.load(name, file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not load " + file, e);
+    }
+  }
+
+  /**
+   * Loads the declarations of the classes of the running JDK: its modules on Java 9 and later, or
+   * the jars of the boot classpath on Java 8.
+   *
+   * @param cache where to keep the loaded modules, or null
+   */
+  public static List<Artifact> loadBootstrapArtifacts(ArtifactLoader loader, ArtifactCache cache) {
+    return loadBootstrapArtifacts(loader, cache, null);
+  }
+
+  /**
+   * Like {@link #loadBootstrapArtifacts(ArtifactLoader, ArtifactCache)}, only loading the JDK
+   * modules that contain one of the packages and the modules they require, see {@link
+   * Java9ModuleLoader#getJava9ModuleArtifacts(BiConsumer, ArtifactCache, Set, boolean)}. The whole
+   * boot classpath is loaded on Java 8.
+   *
+   * @param referencedPackages the packages in dotted form, or null to load all modules
+   */
+  public static List<Artifact> loadBootstrapArtifacts(
+      ArtifactLoader loader, ArtifactCache cache, Set<String> referencedPackages) {
+    final BiConsumer<String, Exception> ignore = (message, e) -> {};
+    final List<Artifact> modules =
+        Java9ModuleLoader.getJava9ModuleArtifacts(
+            ignore, cache, referencedPackages, true, loader.listener());
+    if (!modules.isEmpty()) {
+      return modules;
+    }
+    final String bootClasspath = System.getProperty("sun.boot.class.path");
+    if (bootClasspath == null) {
+      return modules;
+    }
+    final List<Artifact> artifacts = new ArrayList<>();
+    for (String path : bootClasspath.split(File.pathSeparator)) {
+      final File file = new File(path);
+      // some entries, like sunrsasign.jar, are reported even if they don't exist on disk
+      if (!file.exists()) {
+        continue;
+      }
+      try {
+        artifacts.add(loader.loadDeclarations(file));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not load " + file, e);
+      }
+    }
+    return artifacts;
+  }
+}
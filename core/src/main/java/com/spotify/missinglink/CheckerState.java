@@ -35,9 +35,9 @@
  */
 package com.spotify.missinglink;
 
+import com.spotify.missinglink.datamodel.Artifact;
 import com.spotify.missinglink.datamodel.ArtifactName;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
-import com.spotify.missinglink.datamodel.DeclaredClass;
 import io.norberg.automatter.AutoMatter;
 import java.util.Map;
 
@@ -45,5 +45,6 @@ import java.util.Map;
 interface CheckerState {
   Map<ClassTypeDescriptor, ArtifactName> sourceMappings();
 
-  Map<ClassTypeDescriptor, DeclaredClass> knownClasses();
+  /** The artifact each class is loaded from, i.e. the first one on the classpath to define it. */
+  Map<ClassTypeDescriptor, Artifact> definingArtifacts();
 }
@@ -36,44 +36,44 @@
 package com.spotify.missinglink;
 
 import com.spotify.missinglink.datamodel.AccessedField;
-import com.spotify.missinglink.datamodel.AccessedFieldBuilder;
 import com.spotify.missinglink.datamodel.CalledMethod;
-import com.spotify.missinglink.datamodel.CalledMethodBuilder;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
 import com.spotify.missinglink.datamodel.DeclaredClass;
-import com.spotify.missinglink.datamodel.DeclaredClassBuilder;
 import com.spotify.missinglink.datamodel.DeclaredField;
 import com.spotify.missinglink.datamodel.DeclaredFieldBuilder;
 import com.spotify.missinglink.datamodel.DeclaredMethod;
-import com.spotify.missinglink.datamodel.DeclaredMethodBuilder;
 import com.spotify.missinglink.datamodel.MethodDescriptor;
 import com.spotify.missinglink.datamodel.MethodDescriptors;
+import com.spotify.missinglink.datamodel.SymbolTable;
 import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
-import org.objectweb.asm.tree.AbstractInsnNode;
-import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.FieldInsnNode;
-import org.objectweb.asm.tree.FieldNode;
-import org.objectweb.asm.tree.LdcInsnNode;
-import org.objectweb.asm.tree.LineNumberNode;
-import org.objectweb.asm.tree.MethodInsnNode;
-import org.objectweb.asm.tree.MethodNode;
-import org.objectweb.asm.tree.TryCatchBlockNode;
-
-/** Loads a single class from an input stream. */
+
+/**
+ * Loads a single class from an input stream.
+ *
+ * <p>The class is analysed in a single pass over the class file: method calls and field accesses
+ * are recorded as ASM visits the instructions, without building a tree of the class first.
+ */
 public final class ClassLoader {
 
   // This is a set of classes that is using @HotSpotIntrinsicCandidate
@@ -87,219 +87,338 @@ public final class ClassLoader {
   }
 
   public static DeclaredClass load(InputStream in) throws IOException {
-    ClassNode classNode = readClassNode(in);
+    return analyse(in, 0);
+  }
 
-    Set<ClassTypeDescriptor> parents = readParents(classNode);
-    Set<DeclaredField> declaredFields = readDeclaredFields(classNode);
+  /**
+   * Loads only the declarations of a class: its parents, fields and method signatures. Method
+   * bodies are skipped entirely, so the methods have no calls or field accesses and the class has
+   * no loaded classes. This is enough to resolve calls made to the class, and much cheaper than
+   * {@link #load(InputStream)}.
+   */
+  public static DeclaredClass loadDeclarations(InputStream in) throws IOException {
+    return analyse(in, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+  }
 
-    Map<MethodDescriptor, DeclaredMethod> declaredMethods = new HashMap<>();
-    Set<ClassTypeDescriptor> loadedClasses = new HashSet<>();
+  /**
+   * Like {@link #load(InputStream)}, for a class file in the first {@code length} bytes of the
+   * array. The array is not retained, so callers can reuse it for the next class.
+   */
+  static DeclaredClass load(byte[] classFile, int length) {
+    return analyse(new ClassReader(classFile, 0, length), length, 0);
+  }
 
-    for (MethodNode method : classNode.methods) {
-      analyseMethod(classNode.name, method, declaredMethods, loadedClasses);
-    }
+  /** Like {@link #loadDeclarations(InputStream)}, see {@link #load(byte[], int)}. */
+  static DeclaredClass loadDeclarations(byte[] classFile, int length) {
+    return analyse(
+        new ClassReader(classFile, 0, length),
+        length,
+        ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+  }
 
-    return new DeclaredClassBuilder()
-        .className(TypeDescriptors.fromClassName(classNode.name))
-        .methods(declaredMethods)
-        .parents(parents)
-        .loadedClasses(loadedClasses)
-        .fields(declaredFields)
-        .build();
+  private static DeclaredClass analyse(InputStream in, int flags) throws IOException {
+    final byte[] classFile = readFully(in);
+    return analyse(new ClassReader(classFile), classFile.length, flags);
   }
 
-  private static ClassNode readClassNode(InputStream in) throws IOException {
-    final ClassNode classNode = new ClassNode();
-    ClassReader reader = new ClassReader(in);
-    reader.accept(classNode, 0);
-    return classNode;
+  /** Analyses the class, reporting it as a slow class to Flight Recorder if it takes long. */
+  private static DeclaredClass analyse(ClassReader reader, int length, int flags) {
+    final long start = System.nanoTime();
+    final ClassAnalyser analyser = new ClassAnalyser();
+    reader.accept(analyser, flags);
+    final DeclaredClass declaredClass = analyser.declaredClass();
+    final long elapsed = System.nanoTime() - start;
+    if (elapsed >= FlightRecorderEvents.SLOW_CLASS_NANOS) {
+      FlightRecorderEvents.SLOW_CLASS.commit(
+          FlightRecorderEvents.SLOW_CLASS.begin(),
+          declaredClass.className().getClassName(),
+          (long) length,
+          elapsed);
+    }
+    return declaredClass;
   }
 
-  private static Set<ClassTypeDescriptor> readParents(ClassNode classNode) {
-    final Set<ClassTypeDescriptor> parents =
-        classNode.interfaces.stream()
-            .map(TypeDescriptors::fromClassName)
-            .collect(Collectors.toSet());
-    // java/lang/Object has no superclass
-    if (classNode.superName != null) {
-      parents.add(TypeDescriptors.fromClassName(classNode.superName));
+  /** Reads the rest of the stream, leaving it open. */
+  public static byte[] readFully(InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
     }
-    return parents;
+    return out.toByteArray();
   }
 
-  private static Set<DeclaredField> readDeclaredFields(ClassNode classNode) {
-    Set<DeclaredField> fields = new HashSet<>();
+  private static final class ClassAnalyser extends ClassVisitor {
+
+    private String className;
+    private final Set<ClassTypeDescriptor> parents = new HashSet<>();
+    private final Set<DeclaredField> fields = new HashSet<>();
+    private final Map<MethodDescriptor, DeclaredMethod> methods = new HashMap<>();
+    private final Set<ClassTypeDescriptor> loadedClasses = new HashSet<>();
 
-    final Iterable<FieldNode> classFields = classNode.fields;
-    for (FieldNode field : classFields) {
+    ClassAnalyser() {
+      super(Opcodes.ASM9);
+    }
+
+    @Override
+    public void visit(
+        int version,
+        int access,
+        String name,
+        String signature,
+        String superName,
+        String[] interfaces) {
+      this.className = name;
+      if (interfaces != null) {
+        for (String parent : interfaces) {
+          parents.add(TypeDescriptors.fromClassName(parent));
+        }
+      }
+      // java/lang/Object has no superclass
+      if (superName != null) {
+        parents.add(TypeDescriptors.fromClassName(superName));
+      }
+    }
+
+    @Override
+    public FieldVisitor visitField(
+        int access, String name, String descriptor, String signature, Object value) {
       fields.add(
           new DeclaredFieldBuilder()
-              .name(field.name)
-              .descriptor(TypeDescriptors.fromRaw(field.desc))
+              .name(SymbolTable.current().name(name))
+              .descriptor(TypeDescriptors.fromRaw(descriptor))
               .build());
+      return null;
     }
-    return fields;
-  }
 
-  private static void analyseMethod(
-      String className,
-      MethodNode method,
-      Map<MethodDescriptor, DeclaredMethod> declaredMethods,
-      Set<ClassTypeDescriptor> loadedClasses) {
-    final Set<CalledMethod> thisCalls = new HashSet<>();
-    final Set<AccessedField> thisFields = new HashSet<>();
-
-    int lineNumber = 0;
-    final List<AbstractInsnNode> instructions = toList(method.instructions.iterator());
+    @Override
+    public MethodVisitor visitMethod(
+        int access, String name, String descriptor, String signature, String[] exceptions) {
+      return new MethodAnalyser(this, access, name, descriptor);
+    }
 
-    for (final AbstractInsnNode insn : instructions) {
-      try {
-        if (insn instanceof LineNumberNode) {
-          lineNumber = ((LineNumberNode) insn).line;
-        }
-        if (insn instanceof MethodInsnNode) {
-          handleMethodCall(
-              thisCalls,
-              lineNumber,
-              (MethodInsnNode) insn,
-              getTryCatchBlocksProtecting(instructions, insn, method));
-        }
-        if (insn instanceof FieldInsnNode) {
-          handleFieldAccess(
-              thisFields,
-              lineNumber,
-              (FieldInsnNode) insn,
-              getTryCatchBlocksProtecting(instructions, insn, method));
-        }
-        if (insn instanceof LdcInsnNode) {
-          handleLdc(loadedClasses, (LdcInsnNode) insn);
-        }
-      } catch (Exception e) {
-        throw new MissingLinkException(
-            "Error analysing " + className + "." + method.name + ", line: " + lineNumber, e);
+    void addMethod(DeclaredMethod declaredMethod) {
+      if (methods.put(declaredMethod.descriptor(), declaredMethod) != null) {
+        throw new RuntimeException(
+            "Multiple definitions of " + declaredMethod.descriptor() + " in class " + className);
       }
     }
 
-    final DeclaredMethod declaredMethod =
-        new DeclaredMethodBuilder()
-            .descriptor(MethodDescriptors.fromDesc(method.desc, method.name))
-            .lineNumber(lineNumber)
-            .methodCalls(thisCalls)
-            .fieldAccesses(thisFields)
-            .isStatic((method.access & Opcodes.ACC_STATIC) != 0)
-            .build();
-
-    if (declaredMethods.put(declaredMethod.descriptor(), declaredMethod) != null) {
-      throw new RuntimeException(
-          "Multiple definitions of " + declaredMethod.descriptor() + " in class " + className);
+    DeclaredClass declaredClass() {
+      return CompactModel.declaredClass(
+          TypeDescriptors.fromClassName(className), parents, loadedClasses, methods, fields);
     }
   }
 
-  private static <T> List<T> toList(final ListIterator<T> iterator) {
-    List<T> list = new ArrayList<T>();
-    while (iterator.hasNext()) {
-      list.add(iterator.next());
+  private static final class MethodAnalyser extends MethodVisitor {
+
+    private final ClassAnalyser owner;
+    private final int access;
+    private final String name;
+    private final String descriptor;
+
+    private final Set<CalledMethod> calls = new HashSet<>();
+    private final Set<AccessedField> fieldAccesses = new HashSet<>();
+    private int lineNumber = 0;
+
+    // the try/catch blocks with a type, in declaration order, and which of them are active at
+    // the current instruction. Blocks are always visited before the labels they refer to, so
+    // coverage is resolved in a single pass: each label is looked up once, and the list of caught
+    // exceptions is only rebuilt when a label actually changes the set of active blocks.
+    private final List<ClassTypeDescriptor> tryCatchTypes = new ArrayList<>();
+    private final Map<Label, List<Integer>> tryCatchStarts = new IdentityHashMap<>();
+    private final Map<Label, List<Integer>> tryCatchEnds = new IdentityHashMap<>();
+    private final BitSet activeTryCatches = new BitSet();
+    private List<ClassTypeDescriptor> caughtExceptions = Collections.emptyList();
+
+    MethodAnalyser(ClassAnalyser owner, int access, String name, String descriptor) {
+      super(Opcodes.ASM9);
+      this.owner = owner;
+      this.access = access;
+      this.name = name;
+      this.descriptor = descriptor;
     }
-    return list;
-  }
 
-  private static List<TryCatchBlockNode> getTryCatchBlocksProtecting(
-      final List<AbstractInsnNode> instructions,
-      final AbstractInsnNode insn,
-      final MethodNode method) {
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+      if (type == null) {
+        return;
+      }
+      final int index = tryCatchTypes.size();
+      tryCatchTypes.add(TypeDescriptors.fromClassName(type));
+      tryCatchStarts.computeIfAbsent(start, label -> new ArrayList<>()).add(index);
+      tryCatchEnds.computeIfAbsent(end, label -> new ArrayList<>()).add(index);
+    }
 
-    final List<TryCatchBlockNode> protectedByTryCatches = new ArrayList<>();
-    final int instructionIndex = instructions.indexOf(insn);
-    for (final TryCatchBlockNode tryCatchBlockNode : method.tryCatchBlocks) {
-      if (tryCatchBlockNode.type == null) {
-        continue;
+    @Override
+    public void visitLabel(Label label) {
+      // the end label of a block is exclusive, and the start label inclusive
+      final List<Integer> ending = tryCatchEnds.get(label);
+      if (ending != null) {
+        ending.forEach(activeTryCatches::clear);
+        caughtExceptions = null;
       }
-      final int catchStartIndex = instructions.indexOf(tryCatchBlockNode.start);
-      final int catchEndIndex = instructions.indexOf(tryCatchBlockNode.end);
-      if (instructionIndex > catchStartIndex && instructionIndex < catchEndIndex) {
-        protectedByTryCatches.add(tryCatchBlockNode);
+      final List<Integer> starting = tryCatchStarts.get(label);
+      if (starting != null) {
+        starting.forEach(activeTryCatches::set);
+        caughtExceptions = null;
       }
     }
-    return protectedByTryCatches;
-  }
 
-  private static void handleMethodCall(
-      final Set<CalledMethod> thisCalls,
-      final int lineNumber,
-      final MethodInsnNode insn,
-      final List<TryCatchBlockNode> tryCatchBlocksProtecting) {
-    boolean isStatic;
-    switch (insn.getOpcode()) {
-      case Opcodes.INVOKEVIRTUAL:
-      case Opcodes.INVOKEINTERFACE:
-        isStatic = false;
-        break;
-      case Opcodes.INVOKESPECIAL:
-        isStatic = false;
-        break;
-      case Opcodes.INVOKESTATIC:
-        isStatic = true;
-        break;
-      default:
-        throw new RuntimeException("Unexpected method call opcode: " + insn.getOpcode());
+    @Override
+    public void visitLineNumber(int line, Label start) {
+      lineNumber = line;
     }
-    if (isArray(insn.owner) && !BLACKLIST.contains(insn.owner)) {
-      thisCalls.add(
-          new CalledMethodBuilder()
-              .owner(TypeDescriptors.fromClassName(insn.owner))
-              .descriptor(MethodDescriptors.fromDesc(insn.desc, insn.name))
-              .isStatic(isStatic)
-              .lineNumber(lineNumber)
-              .caughtExceptions(
-                  tryCatchBlocksProtecting.stream()
-                      .map(node -> TypeDescriptors.fromClassName(node.type))
-                      .collect(Collectors.toList()))
-              .build());
+
+    @Override
+    public void visitMethodInsn(
+        int opcode, String owner, String name, String descriptor, boolean isInterface) {
+      try {
+        boolean isStatic;
+        switch (opcode) {
+          case Opcodes.INVOKEVIRTUAL:
+          case Opcodes.INVOKEINTERFACE:
+            isStatic = false;
+            break;
+          case Opcodes.INVOKESPECIAL:
+            isStatic = false;
+            break;
+          case Opcodes.INVOKESTATIC:
+            isStatic = true;
+            break;
+          default:
+            throw new RuntimeException("Unexpected method call opcode: " + opcode);
+        }
+        addCall(owner, name, descriptor, isStatic);
+      } catch (Exception e) {
+        throw analysisError(e);
+      }
     }
-  }
 
-  private static void handleFieldAccess(
-      Set<AccessedField> thisFields,
-      int lineNumber,
-      FieldInsnNode insn,
-      final List<TryCatchBlockNode> tryCatchBlocksProtecting) {
-    if (isArray(insn.owner)) {
-      thisFields.add(
-          new AccessedFieldBuilder()
-              .name(insn.name)
-              .descriptor(TypeDescriptors.fromRaw(insn.desc))
-              .owner(TypeDescriptors.fromClassName(insn.owner))
-              .lineNumber(lineNumber)
-              .caughtExceptions(
-                  tryCatchBlocksProtecting.stream()
-                      .map(node -> TypeDescriptors.fromClassName(node.type))
-                      .collect(Collectors.toList()))
-              .build());
+    @Override
+    public void visitInvokeDynamicInsn(
+        String name, String descriptor, Handle bootstrapMethod, Object... bootstrapArguments) {
+      // lambdas and method references are linked through a bootstrap method (like
+      // LambdaMetafactory) that is handed the implementation method as a method handle. The
+      // bootstrap method itself is a JDK detail, but the handles are what the call site ends up
+      // calling, so they are recorded as calls made by this method.
+      try {
+        for (Object argument : bootstrapArguments) {
+          if (argument instanceof Handle) {
+            handleCall((Handle) argument);
+          }
+        }
+      } catch (Exception e) {
+        throw analysisError(e);
+      }
     }
-  }
 
-  private static boolean isArray(String owner) {
-    return owner.charAt(0) != '[';
-  }
+    private void handleCall(Handle handle) {
+      final boolean isStatic;
+      switch (handle.getTag()) {
+        case Opcodes.H_INVOKEVIRTUAL:
+        case Opcodes.H_INVOKEINTERFACE:
+        case Opcodes.H_INVOKESPECIAL:
+        case Opcodes.H_NEWINVOKESPECIAL:
+          isStatic = false;
+          break;
+        case Opcodes.H_INVOKESTATIC:
+          isStatic = true;
+          break;
+        default:
+          // field handles
+          return;
+      }
+      addCall(handle.getOwner(), handle.getName(), handle.getDesc(), isStatic);
+    }
 
-  private static void handleLdc(Set<ClassTypeDescriptor> loadedClasses, LdcInsnNode insn) {
-    // See http://docs.oracle.com/javase/specs/jvms/se8/html/jvms-6.html#jvms-6.5.ldc
-    // if an LDC instruction is emitted with a symbolic reference to a class, that class is
-    // loaded. This means we need to at least check for presence of that class, and also
-    // validate its static initialisation code, if any. It would probably be safe for some
-    // future to ignore other methods defined by the class.
-    if (insn.cst instanceof Type) {
-      Type type = (Type) insn.cst;
+    private void addCall(String owner, String name, String descriptor, boolean isStatic) {
+      if (isArray(owner) && !BLACKLIST.contains(owner)) {
+        calls.add(
+            CompactModel.calledMethod(
+                TypeDescriptors.fromClassName(owner),
+                MethodDescriptors.fromDesc(descriptor, name),
+                isStatic,
+                lineNumber,
+                caughtExceptions()));
+      }
+    }
 
-      Type loadedType = type;
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+      try {
+        if (isArray(owner)) {
+          fieldAccesses.add(
+              CompactModel.accessedField(
+                  TypeDescriptors.fromClassName(owner),
+                  TypeDescriptors.fromRaw(descriptor),
+                  SymbolTable.current().name(name),
+                  lineNumber,
+                  caughtExceptions()));
+        }
+      } catch (Exception e) {
+        throw analysisError(e);
+      }
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+      // See http://docs.oracle.com/javase/specs/jvms/se8/html/jvms-6.html#jvms-6.5.ldc
+      // if an LDC instruction is emitted with a symbolic reference to a class, that class is
+      // loaded. This means we need to at least check for presence of that class, and also
+      // validate its static initialisation code, if any. It would probably be safe for some
+      // future to ignore other methods defined by the class.
+      try {
+        if (value instanceof Type) {
+          Type type = (Type) value;
+
+          Type loadedType = type;
 
-      if (type.getSort() == Type.ARRAY) {
-        loadedType = type.getElementType();
+          if (type.getSort() == Type.ARRAY) {
+            loadedType = type.getElementType();
+          }
+
+          if (loadedType.getSort() == Type.OBJECT) {
+            owner.loadedClasses.add(TypeDescriptors.fromClassName(loadedType.getInternalName()));
+          }
+        }
+      } catch (Exception e) {
+        throw analysisError(e);
       }
+    }
 
-      if (loadedType.getSort() == Type.OBJECT) {
-        loadedClasses.add(TypeDescriptors.fromClassName(loadedType.getInternalName()));
+    @Override
+    public void visitEnd() {
+      owner.addMethod(
+          CompactModel.declaredMethod(
+              MethodDescriptors.fromDesc(descriptor, name),
+              (access & Opcodes.ACC_STATIC) != 0,
+              lineNumber,
+              calls,
+              fieldAccesses));
+    }
+
+    private List<ClassTypeDescriptor> caughtExceptions() {
+      if (caughtExceptions == null) {
+        final List<ClassTypeDescriptor> caught = new ArrayList<>(activeTryCatches.cardinality());
+        for (int i = activeTryCatches.nextSetBit(0);
+            i >= 0;
+            i = activeTryCatches.nextSetBit(i + 1)) {
+          caught.add(tryCatchTypes.get(i));
+        }
+        caughtExceptions = CompactCollections.list(caught);
       }
+      return caughtExceptions;
+    }
+
+    private MissingLinkException analysisError(Exception e) {
+      return new MissingLinkException(
+          "Error analysing " + owner.className + "." + name + ", line: " + lineNumber, e);
     }
   }
+
+  private static boolean isArray(String owner) {
+    return owner.charAt(0) != '[';
+  }
 }
@@ -0,0 +1,299 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable collections that take a fraction of the memory of the {@link java.util.HashSet} and
+ * {@link java.util.HashMap} copies that the AutoMatter builders make, for the collections that the
+ * loaded classes hold on to. They are equal to, and have the same hash codes as, any other set, map
+ * or list with the same contents.
+ *
+ * <p>Small collections are stored in arrays of their exact size and searched linearly; larger ones
+ * in an open addressing hash table of at least twice their size, without any per-entry objects.
+ */
+final class CompactCollections {
+
+  // the most elements that are searched linearly, rather than looked up by hash
+  private static final int LINEAR_SCAN_LIMIT = 8;
+
+  private CompactCollections() {
+    // prevent instantiation
+  }
+
+  static <E> Set<E> set(Set<? extends E> elements) {
+    switch (elements.size()) {
+      case 0:
+        return Collections.emptySet();
+      case 1:
+        return Collections.singleton(elements.iterator().next());
+      default:
+        return new ArraySet<>(elements);
+    }
+  }
+
+  static <K, V> Map<K, V> map(Map<? extends K, ? extends V> map) {
+    switch (map.size()) {
+      case 0:
+        return Collections.emptyMap();
+      case 1:
+        final Map.Entry<? extends K, ? extends V> entry = map.entrySet().iterator().next();
+        return Collections.singletonMap(entry.getKey(), entry.getValue());
+      default:
+        return new ArrayMap<>(map);
+    }
+  }
+
+  static <E> List<E> list(List<? extends E> elements) {
+    switch (elements.size()) {
+      case 0:
+        return Collections.emptyList();
+      case 1:
+        return Collections.singletonList(elements.get(0));
+      default:
+        @SuppressWarnings("unchecked")
+        final List<E> copy = (List<E>) Arrays.asList(elements.toArray());
+        return Collections.unmodifiableList(copy);
+    }
+  }
+
+  /** The length of the table to store the given number of distinct keys in. */
+  private static int tableLength(int size) {
+    if (size <= LINEAR_SCAN_LIMIT) {
+      return size;
+    }
+    return Integer.highestOneBit(size * 2 - 1) << 1;
+  }
+
+  /**
+   * Returns where the key is in the table, or -1 if it is not there. Tables for small collections
+   * are full, and searched linearly; the others are hash tables with free slots.
+   */
+  private static int indexOf(Object[] table, Object key) {
+    if (key == null) {
+      return -1;
+    }
+    final int index =
+        table.length <= LINEAR_SCAN_LIMIT ? linearIndexOf(table, key) : probe(table, key);
+    return index >= 0 && table[index] != null ? index : -1;
+  }
+
+  /** The index of the key, or of the first free slot, in a table that is searched linearly. */
+  private static int linearIndexOf(Object[] table, Object key) {
+    for (int i = 0; i < table.length; i++) {
+      if (table[i] == null || table[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** The index of the key, or of the free slot where it should go, in a hash table. */
+  private static int probe(Object[] table, Object key) {
+    final int mask = table.length - 1;
+    final int h = key.hashCode();
+    int i = (h ^ (h >>> 16)) & mask;
+    while (table[i] != null && !table[i].equals(key)) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  /** Where to put a key that is not in the table yet. */
+  private static int insertionIndex(Object[] table, Object key) {
+    return table.length <= LINEAR_SCAN_LIMIT ? linearIndexOf(table, key) : probe(table, key);
+  }
+
+  /** Iterates over the occupied slots of a table. */
+  private abstract static class TableIterator<T> implements Iterator<T> {
+    private final Object[] table;
+    private int next;
+
+    TableIterator(Object[] table) {
+      this.table = table;
+      advance(0);
+    }
+
+    private void advance(int from) {
+      next = from;
+      while (next < table.length && table[next] == null) {
+        next++;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < table.length;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final int index = next;
+      advance(index + 1);
+      return get(index);
+    }
+
+    abstract T get(int index);
+  }
+
+  private static final class ArraySet<E> extends AbstractSet<E> {
+
+    private final Object[] table;
+    private final int size;
+
+    ArraySet(Set<? extends E> elements) {
+      this.size = elements.size();
+      this.table = new Object[tableLength(size)];
+      for (E element : elements) {
+        table[insertionIndex(table, element)] = element;
+      }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return indexOf(table, o) >= 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new TableIterator<E>(table) {
+        @Override
+        @SuppressWarnings("unchecked")
+        E get(int index) {
+          return (E) table[index];
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private static final class ArrayMap<K, V> extends AbstractMap<K, V> {
+
+    // values[i] is the value of keys[i]
+    private final Object[] keys;
+    private final Object[] values;
+    private final int size;
+
+    ArrayMap(Map<? extends K, ? extends V> map) {
+      this.size = map.size();
+      this.keys = new Object[tableLength(size)];
+      this.values = new Object[keys.length];
+      for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+        final int index = insertionIndex(keys, entry.getKey());
+        keys[index] = entry.getKey();
+        values[index] = entry.getValue();
+      }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+      final int index = indexOf(keys, key);
+      return index >= 0 ? (V) values[index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexOf(keys, key) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+      return new AbstractSet<Entry<K, V>>() {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+          return new TableIterator<Entry<K, V>>(keys) {
+            @Override
+            @SuppressWarnings("unchecked")
+            Entry<K, V> get(int index) {
+              return new SimpleImmutableEntry<>((K) keys[index], (V) values[index]);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+
+    @Override
+    public Collection<V> values() {
+      // without going through entries, as the checker iterates over the methods of every class
+      return new AbstractCollection<V>() {
+        @Override
+        public Iterator<V> iterator() {
+          return new TableIterator<V>(keys) {
+            @Override
+            @SuppressWarnings("unchecked")
+            V get(int index) {
+              return (V) values[index];
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+  }
+}
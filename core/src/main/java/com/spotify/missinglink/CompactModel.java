@@ -0,0 +1,477 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.AccessedField;
+import com.spotify.missinglink.datamodel.CalledMethod;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.DeclaredField;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import com.spotify.missinglink.datamodel.MethodDescriptor;
+import com.spotify.missinglink.datamodel.TypeDescriptor;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implementations of the datamodel for the classes that are loaded and kept for the whole check.
+ * Unlike the values built by the AutoMatter builders, they keep their collections in {@link
+ * CompactCollections} and share the lists of caught exceptions instead of copying them for every
+ * call. Each is equal to, and has the same hash code as, the AutoMatter value with the same
+ * contents.
+ */
+final class CompactModel {
+
+  private CompactModel() {
+    // prevent instantiation
+  }
+
+  static DeclaredClass declaredClass(
+      ClassTypeDescriptor className,
+      Set<ClassTypeDescriptor> parents,
+      Set<ClassTypeDescriptor> loadedClasses,
+      Map<MethodDescriptor, DeclaredMethod> methods,
+      Set<DeclaredField> fields) {
+    return new CompactDeclaredClass(
+        Objects.requireNonNull(className),
+        CompactCollections.set(parents),
+        CompactCollections.set(loadedClasses),
+        CompactCollections.map(methods),
+        CompactCollections.set(fields));
+  }
+
+  static DeclaredMethod declaredMethod(
+      MethodDescriptor descriptor,
+      boolean isStatic,
+      int lineNumber,
+      Set<CalledMethod> methodCalls,
+      Set<AccessedField> fieldAccesses) {
+    return new CompactDeclaredMethod(
+        Objects.requireNonNull(descriptor),
+        isStatic,
+        lineNumber,
+        CompactCollections.set(methodCalls),
+        CompactCollections.set(fieldAccesses));
+  }
+
+  /** @param caughtExceptions an immutable list, which is kept as it is */
+  static CalledMethod calledMethod(
+      ClassTypeDescriptor owner,
+      MethodDescriptor descriptor,
+      boolean isStatic,
+      int lineNumber,
+      List<ClassTypeDescriptor> caughtExceptions) {
+    return new CompactCalledMethod(
+        Objects.requireNonNull(owner),
+        Objects.requireNonNull(descriptor),
+        isStatic,
+        lineNumber,
+        Objects.requireNonNull(caughtExceptions));
+  }
+
+  /** @param caughtExceptions an immutable list, which is kept as it is */
+  static AccessedField accessedField(
+      ClassTypeDescriptor owner,
+      TypeDescriptor descriptor,
+      String name,
+      int lineNumber,
+      List<ClassTypeDescriptor> caughtExceptions) {
+    return new CompactAccessedField(
+        Objects.requireNonNull(owner),
+        Objects.requireNonNull(descriptor),
+        Objects.requireNonNull(name),
+        lineNumber,
+        Objects.requireNonNull(caughtExceptions));
+  }
+
+  private static final class CompactDeclaredClass implements DeclaredClass {
+    private final ClassTypeDescriptor className;
+    private final Set<ClassTypeDescriptor> parents;
+    private final Set<ClassTypeDescriptor> loadedClasses;
+    private final Map<MethodDescriptor, DeclaredMethod> methods;
+    private final Set<DeclaredField> fields;
+
+    CompactDeclaredClass(
+        ClassTypeDescriptor className,
+        Set<ClassTypeDescriptor> parents,
+        Set<ClassTypeDescriptor> loadedClasses,
+        Map<MethodDescriptor, DeclaredMethod> methods,
+        Set<DeclaredField> fields) {
+      this.className = className;
+      this.parents = parents;
+      this.loadedClasses = loadedClasses;
+      this.methods = methods;
+      this.fields = fields;
+    }
+
+    @Override
+    public ClassTypeDescriptor className() {
+      return className;
+    }
+
+    @Override
+    public Set<ClassTypeDescriptor> parents() {
+      return parents;
+    }
+
+    @Override
+    public Set<ClassTypeDescriptor> loadedClasses() {
+      return loadedClasses;
+    }
+
+    @Override
+    public Map<MethodDescriptor, DeclaredMethod> methods() {
+      return methods;
+    }
+
+    @Override
+    public Set<DeclaredField> fields() {
+      return fields;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof DeclaredClass)) {
+        return false;
+      }
+      final DeclaredClass that = (DeclaredClass) o;
+      return className.equals(that.className())
+          && parents.equals(that.parents())
+          && loadedClasses.equals(that.loadedClasses())
+          && methods.equals(that.methods())
+          && fields.equals(that.fields());
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 1;
+      result = 31 * result + className.hashCode();
+      result = 31 * result + parents.hashCode();
+      result = 31 * result + loadedClasses.hashCode();
+      result = 31 * result + methods.hashCode();
+      result = 31 * result + fields.hashCode();
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "DeclaredClass{"
+          + "className="
+          + className
+          + ", parents="
+          + parents
+          + ", loadedClasses="
+          + loadedClasses
+          + ", methods="
+          + methods
+          + ", fields="
+          + fields
+          + '}';
+    }
+  }
+
+  private static final class CompactDeclaredMethod implements DeclaredMethod {
+    private final MethodDescriptor descriptor;
+    private final boolean isStatic;
+    private final int lineNumber;
+    private final Set<CalledMethod> methodCalls;
+    private final Set<AccessedField> fieldAccesses;
+
+    CompactDeclaredMethod(
+        MethodDescriptor descriptor,
+        boolean isStatic,
+        int lineNumber,
+        Set<CalledMethod> methodCalls,
+        Set<AccessedField> fieldAccesses) {
+      this.descriptor = descriptor;
+      this.isStatic = isStatic;
+      this.lineNumber = lineNumber;
+      this.methodCalls = methodCalls;
+      this.fieldAccesses = fieldAccesses;
+    }
+
+    @Override
+    public MethodDescriptor descriptor() {
+      return descriptor;
+    }
+
+    @Override
+    public boolean isStatic() {
+      return isStatic;
+    }
+
+    @Override
+    public int lineNumber() {
+      return lineNumber;
+    }
+
+    @Override
+    public Set<CalledMethod> methodCalls() {
+      return methodCalls;
+    }
+
+    @Override
+    public Set<AccessedField> fieldAccesses() {
+      return fieldAccesses;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof DeclaredMethod)) {
+        return false;
+      }
+      final DeclaredMethod that = (DeclaredMethod) o;
+      return descriptor.equals(that.descriptor())
+          && isStatic == that.isStatic()
+          && lineNumber == that.lineNumber()
+          && methodCalls.equals(that.methodCalls())
+          && fieldAccesses.equals(that.fieldAccesses());
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 1;
+      result = 31 * result + descriptor.hashCode();
+      result = 31 * result + (isStatic ? 1231 : 1237);
+      result = 31 * result + lineNumber;
+      result = 31 * result + methodCalls.hashCode();
+      result = 31 * result + fieldAccesses.hashCode();
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "DeclaredMethod{"
+          + "descriptor="
+          + descriptor
+          + ", isStatic="
+          + isStatic
+          + ", lineNumber="
+          + lineNumber
+          + ", methodCalls="
+          + methodCalls
+          + ", fieldAccesses="
+          + fieldAccesses
+          + '}';
+    }
+  }
+
+  private static final class CompactCalledMethod implements CalledMethod {
+    private final ClassTypeDescriptor owner;
+    private final MethodDescriptor descriptor;
+    private final boolean isStatic;
+    private final int lineNumber;
+    private final List<ClassTypeDescriptor> caughtExceptions;
+
+    CompactCalledMethod(
+        ClassTypeDescriptor owner,
+        MethodDescriptor descriptor,
+        boolean isStatic,
+        int lineNumber,
+        List<ClassTypeDescriptor> caughtExceptions) {
+      this.owner = owner;
+      this.descriptor = descriptor;
+      this.isStatic = isStatic;
+      this.lineNumber = lineNumber;
+      this.caughtExceptions = caughtExceptions;
+    }
+
+    @Override
+    public ClassTypeDescriptor owner() {
+      return owner;
+    }
+
+    @Override
+    public MethodDescriptor descriptor() {
+      return descriptor;
+    }
+
+    @Override
+    public boolean isStatic() {
+      return isStatic;
+    }
+
+    @Override
+    public int lineNumber() {
+      return lineNumber;
+    }
+
+    @Override
+    public List<ClassTypeDescriptor> caughtExceptions() {
+      return caughtExceptions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CalledMethod)) {
+        return false;
+      }
+      final CalledMethod that = (CalledMethod) o;
+      return owner.equals(that.owner())
+          && descriptor.equals(that.descriptor())
+          && isStatic == that.isStatic()
+          && lineNumber == that.lineNumber()
+          && caughtExceptions.equals(that.caughtExceptions());
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 1;
+      result = 31 * result + owner.hashCode();
+      result = 31 * result + descriptor.hashCode();
+      result = 31 * result + (isStatic ? 1231 : 1237);
+      result = 31 * result + lineNumber;
+      result = 31 * result + caughtExceptions.hashCode();
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "CalledMethod{"
+          + "owner="
+          + owner
+          + ", descriptor="
+          + descriptor
+          + ", isStatic="
+          + isStatic
+          + ", lineNumber="
+          + lineNumber
+          + ", caughtExceptions="
+          + caughtExceptions
+          + '}';
+    }
+  }
+
+  private static final class CompactAccessedField implements AccessedField {
+    private final ClassTypeDescriptor owner;
+    private final TypeDescriptor descriptor;
+    private final String name;
+    private final int lineNumber;
+    private final List<ClassTypeDescriptor> caughtExceptions;
+
+    CompactAccessedField(
+        ClassTypeDescriptor owner,
+        TypeDescriptor descriptor,
+        String name,
+        int lineNumber,
+        List<ClassTypeDescriptor> caughtExceptions) {
+      this.owner = owner;
+      this.descriptor = descriptor;
+      this.name = name;
+      this.lineNumber = lineNumber;
+      this.caughtExceptions = caughtExceptions;
+    }
+
+    @Override
+    public ClassTypeDescriptor owner() {
+      return owner;
+    }
+
+    @Override
+    public TypeDescriptor descriptor() {
+      return descriptor;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public int lineNumber() {
+      return lineNumber;
+    }
+
+    @Override
+    public List<ClassTypeDescriptor> caughtExceptions() {
+      return caughtExceptions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof AccessedField)) {
+        return false;
+      }
+      final AccessedField that = (AccessedField) o;
+      return owner.equals(that.owner())
+          && descriptor.equals(that.descriptor())
+          && name.equals(that.name())
+          && lineNumber == that.lineNumber()
+          && caughtExceptions.equals(that.caughtExceptions());
+    }
+
+    @Override
+    public int hashCode() {
+      int result = 1;
+      result = 31 * result + owner.hashCode();
+      result = 31 * result + descriptor.hashCode();
+      result = 31 * result + name.hashCode();
+      result = 31 * result + lineNumber;
+      result = 31 * result + caughtExceptions.hashCode();
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "AccessedField{"
+          + "owner="
+          + owner
+          + ", descriptor="
+          + descriptor
+          + ", name="
+          + name
+          + ", lineNumber="
+          + lineNumber
+          + ", caughtExceptions="
+          + caughtExceptions
+          + '}';
+    }
+  }
+}
@@ -35,8 +35,6 @@
  */
 package com.spotify.missinglink;
 
-import static java.util.stream.Collectors.toList;
-
 import com.spotify.missinglink.Conflict.ConflictCategory;
 import com.spotify.missinglink.datamodel.AccessedField;
 import com.spotify.missinglink.datamodel.Artifact;
@@ -44,7 +42,6 @@ import com.spotify.missinglink.datamodel.ArtifactName;
 import com.spotify.missinglink.datamodel.CalledMethod;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
 import com.spotify.missinglink.datamodel.DeclaredClass;
-import com.spotify.missinglink.datamodel.DeclaredField;
 import com.spotify.missinglink.datamodel.DeclaredFieldBuilder;
 import com.spotify.missinglink.datamodel.DeclaredMethod;
 import com.spotify.missinglink.datamodel.Dependency;
@@ -52,14 +49,20 @@ import com.spotify.missinglink.datamodel.FieldDependencyBuilder;
 import com.spotify.missinglink.datamodel.MethodDependencyBuilder;
 import com.spotify.missinglink.datamodel.MethodDescriptor;
 import com.spotify.missinglink.datamodel.TypeDescriptor;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Inputs:
@@ -109,6 +112,214 @@ public class ConflictChecker {
 
   public static final ArtifactName UNKNOWN_ARTIFACT_NAME = new ArtifactName("<unknown>");
 
+  private final boolean methodReachability;
+  private final boolean parallel;
+  private final Consumer<ResolutionStatistics> resolutionStatistics;
+  private final IncrementalState incrementalState;
+  private final Set<ConflictCategory> categories;
+  private final Predicate<ClassTypeDescriptor> sourceFilter;
+  private final Predicate<ClassTypeDescriptor> destinationFilter;
+  private final CheckListener listener;
+  private final Consumer<Conflict> filteredConflicts;
+
+  private static final Predicate<ClassTypeDescriptor> ALL_CLASSES = className -> true;
+
+  public ConflictChecker() {
+    this(
+        false,
+        false,
+        statistics -> {},
+        null,
+        EnumSet.allOf(ConflictCategory.class),
+        ALL_CLASSES,
+        ALL_CLASSES,
+        CheckListener.NONE,
+        null);
+  }
+
+  private ConflictChecker(
+      boolean methodReachability,
+      boolean parallel,
+      Consumer<ResolutionStatistics> resolutionStatistics,
+      IncrementalState incrementalState,
+      Set<ConflictCategory> categories,
+      Predicate<ClassTypeDescriptor> sourceFilter,
+      Predicate<ClassTypeDescriptor> destinationFilter,
+      CheckListener listener,
+      Consumer<Conflict> filteredConflicts) {
+    this.methodReachability = methodReachability;
+    this.parallel = parallel;
+    this.resolutionStatistics = resolutionStatistics;
+    this.incrementalState = incrementalState;
+    this.categories = categories;
+    this.sourceFilter = sourceFilter;
+    this.destinationFilter = destinationFilter;
+    this.listener = listener;
+    this.filteredConflicts = filteredConflicts;
+  }
+
+  /**
+   * Returns a checker that only checks the methods reachable from the methods of the project
+   * artifact, following method calls including virtual dispatch to overriding methods, instead of
+   * every method of every reachable class. See {@link MethodReachability} for the details.
+   */
+  public ConflictChecker withMethodReachability(boolean methodReachability) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that checks the reachable classes in parallel, using the ForkJoinPool that
+   * {@link #check} is called from or the common pool. The conflicts are the same, and in the same
+   * order, as when checking sequentially.
+   */
+  public ConflictChecker withParallelChecking(boolean parallel) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that reports how effective the cache of resolved methods and fields was to
+   * the given consumer at the end of every check.
+   */
+  public ConflictChecker withResolutionStatistics(
+      Consumer<ResolutionStatistics> resolutionStatistics) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that skips the methods of dependencies that the state knows to have no
+   * conflicts, and records the methods that it finds to have none. The classes of the project
+   * artifact are always checked, since they are the ones expected to change between runs.
+   */
+  public ConflictChecker withIncrementalState(IncrementalState incrementalState) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that only looks for conflicts of the given categories, or of all categories
+   * if the set is empty. Members are not resolved at all when their category is left out.
+   */
+  public ConflictChecker withCategories(Set<ConflictCategory> categories) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories.isEmpty()
+            ? EnumSet.allOf(ConflictCategory.class)
+            : Collections.unmodifiableSet(EnumSet.copyOf(categories)),
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that only looks for conflicts in the classes accepted by the filter. The
+   * methods of the other classes are still followed to find the reachable classes, but are never
+   * checked themselves.
+   */
+  public ConflictChecker withSourceFilter(Predicate<ClassTypeDescriptor> sourceFilter) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that only looks for conflicts in calls and field accesses to the classes
+   * accepted by the filter. Other calls and field accesses are skipped before their class is looked
+   * up.
+   */
+  public ConflictChecker withDestinationFilter(Predicate<ClassTypeDescriptor> destinationFilter) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that tells the listener how long each of its phases took, and what it
+   * checked.
+   */
+  public ConflictChecker withListener(CheckListener listener) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
+  /**
+   * Returns a checker that still looks for the conflicts that the categories and the source and
+   * destination filters leave out, and passes them to the consumer instead of the sink, so that the
+   * caller can tell how many were left out. This takes the work the filters would otherwise save.
+   */
+  public ConflictChecker withFilteredConflicts(Consumer<Conflict> filteredConflicts) {
+    return new ConflictChecker(
+        methodReachability,
+        parallel,
+        resolutionStatistics,
+        incrementalState,
+        categories,
+        sourceFilter,
+        destinationFilter,
+        listener,
+        filteredConflicts);
+  }
+
   /**
    * @param projectArtifact the main artifact of the project we're verifying (this is considered the
    *     entry point for reachability)
@@ -118,36 +329,181 @@ public class ConflictChecker {
    */
   public List<Conflict> check(
       Artifact projectArtifact, List<Artifact> artifactsToCheck, List<Artifact> allArtifacts) {
+    final List<Conflict> conflicts = new ArrayList<>();
+    check(projectArtifact, artifactsToCheck, allArtifacts, conflicts::add);
+    return conflicts;
+  }
 
+  /**
+   * Like {@link #check(Artifact, List, List)}, but passes the conflicts to the sink as each class
+   * is checked instead of collecting them, so that only the conflicts the sink keeps take up
+   * memory. Stops early once the sink returns false.
+   *
+   * @param sink receives the conflicts in order, one at a time
+   */
+  public void check(
+      Artifact projectArtifact,
+      List<Artifact> artifactsToCheck,
+      List<Artifact> allArtifacts,
+      ConflictSink sink) {
+
+    final PhaseTimer timer = new PhaseTimer();
     final CheckerStateBuilder stateBuilder = new CheckerStateBuilder();
 
     createCanonicalClassMapping(stateBuilder, allArtifacts);
     CheckerState state = stateBuilder.build();
-
-    // brute-force reachability analysis
-    Set<TypeDescriptor> reachableClasses =
-        reachableFrom(projectArtifact.classes().values(), state.knownClasses());
-
-    final List<Conflict> conflicts = new ArrayList<>();
+    final Map<ClassTypeDescriptor, DeclaredClass> knownClasses =
+        new KnownClasses(state.definingArtifacts());
+    timer.finished(CheckPhase.CANONICAL_MAPPING);
+
+    final Map<ClassTypeDescriptor, Set<MethodDescriptor>> reachableMethods;
+    final Set<? extends TypeDescriptor> reachableClasses;
+    if (methodReachability) {
+      final Set<ClassTypeDescriptor> checkedClasses = new HashSet<>();
+      checkedClasses.addAll(projectArtifact.classes().keySet());
+      for (Artifact artifact : artifactsToCheck) {
+        checkedClasses.addAll(artifact.classes().keySet());
+      }
+      reachableMethods =
+          new MethodReachability(knownClasses, checkedClasses::contains)
+              .reachableFrom(projectArtifact.classes().values());
+      reachableClasses = reachableMethods.keySet();
+    } else {
+      // brute-force reachability analysis
+      reachableMethods = null;
+      reachableClasses = reachableFrom(projectArtifact.classes().values(), knownClasses);
+    }
+    timer.finished(CheckPhase.REACHABILITY);
 
     // Then go through everything in the classpath to make sure all the method calls / field
     // references
     // are satisfied.
+    // Only look up the reachable classes, so that lazily loaded artifacts never parse the others.
+    final List<Entry<Artifact, ClassTypeDescriptor>> classesToCheck = new ArrayList<>();
     for (Artifact artifact : artifactsToCheck) {
-      for (DeclaredClass clazz : artifact.classes().values()) {
-        if (!reachableClasses.contains(clazz.className())) {
-          continue;
+      for (ClassTypeDescriptor className : artifact.classes().keySet()) {
+        if (reachableClasses.contains(className) && looksFor(sourceFilter.test(className))) {
+          classesToCheck.add(new AbstractMap.SimpleImmutableEntry<>(artifact, className));
         }
+      }
+    }
 
-        for (DeclaredMethod method : clazz.methods().values()) {
-          conflicts.addAll(checkForBrokenMethodCalls(state, artifact, clazz, method));
-          conflicts.addAll(checkForBrokenFieldAccess(state, artifact, clazz, method));
-        }
+    // Each class is checked on its own and the results are passed on in the order above, so the
+    // conflicts do not depend on how the classes were scheduled. Once the sink has had enough, the
+    // classes that have not been started on yet are skipped.
+    final MemberResolver resolver = new MemberResolver(knownClasses);
+    final AtomicBoolean stopped = new AtomicBoolean();
+    (parallel ? classesToCheck.parallelStream() : classesToCheck.stream())
+        .map(
+            entry ->
+                stopped.get()
+                    ? Collections.<Conflict>emptyList()
+                    : checkClass(
+                        state,
+                        knownClasses,
+                        resolver,
+                        reachableMethods,
+                        entry.getKey(),
+                        entry.getValue(),
+                        incrementalState != null
+                            && !entry.getKey().name().equals(projectArtifact.name())))
+        .forEachOrdered(
+            classConflicts -> {
+              for (Conflict conflict : classConflicts) {
+                if (stopped.get()) {
+                  return;
+                }
+                if (!keeps(conflict)) {
+                  filteredConflicts.accept(conflict);
+                } else if (!sink.accept(conflict)) {
+                  stopped.set(true);
+                  return;
+                }
+              }
+            });
+    timer.finished(CheckPhase.CHECK);
+    final ResolutionStatistics statistics = resolver.statistics();
+    resolutionStatistics.accept(statistics);
+    listener.resolutionFinished(statistics);
+  }
+
+  /**
+   * Times the phases of a check, each starting when the previous one finished, for the listener and
+   * Flight Recorder.
+   */
+  private final class PhaseTimer {
+
+    private long start = System.nanoTime();
+    private Object event = FlightRecorderEvents.CHECK_PHASE.begin();
+
+    void finished(CheckPhase phase) {
+      final long end = System.nanoTime();
+      listener.phaseFinished(phase, end - start);
+      FlightRecorderEvents.CHECK_PHASE.commit(event, phase.name());
+      start = end;
+      event = FlightRecorderEvents.CHECK_PHASE.begin();
+    }
+  }
+
+  private List<Conflict> checkClass(
+      CheckerState state,
+      Map<ClassTypeDescriptor, DeclaredClass> knownClasses,
+      MemberResolver resolver,
+      Map<ClassTypeDescriptor, Set<MethodDescriptor>> reachableMethods,
+      Artifact artifact,
+      ClassTypeDescriptor className,
+      boolean incremental) {
+    final DeclaredClass clazz = artifact.classes().get(className);
+    final List<Conflict> conflicts = new ArrayList<>();
+    int callSites = 0;
+    int fieldAccesses = 0;
+
+    for (DeclaredMethod method : clazz.methods().values()) {
+      if (reachableMethods != null
+          && !reachableMethods.get(className).contains(method.descriptor())) {
+        continue;
+      }
+      if (incremental && incrementalState.isClean(className, method.descriptor())) {
+        continue;
+      }
+      callSites += method.methodCalls().size();
+      fieldAccesses += method.fieldAccesses().size();
+      final int before = conflicts.size();
+      conflicts.addAll(
+          checkForBrokenMethodCalls(state, knownClasses, resolver, artifact, clazz, method));
+      conflicts.addAll(
+          checkForBrokenFieldAccess(state, knownClasses, resolver, artifact, clazz, method));
+      // a method is only clean if no conflict in it was left out, or a later run with other
+      // filters would miss it
+      if (incremental && conflicts.size() == before && looksForAllConflicts()) {
+        incrementalState.markClean(className, method.descriptor());
       }
     }
+    listener.classChecked(callSites, fieldAccesses);
     return conflicts;
   }
 
+  /**
+   * Whether to look for a conflict that the filters keep or not, since the ones they leave out are
+   * still looked for if they are to be passed on.
+   */
+  private boolean looksFor(boolean kept) {
+    return kept || filteredConflicts != null;
+  }
+
+  private boolean looksForAllConflicts() {
+    return filteredConflicts != null
+        || (categories.size() == ConflictCategory.values().length
+            && sourceFilter == ALL_CLASSES
+            && destinationFilter == ALL_CLASSES);
+  }
+
+  private boolean keeps(Conflict conflict) {
+    return categories.contains(conflict.category())
+        && sourceFilter.test(conflict.dependency().fromClass())
+        && destinationFilter.test(conflict.dependency().targetClass());
+  }
+
   /**
    * Create a canonical mapping of which classes are kept. First come first serve in the classpath
    *
@@ -157,23 +513,34 @@ public class ConflictChecker {
   private void createCanonicalClassMapping(
       CheckerStateBuilder stateBuilder, List<Artifact> allArtifacts) {
     for (Artifact artifact : allArtifacts) {
-      for (DeclaredClass clazz : artifact.classes().values()) {
-        if (stateBuilder.knownClasses().putIfAbsent(clazz.className(), clazz) == null) {
-          stateBuilder.putSourceMapping(clazz.className(), artifact.name());
+      for (ClassTypeDescriptor className : artifact.classes().keySet()) {
+        if (stateBuilder.definingArtifacts().putIfAbsent(className, artifact) == null) {
+          stateBuilder.putSourceMapping(className, artifact.name());
         }
       }
     }
   }
 
   private List<Conflict> checkForBrokenMethodCalls(
-      CheckerState state, Artifact artifact, DeclaredClass clazz, DeclaredMethod method) {
+      CheckerState state,
+      Map<ClassTypeDescriptor, DeclaredClass> knownClasses,
+      MemberResolver resolver,
+      Artifact artifact,
+      DeclaredClass clazz,
+      DeclaredMethod method) {
     List<Conflict> conflicts = new ArrayList<>();
 
     for (CalledMethod calledMethod : method.methodCalls()) {
       final ClassTypeDescriptor owningClass = calledMethod.owner();
-      final DeclaredClass calledClass = state.knownClasses().get(owningClass);
+      if (!looksFor(destinationFilter.test(owningClass))) {
+        continue;
+      }
+      final DeclaredClass calledClass = knownClasses.get(owningClass);
 
       if (calledClass == null) {
+        if (!looksFor(categories.contains(ConflictCategory.CLASS_NOT_FOUND))) {
+          continue;
+        }
         final boolean catchesNoClassDef =
             calledMethod.caughtExceptions().stream()
                 .anyMatch(c -> c.getClassName().equals("java.lang.NoClassDefFoundError"));
@@ -186,7 +553,9 @@ public class ConflictChecker {
                   artifact.name(),
                   state.sourceMappings().get(owningClass)));
         }
-      } else if (missingMethod(calledMethod, calledClass, state.knownClasses())) {
+      } else if (looksFor(categories.contains(ConflictCategory.METHOD_SIGNATURE_NOT_FOUND))
+          && resolver.missingMethod(
+              calledClass, calledMethod.descriptor(), calledMethod.isStatic())) {
         final boolean catchesNoSuchMethod =
             calledMethod.caughtExceptions().stream()
                 .anyMatch(c -> c.getClassName().equals("java.lang.NoSuchMethodError"));
@@ -206,18 +575,26 @@ public class ConflictChecker {
   }
 
   private List<Conflict> checkForBrokenFieldAccess(
-      CheckerState state, Artifact artifact, DeclaredClass clazz, DeclaredMethod method) {
+      CheckerState state,
+      Map<ClassTypeDescriptor, DeclaredClass> knownClasses,
+      MemberResolver resolver,
+      Artifact artifact,
+      DeclaredClass clazz,
+      DeclaredMethod method) {
 
     List<Conflict> conflicts = new ArrayList<>();
 
     for (AccessedField field : method.fieldAccesses()) {
       final ClassTypeDescriptor owningClass = field.owner();
-      final DeclaredClass calledClass = state.knownClasses().get(owningClass);
-
-      DeclaredField declaredField =
-          new DeclaredFieldBuilder().descriptor(field.descriptor()).name(field.name()).build();
+      if (!looksFor(destinationFilter.test(owningClass))) {
+        continue;
+      }
+      final DeclaredClass calledClass = knownClasses.get(owningClass);
 
       if (calledClass == null) {
+        if (!looksFor(categories.contains(ConflictCategory.CLASS_NOT_FOUND))) {
+          continue;
+        }
         conflicts.add(
             conflict(
                 ConflictCategory.CLASS_NOT_FOUND,
@@ -225,7 +602,13 @@ public class ConflictChecker {
                 dependency(clazz, method, field),
                 artifact.name(),
                 state.sourceMappings().get(owningClass)));
-      } else if (missingField(declaredField, calledClass, state.knownClasses())) {
+      } else if (looksFor(categories.contains(ConflictCategory.FIELD_NOT_FOUND))
+          && resolver.missingField(
+              calledClass,
+              new DeclaredFieldBuilder()
+                  .descriptor(field.descriptor())
+                  .name(field.name())
+                  .build())) {
         conflicts.add(
             conflict(
                 ConflictCategory.FIELD_NOT_FOUND,
@@ -242,52 +625,13 @@ public class ConflictChecker {
     return conflicts;
   }
 
-  static Set<TypeDescriptor> reachableFrom(
+  /**
+   * The classes reachable from the given classes through the classes they reference, including the
+   * given classes themselves. Public for the benchmarks.
+   */
+  public static Set<TypeDescriptor> reachableFrom(
       Collection<DeclaredClass> values, Map<ClassTypeDescriptor, DeclaredClass> knownClasses) {
-
-    Queue<DeclaredClass> toCheck = new LinkedList<>(values);
-
-    Set<TypeDescriptor> reachable = new HashSet<>();
-
-    while (!toCheck.isEmpty()) {
-      DeclaredClass current = toCheck.remove();
-
-      if (!reachable.add(current.className())) {
-        continue;
-      }
-
-      toCheck.addAll(
-          current.parents().stream()
-              .map(knownClasses::get)
-              .filter(declaredClass -> declaredClass != null)
-              .collect(toList()));
-
-      toCheck.addAll(
-          current.loadedClasses().stream()
-              .map(knownClasses::get)
-              .filter(declaredClass -> declaredClass != null)
-              .collect(toList()));
-
-      toCheck.addAll(
-          current.methods().values().stream()
-              .flatMap(declaredMethod -> declaredMethod.methodCalls().stream())
-              .map(CalledMethod::owner)
-              .filter(typeDescriptor -> !reachable.contains(typeDescriptor))
-              .map(knownClasses::get)
-              .filter(declaredClass -> declaredClass != null)
-              .collect(toList()));
-
-      toCheck.addAll(
-          current.methods().values().stream()
-              .flatMap(declaredMethod -> declaredMethod.fieldAccesses().stream())
-              .map(AccessedField::owner)
-              .filter(typeDescriptor -> !reachable.contains(typeDescriptor))
-              .map(knownClasses::get)
-              .filter(declaredClass -> declaredClass != null)
-              .collect(toList()));
-    }
-
-    return reachable;
+    return new ReachabilityGraph(knownClasses).reachableFrom(values);
   }
 
   private Conflict conflict(
@@ -330,59 +674,40 @@ public class ConflictChecker {
         .build();
   }
 
-  private boolean missingMethod(
-      CalledMethod calledMethod,
-      DeclaredClass calledClass,
-      Map<ClassTypeDescriptor, DeclaredClass> classMap) {
-    final MethodDescriptor descriptor = calledMethod.descriptor();
-    final DeclaredMethod method = calledClass.methods().get(descriptor);
+  /**
+   * A view of the canonical class of each name, looked up in its defining artifact only when it is
+   * needed.
+   */
+  static final class KnownClasses extends AbstractMap<ClassTypeDescriptor, DeclaredClass> {
 
-    if (method != null) {
-      if (calledMethod.isStatic() != method.isStatic()) {
-        return true;
-      }
+    private final Map<ClassTypeDescriptor, Artifact> definingArtifacts;
 
-      // TODO: also validate return type
-      return false;
+    KnownClasses(Map<ClassTypeDescriptor, Artifact> definingArtifacts) {
+      this.definingArtifacts = definingArtifacts;
     }
 
-    // Might be defined in a super class
-    for (ClassTypeDescriptor parentClass : calledClass.parents()) {
-      final DeclaredClass declaredClass = classMap.get(parentClass);
-      // ignore null parents - this means that the parent cannot be found, and this error gets
-      // reported since the class's constructor tries to call its parent's constructor.
-      if (declaredClass != null) {
-        if (!missingMethod(calledMethod, declaredClass, classMap)) {
-          return false;
-        }
-      }
+    @Override
+    public DeclaredClass get(Object key) {
+      final Artifact artifact = definingArtifacts.get(key);
+      return artifact == null ? null : artifact.classes().get(key);
     }
 
-    return true;
-  }
-
-  private boolean missingField(
-      DeclaredField field,
-      DeclaredClass calledClass,
-      Map<ClassTypeDescriptor, DeclaredClass> classMap) {
-
-    if (calledClass.fields().contains(field)) {
-      // TODO: also validate return type
-      return false;
+    @Override
+    public boolean containsKey(Object key) {
+      return definingArtifacts.containsKey(key);
     }
 
-    // Might be defined in a super class
-    for (ClassTypeDescriptor parentClass : calledClass.parents()) {
-      final DeclaredClass declaredClass = classMap.get(parentClass);
-      // TODO 6/2/15 mbrown -- treat properly, by flagging as a different type of Conflict
-      if (declaredClass == null) {
-        System.out.printf(
-            "Warning: Cannot find parent %s of class %s%n", parentClass, calledClass.className());
-      } else if (!missingField(field, declaredClass, classMap)) {
-        return false;
-      }
+    @Override
+    public int size() {
+      return definingArtifacts.size();
     }
 
-    return true;
+    @Override
+    public Set<Entry<ClassTypeDescriptor, DeclaredClass>> entrySet() {
+      return definingArtifacts.keySet().stream()
+          .<Entry<ClassTypeDescriptor, DeclaredClass>>map(
+              key -> new SimpleImmutableEntry<>(key, get(key)))
+          .collect(Collectors.toSet());
+    }
   }
 }
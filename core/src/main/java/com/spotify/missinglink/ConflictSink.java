@@ -0,0 +1,74 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import java.util.function.Predicate;
+
+/**
+ * Receives the conflicts of a {@link
+ * ConflictChecker#check(com.spotify.missinglink.datamodel.Artifact, java.util.List, java.util.List,
+ * ConflictSink) check} as they are found, instead of collecting all of them first. The conflicts
+ * arrive one at a time and in the same order as in the list returned by {@link
+ * ConflictChecker#check(com.spotify.missinglink.datamodel.Artifact, java.util.List,
+ * java.util.List)}, even when checking in parallel.
+ */
+@FunctionalInterface
+public interface ConflictSink {
+
+  /**
+   * Accepts a conflict, and returns whether the checker should keep looking for more. Once it
+   * returns false, the checker stops checking classes it has not started on and no more conflicts
+   * are passed to the sink.
+   */
+  boolean accept(Conflict conflict);
+
+  /** Returns a sink that only passes on the conflicts matching the predicate to this one. */
+  default ConflictSink filter(Predicate<? super Conflict> predicate) {
+    return conflict -> !predicate.test(conflict) || accept(conflict);
+  }
+
+  /**
+   * Returns a sink that stops the check once this one has accepted the given number of conflicts.
+   * Not thread safe, like the sinks passed to the checker need not be.
+   */
+  default ConflictSink limit(int maxConflicts) {
+    if (maxConflicts <= 0) {
+      throw new IllegalArgumentException("maxConflicts must be positive: " + maxConflicts);
+    }
+    final int[] accepted = {0};
+    return conflict -> accept(conflict) && ++accepted[0] < maxConflicts;
+  }
+}
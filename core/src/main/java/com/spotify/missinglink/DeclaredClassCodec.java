@@ -0,0 +1,354 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.AccessedField;
+import com.spotify.missinglink.datamodel.CalledMethod;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.DeclaredField;
+import com.spotify.missinglink.datamodel.DeclaredFieldBuilder;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import com.spotify.missinglink.datamodel.MethodDescriptor;
+import com.spotify.missinglink.datamodel.MethodDescriptors;
+import com.spotify.missinglink.datamodel.SymbolTable;
+import com.spotify.missinglink.datamodel.TypeDescriptor;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary encoding of the {@link DeclaredClass} model, used to persist loaded classes
+ * between runs. Each distinct string is written once and referred to by index after that, and
+ * integers are written as varints.
+ */
+final class DeclaredClassCodec {
+
+  /**
+   * The version of the encoding and of what it encodes, included in the format version of every
+   * file that embeds encoded classes. Bump it whenever the encoding or the datamodel changes in an
+   * incompatible way, or {@link ClassLoader} starts recording something new, so that classes
+   * written by another version are loaded again rather than misread.
+   */
+  static final int VERSION = 3;
+
+  private DeclaredClassCodec() {
+    // prevent instantiation
+  }
+
+  static void write(DataOutput out, Collection<DeclaredClass> classes) throws IOException {
+    new Writer(out).writeClasses(classes);
+  }
+
+  static List<DeclaredClass> read(DataInput in) throws IOException {
+    return new Reader(in).readClasses();
+  }
+
+  static void writeMethods(
+      DataOutput out, Map<ClassTypeDescriptor, ? extends Collection<MethodDescriptor>> methods)
+      throws IOException {
+    new Writer(out).writeMethods(methods);
+  }
+
+  static Map<ClassTypeDescriptor, Set<MethodDescriptor>> readMethods(DataInput in)
+      throws IOException {
+    return new Reader(in).readMethods();
+  }
+
+  private static final class Writer {
+    private final DataOutput out;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final Map<MethodDescriptor, String> methodDescs = new HashMap<>();
+
+    private Writer(DataOutput out) {
+      this.out = out;
+    }
+
+    private void writeClasses(Collection<DeclaredClass> classes) throws IOException {
+      writeInt(classes.size());
+      for (DeclaredClass clazz : classes) {
+        writeClassType(clazz.className());
+        writeClassTypes(clazz.parents());
+        writeClassTypes(clazz.loadedClasses());
+        writeInt(clazz.fields().size());
+        for (DeclaredField field : clazz.fields()) {
+          writeString(field.name());
+          writeType(field.descriptor());
+        }
+        writeInt(clazz.methods().size());
+        for (DeclaredMethod method : clazz.methods().values()) {
+          writeMethod(method);
+        }
+      }
+    }
+
+    private void writeMethods(
+        Map<ClassTypeDescriptor, ? extends Collection<MethodDescriptor>> methods)
+        throws IOException {
+      writeInt(methods.size());
+      for (Map.Entry<ClassTypeDescriptor, ? extends Collection<MethodDescriptor>> entry :
+          methods.entrySet()) {
+        writeClassType(entry.getKey());
+        writeInt(entry.getValue().size());
+        for (MethodDescriptor descriptor : entry.getValue()) {
+          writeMethodDescriptor(descriptor);
+        }
+      }
+    }
+
+    private void writeMethod(DeclaredMethod method) throws IOException {
+      writeMethodDescriptor(method.descriptor());
+      out.writeBoolean(method.isStatic());
+      writeInt(method.lineNumber());
+      writeInt(method.methodCalls().size());
+      for (CalledMethod call : method.methodCalls()) {
+        writeClassType(call.owner());
+        writeMethodDescriptor(call.descriptor());
+        out.writeBoolean(call.isStatic());
+        writeInt(call.lineNumber());
+        writeClassTypes(call.caughtExceptions());
+      }
+      writeInt(method.fieldAccesses().size());
+      for (AccessedField access : method.fieldAccesses()) {
+        writeClassType(access.owner());
+        writeType(access.descriptor());
+        writeString(access.name());
+        writeInt(access.lineNumber());
+        writeClassTypes(access.caughtExceptions());
+      }
+    }
+
+    private void writeClassTypes(Collection<ClassTypeDescriptor> types) throws IOException {
+      writeInt(types.size());
+      for (ClassTypeDescriptor type : types) {
+        writeClassType(type);
+      }
+    }
+
+    private void writeClassType(ClassTypeDescriptor type) throws IOException {
+      writeString(type.getClassName().replace('.', '/'));
+    }
+
+    private void writeType(TypeDescriptor type) throws IOException {
+      writeString(TypeDescriptors.toRaw(type));
+    }
+
+    private void writeMethodDescriptor(MethodDescriptor descriptor) throws IOException {
+      writeString(descriptor.name());
+      writeString(methodDescs.computeIfAbsent(descriptor, MethodDescriptors::toDesc));
+    }
+
+    private void writeString(String s) throws IOException {
+      final Integer index = strings.get(s);
+      if (index != null) {
+        writeInt(index + 1);
+      } else {
+        // 0 means that the string itself follows
+        writeInt(0);
+        out.writeUTF(s);
+        strings.put(s, strings.size());
+      }
+    }
+
+    private void writeInt(int value) throws IOException {
+      while ((value & ~0x7f) != 0) {
+        out.writeByte((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      out.writeByte(value);
+    }
+  }
+
+  private static final class Reader {
+    private final DataInput in;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<Integer, TypeDescriptor> types = new HashMap<>();
+    private final Map<Long, MethodDescriptor> methodDescriptors = new HashMap<>();
+
+    private Reader(DataInput in) {
+      this.in = in;
+    }
+
+    private List<DeclaredClass> readClasses() throws IOException {
+      final int count = readInt();
+      final List<DeclaredClass> classes = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        final ClassTypeDescriptor className = readClassType();
+        final Set<ClassTypeDescriptor> parents = readClassTypeSet();
+        final Set<ClassTypeDescriptor> loadedClasses = readClassTypeSet();
+
+        final int fieldCount = readInt();
+        final Set<DeclaredField> fields = new HashSet<>();
+        for (int j = 0; j < fieldCount; j++) {
+          fields.add(
+              new DeclaredFieldBuilder()
+                  .name(SymbolTable.current().name(readString()))
+                  .descriptor(readType())
+                  .build());
+        }
+
+        final int methodCount = readInt();
+        final Map<MethodDescriptor, DeclaredMethod> methods = new HashMap<>();
+        for (int j = 0; j < methodCount; j++) {
+          final DeclaredMethod method = readMethod();
+          methods.put(method.descriptor(), method);
+        }
+
+        classes.add(CompactModel.declaredClass(className, parents, loadedClasses, methods, fields));
+      }
+      return classes;
+    }
+
+    private Map<ClassTypeDescriptor, Set<MethodDescriptor>> readMethods() throws IOException {
+      final int classCount = readInt();
+      final Map<ClassTypeDescriptor, Set<MethodDescriptor>> methods = new HashMap<>();
+      for (int i = 0; i < classCount; i++) {
+        final ClassTypeDescriptor className = readClassType();
+        final int methodCount = readInt();
+        final Set<MethodDescriptor> descriptors = new HashSet<>();
+        for (int j = 0; j < methodCount; j++) {
+          descriptors.add(readMethodDescriptor());
+        }
+        methods.put(className, descriptors);
+      }
+      return methods;
+    }
+
+    private DeclaredMethod readMethod() throws IOException {
+      final MethodDescriptor descriptor = readMethodDescriptor();
+      final boolean isStatic = in.readBoolean();
+      final int lineNumber = readInt();
+
+      final int callCount = readInt();
+      final Set<CalledMethod> calls = new HashSet<>();
+      for (int i = 0; i < callCount; i++) {
+        calls.add(
+            CompactModel.calledMethod(
+                readClassType(),
+                readMethodDescriptor(),
+                in.readBoolean(),
+                readInt(),
+                CompactCollections.list(readClassTypeList())));
+      }
+
+      final int accessCount = readInt();
+      final Set<AccessedField> accesses = new HashSet<>();
+      for (int i = 0; i < accessCount; i++) {
+        accesses.add(
+            CompactModel.accessedField(
+                readClassType(),
+                readType(),
+                SymbolTable.current().name(readString()),
+                readInt(),
+                CompactCollections.list(readClassTypeList())));
+      }
+
+      return CompactModel.declaredMethod(descriptor, isStatic, lineNumber, calls, accesses);
+    }
+
+    private Set<ClassTypeDescriptor> readClassTypeSet() throws IOException {
+      return new HashSet<>(readClassTypeList());
+    }
+
+    private List<ClassTypeDescriptor> readClassTypeList() throws IOException {
+      final int count = readInt();
+      final List<ClassTypeDescriptor> types = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        types.add(readClassType());
+      }
+      return types;
+    }
+
+    private ClassTypeDescriptor readClassType() throws IOException {
+      return TypeDescriptors.fromClassName(readString());
+    }
+
+    private TypeDescriptor readType() throws IOException {
+      final int index = readStringIndex();
+      TypeDescriptor type = types.get(index);
+      if (type == null) {
+        type = TypeDescriptors.fromRaw(strings.get(index));
+        types.put(index, type);
+      }
+      return type;
+    }
+
+    private MethodDescriptor readMethodDescriptor() throws IOException {
+      final int name = readStringIndex();
+      final int desc = readStringIndex();
+      final long key = ((long) name << 32) | desc;
+      MethodDescriptor descriptor = methodDescriptors.get(key);
+      if (descriptor == null) {
+        descriptor = MethodDescriptors.fromDesc(strings.get(desc), strings.get(name));
+        methodDescriptors.put(key, descriptor);
+      }
+      return descriptor;
+    }
+
+    private String readString() throws IOException {
+      return strings.get(readStringIndex());
+    }
+
+    private int readStringIndex() throws IOException {
+      final int index = readInt();
+      if (index != 0) {
+        return index - 1;
+      }
+      strings.add(in.readUTF());
+      return strings.size() - 1;
+    }
+
+    private int readInt() throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+        final byte b = in.readByte();
+        value |= (b & 0x7f) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed varint");
+    }
+  }
+}
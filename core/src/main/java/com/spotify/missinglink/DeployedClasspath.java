@@ -0,0 +1,365 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.spotify.missinglink.ArtifactLoader.JarOpener;
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The classpath of an application as it is deployed, rather than as its build describes it, since
+ * shading and exclusions can make the two differ. It is read from one of:
+ *
+ * <ul>
+ *   <li>a Spring Boot jar, with the application classes in {@code BOOT-INF/classes/} and the
+ *       libraries in {@code BOOT-INF/lib/}, in the order of {@code BOOT-INF/classpath.idx} if there
+ *       is one;
+ *   <li>a war, with the application classes in {@code WEB-INF/classes/} and the libraries in {@code
+ *       WEB-INF/lib/};
+ *   <li>a shaded jar, where the application and its libraries are told apart by package;
+ *   <li>a directory of jars, like the lib directory of an application or a container image, with
+ *       the application classes in its {@code classes} directory if there is one. The jars directly
+ *       in the directory and in its {@code lib} or {@code libs} directory are in order of their
+ *       names.
+ * </ul>
+ *
+ * <p>Nested jars are read in place, without extracting them to disk, and cached like other jars.
+ * The classpath must be kept open until the artifacts loaded from it have been checked, since
+ * lazily loaded artifacts read it on demand.
+ */
+public final class DeployedClasspath implements Closeable {
+
+  public enum Layout {
+    SPRING_BOOT,
+    WAR,
+    SHADED,
+    DIRECTORY
+  }
+
+  private static final Pattern VERSIONED = Pattern.compile("^META-INF/versions/\\d+/");
+
+  private final Layout layout;
+  private final Source application;
+  private final List<Source> libraries;
+  private final JarReader jar;
+
+  private DeployedClasspath(
+      Layout layout, Source application, List<Source> libraries, JarReader jar) {
+    this.layout = layout;
+    this.application = application;
+    this.libraries = Collections.unmodifiableList(libraries);
+    this.jar = jar;
+  }
+
+  /** Reads the layout of a jar, war or directory that does not need to be told any packages. */
+  public static DeployedClasspath open(File path) throws IOException {
+    return open(path, Collections.emptyList());
+  }
+
+  /**
+   * Reads the layout of a jar, war or directory.
+   *
+   * @param applicationPackages the packages of the application classes of a shaded jar, including
+   *     their subpackages; if empty, the package of the Main-Class of its manifest
+   * @throws IllegalArgumentException if the path does not exist, or is a shaded jar whose
+   *     application packages are not given and can not be found out
+   */
+  public static DeployedClasspath open(File path, Collection<String> applicationPackages)
+      throws IOException {
+    if (path.isDirectory()) {
+      return directory(path);
+    }
+    if (!path.isFile()) {
+      throw new IllegalArgumentException("Path must be a jar or a directory: " + path);
+    }
+    final JarReader jar = JarReader.open(path);
+    try {
+      if (hasEntriesUnder(jar, "BOOT-INF/")) {
+        return nested(path, jar, Layout.SPRING_BOOT, "BOOT-INF/classes/", "BOOT-INF/lib/");
+      }
+      if (hasEntriesUnder(jar, "WEB-INF/")) {
+        return nested(path, jar, Layout.WAR, "WEB-INF/classes/", "WEB-INF/lib/");
+      }
+      return shaded(path, jar, applicationPackages);
+    } catch (IOException | RuntimeException e) {
+      jar.close();
+      throw e;
+    }
+  }
+
+  public Layout layout() {
+    return layout;
+  }
+
+  /** The application classes, the entry point of a check, or null if there are none. */
+  public Source application() {
+    return application;
+  }
+
+  /** The libraries, in classpath order. */
+  public List<Source> libraries() {
+    return libraries;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (jar != null) {
+      jar.close();
+    }
+  }
+
+  private static DeployedClasspath nested(
+      File path, JarReader jar, Layout layout, String classes, String lib) throws IOException {
+    final Set<String> entries = new LinkedHashSet<>();
+    // Spring Boot lists the libraries in classpath order, the order of the entries may differ
+    final byte[] index = jar.read("BOOT-INF/classpath.idx");
+    if (layout == Layout.SPRING_BOOT && index != null) {
+      for (String line : new String(index, UTF_8).split("\n")) {
+        final String entry = line.trim().replaceFirst("^- ", "").replace("\"", "");
+        if (!entry.isEmpty()) {
+          entries.add(entry);
+        }
+      }
+    }
+    final Collection<String> nestedJars = jar.nestedJarNames();
+    entries.retainAll(nestedJars);
+    for (String entry : nestedJars) {
+      if (entry.startsWith(lib)) {
+        entries.add(entry);
+      }
+    }
+
+    final List<Source> libraries = new ArrayList<>();
+    for (String entry : entries) {
+      libraries.add(
+          new Source(
+              new ArtifactName(entry.substring(entry.lastIndexOf('/') + 1)),
+              path,
+              path.getPath() + "!/" + entry,
+              () -> jar.nested(entry),
+              path.getAbsolutePath() + "!/" + entry));
+    }
+    final Source application =
+        new Source(
+            new ArtifactName(path.getName() + "!/" + classes),
+            path,
+            path.getPath() + "!/" + classes,
+            () -> jar.filtered(classes, name -> true),
+            null);
+    return new DeployedClasspath(layout, application, libraries, jar);
+  }
+
+  private static DeployedClasspath shaded(
+      File path, JarReader jar, Collection<String> applicationPackages) throws IOException {
+    final List<String> packages = new ArrayList<>(applicationPackages);
+    if (packages.isEmpty()) {
+      final String mainClass = mainClass(jar);
+      if (mainClass == null || mainClass.lastIndexOf('.') < 0) {
+        throw new IllegalArgumentException(
+            "Could not tell the application classes in "
+                + path
+                + " from the libraries shaded into it, the packages of the application are needed");
+      }
+      packages.add(mainClass.substring(0, mainClass.lastIndexOf('.')));
+    }
+    final PackageMatcher.Builder builder = PackageMatcher.builder();
+    packages.forEach(pkg -> builder.add(pkg, true));
+    final PackageMatcher matcher = builder.build();
+    final Predicate<String> inApplication = name -> matcher.matchesPackage(packageOf(name));
+
+    final Source application =
+        new Source(
+            new ArtifactName(path.getName()),
+            path,
+            path.getPath(),
+            () -> jar.filtered("", inApplication),
+            null);
+    final Source libraries =
+        new Source(
+            new ArtifactName(path.getName() + " (shaded libraries)"),
+            path,
+            path.getPath(),
+            () -> jar.filtered("", inApplication.negate()),
+            path.getAbsolutePath()
+                + "!shaded-libraries:"
+                + packages.stream().sorted().collect(Collectors.joining(",")));
+    return new DeployedClasspath(
+        Layout.SHADED, application, Collections.singletonList(libraries), jar);
+  }
+
+  private static DeployedClasspath directory(File path) throws IOException {
+    final Path root = path.toPath();
+    final File classes = new File(path, "classes");
+    final Source application =
+        classes.isDirectory()
+            ? new Source(
+                new ArtifactName(root.relativize(classes.toPath()).toString()),
+                classes,
+                classes.getPath(),
+                null,
+                null)
+            : null;
+
+    final List<Path> jars = new ArrayList<>(jarsIn(root));
+    for (String lib : new String[] {"lib", "libs"}) {
+      if (Files.isDirectory(root.resolve(lib))) {
+        jars.addAll(jarsIn(root.resolve(lib)));
+      }
+    }
+    final List<Source> libraries = new ArrayList<>();
+    for (Path jar : jars) {
+      final File file = jar.toFile();
+      libraries.add(
+          new Source(
+              new ArtifactName(root.relativize(jar).toString()), file, file.getPath(), null, null));
+    }
+    return new DeployedClasspath(Layout.DIRECTORY, application, libraries, null);
+  }
+
+  private static List<Path> jarsIn(Path directory) throws IOException {
+    final Stream<Path> files = Files.list(directory);
+    try {
+      return files
+          .filter(file -> Files.isRegularFile(file) && file.toString().endsWith(".jar"))
+          .sorted()
+          .collect(Collectors.toList());
+    } finally {
+      files.close();
+    }
+  }
+
+  private static boolean hasEntriesUnder(JarReader jar, String prefix) {
+    for (String name : jar.classFileNames()) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+    for (String name : jar.nestedJarNames()) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String mainClass(JarReader jar) throws IOException {
+    final byte[] manifest = jar.read("META-INF/MANIFEST.MF");
+    if (manifest == null) {
+      return null;
+    }
+    return new Manifest(new ByteArrayInputStream(manifest))
+        .getMainAttributes()
+        .getValue(Attributes.Name.MAIN_CLASS);
+  }
+
+  /** The package of a class file entry, like com.foo for com/foo/Bar.class. */
+  private static String packageOf(String entryName) {
+    final String name = VERSIONED.matcher(entryName).replaceFirst("");
+    final int slash = name.lastIndexOf('/');
+    return slash < 0 ? "" : name.substring(0, slash).replace('/', '.');
+  }
+
+  /** A jar or directory of classes on the deployed classpath, which may be inside another jar. */
+  public static final class Source {
+
+    private final ArtifactName name;
+    private final File file;
+    private final String location;
+    private final JarOpener opener;
+    private final String cacheKey;
+
+    private Source(
+        ArtifactName name, File file, String location, JarOpener opener, String cacheKey) {
+      this.name = name;
+      this.file = file;
+      this.location = location;
+      this.opener = opener;
+      this.cacheKey = cacheKey;
+    }
+
+    /** A jar or directory of classes that is a file of its own. */
+    public static Source of(ArtifactName name, File file) {
+      return new Source(name, file, file.getPath(), null, null);
+    }
+
+    public ArtifactName name() {
+      return name;
+    }
+
+    /** The jar or directory on disk; for a jar nested in another one, the outer jar. */
+    public File file() {
+      return file;
+    }
+
+    /** Where the classes are, like {@code app.jar!/BOOT-INF/lib/guava.jar} for a nested jar. */
+    public String location() {
+      return location;
+    }
+
+    /** Loads the classes with the loader, only their declarations if so asked. */
+    public Artifact load(ArtifactLoader loader, boolean declarationsOnly) throws IOException {
+      if (opener == null) {
+        return declarationsOnly ? loader.loadDeclarations(name, file) : loader.load(name, file);
+      }
+      return loader.load(name, location, opener, file, cacheKey, declarationsOnly);
+    }
+
+    @Override
+    public String toString() {
+      return location;
+    }
+  }
+}
@@ -0,0 +1,245 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom Java Flight Recorder events, so that a recording of a build shows which jars, classes and
+ * phases of the check the time goes to. The events are in the "missinglink" category and are
+ * recorded by the standard settings, e.g. {@code -XX:StartFlightRecording=settings=profile}.
+ *
+ * <p>The jdk.jfr API is accessed through reflection so that this compiles for Java 8. The event
+ * types are defined with {@code jdk.jfr.EventFactory} when this class is loaded; on JVMs without
+ * JFR every event is silently dropped. Events are only created when their type is enabled in the
+ * running recordings, so there is next to no cost when nothing is recording.
+ */
+final class FlightRecorderEvents {
+
+  /** A jar was loaded, with the number of class files in it and its size on disk. */
+  static final EventType ARTIFACT_LOADED =
+      new EventType(
+          "com.spotify.missinglink.ArtifactLoaded",
+          "Artifact Loaded",
+          "A jar of classes was loaded",
+          field(String.class, "artifact", "Artifact"),
+          field(String.class, "path", "Path"),
+          field(int.class, "classFiles", "Class Files"),
+          bytesField("bytes", "Size"));
+
+  /** A class file took at least {@link #SLOW_CLASS_NANOS} to parse. */
+  static final EventType SLOW_CLASS =
+      new EventType(
+          "com.spotify.missinglink.SlowClass",
+          "Slow Class",
+          "A class file took at least a millisecond to parse",
+          field(String.class, "className", "Class"),
+          bytesField("bytes", "Size"),
+          nanosField("parseTime", "Parse Time"));
+
+  /** A phase of {@link ConflictChecker#check} finished. */
+  static final EventType CHECK_PHASE =
+      new EventType(
+          "com.spotify.missinglink.CheckPhase",
+          "Check Phase",
+          "A phase of checking for conflicts",
+          field(String.class, "phase", "Phase"));
+
+  /** Classes parsed faster than this are never reported, to keep the overhead of timing low. */
+  static final long SLOW_CLASS_NANOS = 1_000_000;
+
+  private FlightRecorderEvents() {
+    // prevent instantiation
+  }
+
+  /** An event type, or a no-op if it could not be defined. */
+  static final class EventType {
+
+    private final Object factory;
+
+    private EventType(String name, String label, String description, Field... fields) {
+      this.factory = Reflection.INSTANCE == null ? null : define(name, label, description, fields);
+    }
+
+    /**
+     * Starts timing an event, which is finished by {@link #commit}. Returns null when the event
+     * type is not being recorded, which commit accepts too.
+     */
+    Object begin() {
+      if (factory == null) {
+        return null;
+      }
+      try {
+        final Object event = Reflection.INSTANCE.newEvent.invoke(factory);
+        if (!(Boolean) Reflection.INSTANCE.isEnabled.invoke(event)) {
+          return null;
+        }
+        Reflection.INSTANCE.begin.invoke(event);
+        return event;
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        return null;
+      }
+    }
+
+    /** Ends and commits an event started by {@link #begin}, with one value per field. */
+    void commit(Object event, Object... values) {
+      if (event == null) {
+        return;
+      }
+      try {
+        Reflection.INSTANCE.end.invoke(event);
+        if (!(Boolean) Reflection.INSTANCE.shouldCommit.invoke(event)) {
+          return;
+        }
+        for (int i = 0; i < values.length; i++) {
+          Reflection.INSTANCE.set.invoke(event, i, values[i]);
+        }
+        Reflection.INSTANCE.commit.invoke(event);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // losing an event is no reason to fail the check
+      }
+    }
+
+    private static Object define(String name, String label, String description, Field[] fields) {
+      final Reflection r = Reflection.INSTANCE;
+      try {
+        final List<Object> annotations = new ArrayList<>();
+        annotations.add(r.annotation("jdk.jfr.Name", name));
+        annotations.add(r.annotation("jdk.jfr.Label", label));
+        annotations.add(r.annotation("jdk.jfr.Description", description));
+        annotations.add(r.annotation("jdk.jfr.Category", new String[] {"missinglink"}));
+        // the events are emitted from well-known places, the stack traces would only be noise
+        annotations.add(r.annotation("jdk.jfr.StackTrace", false));
+        final List<Object> valueDescriptors = new ArrayList<>();
+        for (Field field : fields) {
+          valueDescriptors.add(field.descriptor(r));
+        }
+        return r.create.invoke(null, annotations, valueDescriptors);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        return null;
+      }
+    }
+  }
+
+  private static Field field(Class<?> type, String name, String label) {
+    return new Field(type, name, label, null, null);
+  }
+
+  private static Field bytesField(String name, String label) {
+    return new Field(long.class, name, label, "jdk.jfr.DataAmount", "BYTES");
+  }
+
+  private static Field nanosField(String name, String label) {
+    return new Field(long.class, name, label, "jdk.jfr.Timespan", "NANOSECONDS");
+  }
+
+  /** A field of an event type, with an optional annotation giving the unit of its value. */
+  private static final class Field {
+
+    private final Class<?> type;
+    private final String name;
+    private final String label;
+    private final String unitAnnotation;
+    private final String unit;
+
+    Field(Class<?> type, String name, String label, String unitAnnotation, String unit) {
+      this.type = type;
+      this.name = name;
+      this.label = label;
+      this.unitAnnotation = unitAnnotation;
+      this.unit = unit;
+    }
+
+    Object descriptor(Reflection r) throws ReflectiveOperationException {
+      final List<Object> annotations = new ArrayList<>();
+      annotations.add(r.annotation("jdk.jfr.Label", label));
+      if (unitAnnotation != null) {
+        annotations.add(r.annotation(unitAnnotation, unit));
+      }
+      return r.valueDescriptor.newInstance(type, name, annotations);
+    }
+  }
+
+  /** The reflective jdk.jfr methods, looked up once, or null if JFR is not available. */
+  private static final class Reflection {
+
+    static final Reflection INSTANCE = lookup();
+
+    final Method create;
+    final Method newEvent;
+    final Method isEnabled;
+    final Method begin;
+    final Method end;
+    final Method shouldCommit;
+    final Method set;
+    final Method commit;
+    final Constructor<?> annotationElement;
+    final Constructor<?> valueDescriptor;
+
+    private Reflection() throws ReflectiveOperationException {
+      final Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+      final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+      create = eventFactoryClass.getMethod("create", List.class, List.class);
+      newEvent = eventFactoryClass.getMethod("newEvent");
+      isEnabled = eventClass.getMethod("isEnabled");
+      begin = eventClass.getMethod("begin");
+      end = eventClass.getMethod("end");
+      shouldCommit = eventClass.getMethod("shouldCommit");
+      set = eventClass.getMethod("set", int.class, Object.class);
+      commit = eventClass.getMethod("commit");
+      annotationElement =
+          Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+      valueDescriptor =
+          Class.forName("jdk.jfr.ValueDescriptor")
+              .getConstructor(Class.class, String.class, List.class);
+    }
+
+    private static Reflection lookup() {
+      try {
+        return new Reflection();
+      } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+        return null;
+      }
+    }
+
+    Object annotation(String annotationClass, Object value) throws ReflectiveOperationException {
+      return annotationElement.newInstance(Class.forName(annotationClass), value);
+    }
+  }
+}
@@ -0,0 +1,248 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.MethodDescriptor;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What an incremental check remembers from the previous run of the same project, so that it only
+ * has to redo the work affected by what changed since:
+ *
+ * <ul>
+ *   <li>the classes parsed from the class files of the project, keyed by path and content hash, so
+ *       that only changed class files are parsed again;
+ *   <li>the methods of dependencies that were checked and found to have no conflicts, so that only
+ *       the methods that were not checked before, or that had conflicts, are checked again.
+ * </ul>
+ *
+ * <p>Whether a method of a dependency has conflicts only depends on the dependencies, so the
+ * methods found clean are only reused when the fingerprint given to {@link #dependencies(String)}
+ * is the same as in the previous run. Otherwise every reachable method is checked again.
+ */
+public final class IncrementalState {
+
+  private static final int MAGIC = 0x4d4c4e49;
+  // bump whenever the layout below changes in an incompatible way; changes to the encoded classes
+  // themselves are covered by DeclaredClassCodec.VERSION
+  private static final int LAYOUT_VERSION = 1;
+  static final int FORMAT_VERSION = LAYOUT_VERSION << 16 | DeclaredClassCodec.VERSION;
+
+  private final Map<String, ClassFile> previousClassFiles;
+  private final Map<String, ClassFile> classFiles = new ConcurrentHashMap<>();
+  private final String previousDependencies;
+  private final Map<ClassTypeDescriptor, Set<MethodDescriptor>> previousCleanMethods;
+  private Map<ClassTypeDescriptor, Set<MethodDescriptor>> cleanMethods = new ConcurrentHashMap<>();
+  private String dependencies = "";
+  private final AtomicInteger reusedClassFiles = new AtomicInteger();
+
+  private IncrementalState(
+      Map<String, ClassFile> previousClassFiles,
+      String previousDependencies,
+      Map<ClassTypeDescriptor, Set<MethodDescriptor>> previousCleanMethods) {
+    this.previousClassFiles = previousClassFiles;
+    this.previousDependencies = previousDependencies;
+    this.previousCleanMethods = previousCleanMethods;
+  }
+
+  /** A state that remembers nothing, for the first run. */
+  public static IncrementalState empty() {
+    return new IncrementalState(Collections.emptyMap(), null, Collections.emptyMap());
+  }
+
+  /**
+   * Reads the state saved by the previous run. A missing, unreadable or outdated file gives an
+   * {@link #empty()} state.
+   */
+  public static IncrementalState load(File file) {
+    if (!file.isFile()) {
+      return empty();
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        return empty();
+      }
+      final String dependencies = in.readUTF();
+
+      final int classFileCount = in.readInt();
+      final List<String> paths = new ArrayList<>(classFileCount);
+      final List<String> hashes = new ArrayList<>(classFileCount);
+      for (int i = 0; i < classFileCount; i++) {
+        paths.add(in.readUTF());
+        hashes.add(in.readUTF());
+      }
+      final List<DeclaredClass> classes = DeclaredClassCodec.read(in);
+      final Map<String, ClassFile> classFiles = new HashMap<>();
+      for (int i = 0; i < classFileCount; i++) {
+        classFiles.put(paths.get(i), new ClassFile(hashes.get(i), classes.get(i)));
+      }
+
+      return new IncrementalState(classFiles, dependencies, DeclaredClassCodec.readMethods(in));
+    } catch (IOException | RuntimeException e) {
+      // a truncated or otherwise corrupt file; it will be overwritten by the next save()
+      return empty();
+    }
+  }
+
+  /**
+   * Returns the class in the given class file, reusing the class parsed in the previous run if the
+   * contents of the file have not changed.
+   *
+   * @param path identifies the class file, typically relative to the output directory
+   */
+  public DeclaredClass loadClass(String path, byte[] bytes) throws IOException {
+    final String hash = ArtifactCache.sha1(bytes);
+    ClassFile classFile = previousClassFiles.get(path);
+    if (classFile != null && classFile.hash.equals(hash)) {
+      reusedClassFiles.incrementAndGet();
+    } else {
+      classFile = new ClassFile(hash, ClassLoader.load(new ByteArrayInputStream(bytes)));
+    }
+    // class files that are not loaded again, because they were deleted, are forgotten
+    classFiles.put(path, classFile);
+    return classFile.declaredClass;
+  }
+
+  /** The number of classes that {@link #loadClass} did not have to parse again. */
+  public int reusedClassFiles() {
+    return reusedClassFiles.get();
+  }
+
+  /**
+   * Sets the fingerprint of the dependencies of this run, which should change whenever anything
+   * that the classes of the dependencies are checked against changes.
+   *
+   * @return true if the dependencies are the same as in the previous run, so that the methods found
+   *     clean then do not have to be checked again
+   */
+  public boolean dependencies(String dependencies) {
+    this.dependencies = dependencies;
+    cleanMethods = new ConcurrentHashMap<>();
+    if (!dependencies.equals(previousDependencies)) {
+      return false;
+    }
+    for (Map.Entry<ClassTypeDescriptor, Set<MethodDescriptor>> entry :
+        previousCleanMethods.entrySet()) {
+      final Set<MethodDescriptor> methods = ConcurrentHashMap.newKeySet();
+      methods.addAll(entry.getValue());
+      cleanMethods.put(entry.getKey(), methods);
+    }
+    return true;
+  }
+
+  /** The number of methods that are known to have no conflicts. */
+  public int cleanMethodCount() {
+    return cleanMethods.values().stream().mapToInt(Set::size).sum();
+  }
+
+  boolean isClean(ClassTypeDescriptor className, MethodDescriptor method) {
+    final Set<MethodDescriptor> methods = cleanMethods.get(className);
+    return methods != null && methods.contains(method);
+  }
+
+  void markClean(ClassTypeDescriptor className, MethodDescriptor method) {
+    cleanMethods.computeIfAbsent(className, k -> ConcurrentHashMap.newKeySet()).add(method);
+  }
+
+  /** Writes the classes loaded and the methods found clean in this run, for the next run. */
+  public void save(File file) throws IOException {
+    final File directory = file.getAbsoluteFile().getParentFile();
+    Files.createDirectories(directory.toPath());
+    final File tmp = File.createTempFile(file.getName(), ".tmp", directory);
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(dependencies);
+
+        final List<DeclaredClass> classes = new ArrayList<>(classFiles.size());
+        out.writeInt(classFiles.size());
+        for (Map.Entry<String, ClassFile> entry : classFiles.entrySet()) {
+          out.writeUTF(entry.getKey());
+          out.writeUTF(entry.getValue().hash);
+          classes.add(entry.getValue().declaredClass);
+        }
+        DeclaredClassCodec.write(out, classes);
+
+        DeclaredClassCodec.writeMethods(out, cleanMethods);
+      }
+      try {
+        Files.move(
+            tmp.toPath(),
+            file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(tmp.toPath());
+    }
+  }
+
+  private static final class ClassFile {
+    private final String hash;
+    private final DeclaredClass declaredClass;
+
+    ClassFile(String hash, DeclaredClass declaredClass) {
+      this.hash = hash;
+      this.declaredClass = declaredClass;
+    }
+  }
+}
@@ -0,0 +1,654 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.spotify.missinglink.ArtifactLoader.ClassParser;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reads the class files of a jar. Jars are normally memory-mapped and their central directory is
+ * parsed directly, so that each class file is copied or inflated exactly once into a per-thread
+ * buffer that is handed to the parser, without any intermediate streams. Jars that need ZIP64
+ * extensions, are larger than 2 GB or use anything but stored and deflated entries are read through
+ * {@link JarFile} instead.
+ *
+ * <p>Jars nested in a jar, like the libraries of a Spring Boot application, are read the same way
+ * without extracting them: a stored nested jar is a slice of the mapping of the outer one, and a
+ * compressed one is inflated into memory.
+ *
+ * <p>Class files can be parsed concurrently from several threads. Each thread keeps its buffers and
+ * inflater until it dies or calls {@link #releaseBuffers()}; buffers are only kept up to {@link
+ * #MAX_RETAINED_BUFFER_SIZE}, larger class files get an array of their own.
+ */
+abstract class JarReader implements Closeable {
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_SIGNATURE = 0x06054b50;
+  private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int LOCAL_HEADER_SIZE = 30;
+  private static final int CENTRAL_HEADER_SIZE = 46;
+  private static final int END_SIZE = 22;
+  private static final int ZIP64_LOCATOR_SIZE = 20;
+  private static final int MAX_COMMENT_SIZE = 0xffff;
+  private static final int STORED = 0;
+  private static final int DEFLATED = 8;
+
+  // far larger than almost any class file, so only generated monsters get a one-off array
+  static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20;
+
+  // no initial value, so that releasing the buffers of a thread that never had any is free
+  private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<>();
+
+  /**
+   * Releases the buffers and the inflater of the calling thread, for threads that outlive the work
+   * they parse jars for. They are created again if the thread parses another class file.
+   */
+  static void releaseBuffers() {
+    final Buffers buffers = BUFFERS.get();
+    if (buffers != null) {
+      buffers.inflater.end();
+      BUFFERS.remove();
+    }
+  }
+
+  private static Buffers buffers() {
+    Buffers buffers = BUFFERS.get();
+    if (buffers == null) {
+      buffers = new Buffers();
+      BUFFERS.set(buffers);
+    }
+    return buffers;
+  }
+
+  /** Opens the jar, memory-mapping it if its format allows. */
+  static JarReader open(File path) throws IOException {
+    try {
+      return mapped(path);
+    } catch (UnsupportedJarException e) {
+      return streaming(path);
+    }
+  }
+
+  static JarReader mapped(File path) throws IOException {
+    return new Mapped(path);
+  }
+
+  static JarReader streaming(File path) throws IOException {
+    return new Streaming(new JarFile(path));
+  }
+
+  /**
+   * Returns a view of the class files under a directory of the jar whose names, relative to that
+   * directory, match the filter; like the application classes in {@code BOOT-INF/classes/} of a
+   * Spring Boot jar. The view is named relative to the directory, and closing it leaves this reader
+   * open.
+   *
+   * @param prefix the directory, ending with a slash, or the empty string for the whole jar
+   */
+  JarReader filtered(String prefix, Predicate<String> filter) {
+    return new Filtered(this, prefix, filter);
+  }
+
+  /** The names of the class file entries of the jar, in the order they are stored in. */
+  abstract Collection<String> classFileNames();
+
+  abstract DeclaredClass parse(String entryName, ClassParser parser) throws IOException;
+
+  /** The names of the entries that are jars themselves, in the order they are stored in. */
+  abstract Collection<String> nestedJarNames();
+
+  /** Reads an entry that is not a class file, like the manifest, or null if it is missing. */
+  abstract byte[] read(String entryName) throws IOException;
+
+  /** Opens a jar stored in this one. It stays readable when this reader is closed. */
+  abstract JarReader nested(String entryName) throws IOException;
+
+  /** The size of the jar in bytes. */
+  abstract long size();
+
+  /** Thrown when the jar uses a zip feature that the mapped reader does not implement. */
+  private static final class UnsupportedJarException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedJarException(String message) {
+      super(message);
+    }
+  }
+
+  /**
+   * The buffers and inflater of a thread, reused for every class file it parses. A buffer that
+   * would grow beyond {@link #MAX_RETAINED_BUFFER_SIZE} is allocated for the one class file only.
+   */
+  static final class Buffers {
+    final Inflater inflater = new Inflater(true);
+    private byte[] input = new byte[8192];
+    private byte[] output = new byte[16384];
+
+    byte[] input(int size) {
+      if (input.length < size) {
+        final byte[] grown = grow(input, size);
+        if (grown.length > MAX_RETAINED_BUFFER_SIZE) {
+          return grown;
+        }
+        input = grown;
+      }
+      return input;
+    }
+
+    byte[] output(int size) {
+      if (output.length < size) {
+        final byte[] grown = grow(output, size);
+        if (grown.length > MAX_RETAINED_BUFFER_SIZE) {
+          return grown;
+        }
+        output = grown;
+      }
+      return output;
+    }
+
+    private static byte[] grow(byte[] buffer, int size) {
+      return new byte[Math.max(size, Math.min(buffer.length * 2, MAX_RETAINED_BUFFER_SIZE))];
+    }
+  }
+
+  /** The location of a class file in the mapped jar. */
+  private static final class Entry {
+    final int method;
+    final int compressedSize;
+    final int size;
+    final int localHeaderOffset;
+
+    Entry(int method, int compressedSize, int size, int localHeaderOffset) {
+      this.method = method;
+      this.compressedSize = compressedSize;
+      this.size = size;
+      this.localHeaderOffset = localHeaderOffset;
+    }
+  }
+
+  private static final class Mapped extends JarReader {
+
+    private final String path;
+    // only ever read with absolute gets, or through duplicates, so it can be shared by threads
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    // every other file, which is only read on demand
+    private final Map<String, Entry> otherEntries = new LinkedHashMap<>();
+
+    Mapped(File path) throws IOException {
+      this(path.getPath(), map(path));
+    }
+
+    Mapped(String path, ByteBuffer buffer) throws IOException {
+      this.path = path;
+      this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+      readCentralDirectory();
+    }
+
+    // the mapping stays valid after the channel is closed, and is released when garbage collected
+    private static MappedByteBuffer map(File path) throws IOException {
+      final FileChannel channel = FileChannel.open(path.toPath(), StandardOpenOption.READ);
+      try {
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+          throw new UnsupportedJarException("Jar is larger than 2 GB");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } finally {
+        channel.close();
+      }
+    }
+
+    private void readCentralDirectory() throws IOException {
+      final int end = findEnd();
+      if (end >= ZIP64_LOCATOR_SIZE
+          && buffer.getInt(end - ZIP64_LOCATOR_SIZE) == ZIP64_LOCATOR_SIGNATURE) {
+        throw new UnsupportedJarException("ZIP64 jars are not supported");
+      }
+      final int entryCount = unsignedShort(end + 10);
+      final long directorySize = unsignedInt(end + 12);
+      final long directoryOffset = unsignedInt(end + 16);
+      // the offsets are relative to the start of the zip, which may be preceded by e.g. a script
+      final long base = end - directorySize - directoryOffset;
+      if (base < 0) {
+        throw new ZipException("Invalid central directory in " + path);
+      }
+
+      int offset = (int) (base + directoryOffset);
+      for (int i = 0; i < entryCount; i++) {
+        if (offset + CENTRAL_HEADER_SIZE > end
+            || buffer.getInt(offset) != CENTRAL_HEADER_SIGNATURE) {
+          throw new ZipException("Invalid central directory entry in " + path);
+        }
+        final int flags = unsignedShort(offset + 8);
+        final int method = unsignedShort(offset + 10);
+        final long compressedSize = unsignedInt(offset + 20);
+        final long size = unsignedInt(offset + 24);
+        final int nameLength = unsignedShort(offset + 28);
+        final int extraLength = unsignedShort(offset + 30);
+        final int commentLength = unsignedShort(offset + 32);
+        final long localHeaderOffset = unsignedInt(offset + 42);
+        final String name = string(offset + CENTRAL_HEADER_SIZE, nameLength);
+
+        if (name.endsWith(".class")) {
+          if ((flags & 1) != 0) {
+            throw new UnsupportedJarException("Encrypted entries are not supported");
+          }
+          if (method != STORED && method != DEFLATED) {
+            throw new UnsupportedJarException("Compression method " + method + " not supported");
+          }
+          if (compressedSize > Integer.MAX_VALUE
+              || size > Integer.MAX_VALUE
+              || localHeaderOffset == 0xffffffffL) {
+            throw new UnsupportedJarException("ZIP64 entries are not supported");
+          }
+          entries.put(
+              name,
+              new Entry(
+                  method, (int) compressedSize, (int) size, (int) (base + localHeaderOffset)));
+        } else if (!name.endsWith("/")) {
+          if (compressedSize > Integer.MAX_VALUE
+              || size > Integer.MAX_VALUE
+              || localHeaderOffset == 0xffffffffL) {
+            if (name.endsWith(".jar")) {
+              throw new UnsupportedJarException("ZIP64 entries are not supported");
+            }
+          } else {
+            otherEntries.put(
+                name,
+                new Entry(
+                    method, (int) compressedSize, (int) size, (int) (base + localHeaderOffset)));
+          }
+        }
+        offset += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+      }
+    }
+
+    /** Finds the end of central directory record, which is followed by a comment of any size. */
+    private int findEnd() throws ZipException {
+      final int last = buffer.capacity() - END_SIZE;
+      for (int offset = last; offset >= 0 && offset >= last - MAX_COMMENT_SIZE; offset--) {
+        if (buffer.getInt(offset) == END_SIGNATURE) {
+          return offset;
+        }
+      }
+      throw new ZipException("Not a jar file: " + path);
+    }
+
+    @Override
+    Collection<String> classFileNames() {
+      return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    @Override
+    DeclaredClass parse(String entryName, ClassParser parser) throws IOException {
+      final Entry entry = entries.get(entryName);
+      if (entry == null) {
+        throw new FileNotFoundException(entryName + " not found in " + path);
+      }
+      final int data = dataOffset(entryName, entry);
+
+      final Buffers buffers = buffers();
+      final byte[] classFile = buffers.output(entry.size);
+      if (entry.method == STORED) {
+        copy(data, classFile, entry.size);
+      } else {
+        // the inflater needs an extra dummy byte at the end of the input when not reading headers
+        final byte[] input = buffers.input(entry.compressedSize + 1);
+        copy(data, input, entry.compressedSize);
+        input[entry.compressedSize] = 0;
+        inflate(buffers.inflater, input, entry.compressedSize + 1, classFile, entry.size);
+      }
+      return parser.parse(classFile, entry.size);
+    }
+
+    @Override
+    Collection<String> nestedJarNames() {
+      final List<String> names = new ArrayList<>();
+      for (String name : otherEntries.keySet()) {
+        if (name.endsWith(".jar")) {
+          names.add(name);
+        }
+      }
+      return names;
+    }
+
+    @Override
+    byte[] read(String entryName) throws IOException {
+      final Entry entry = otherEntries.get(entryName);
+      if (entry == null) {
+        return null;
+      }
+      final ByteBuffer contents = contents(entryName, entry);
+      final byte[] bytes = new byte[contents.remaining()];
+      contents.get(bytes);
+      return bytes;
+    }
+
+    @Override
+    JarReader nested(String entryName) throws IOException {
+      final Entry entry = otherEntries.get(entryName);
+      if (entry == null) {
+        throw new FileNotFoundException(entryName + " not found in " + path);
+      }
+      return new Mapped(path + "!/" + entryName, contents(entryName, entry));
+    }
+
+    @Override
+    long size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * The uncompressed contents of an entry: a slice of the mapping if it is stored, which is how
+     * Spring Boot stores nested jars, or else a copy.
+     */
+    private ByteBuffer contents(String entryName, Entry entry) throws IOException {
+      final int data = dataOffset(entryName, entry);
+      if (entry.method == STORED) {
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(data);
+        slice.limit(data + entry.size);
+        return slice.slice();
+      }
+      if (entry.method != DEFLATED) {
+        throw new ZipException(
+            "Compression method " + entry.method + " of " + entryName + " not supported");
+      }
+      final byte[] input = new byte[entry.compressedSize + 1];
+      copy(data, input, entry.compressedSize);
+      final byte[] output = new byte[entry.size];
+      final Inflater inflater = new Inflater(true);
+      try {
+        inflate(inflater, input, input.length, output, entry.size);
+      } finally {
+        inflater.end();
+      }
+      return ByteBuffer.wrap(output);
+    }
+
+    /** The offset of the data of the entry, which follows its local header. */
+    private int dataOffset(String entryName, Entry entry) throws ZipException {
+      final int header = entry.localHeaderOffset;
+      if (header + LOCAL_HEADER_SIZE > buffer.capacity()
+          || buffer.getInt(header) != LOCAL_HEADER_SIGNATURE) {
+        throw new ZipException("Invalid local header for " + entryName + " in " + path);
+      }
+      final int data =
+          header + LOCAL_HEADER_SIZE + unsignedShort(header + 26) + unsignedShort(header + 28);
+      if (data + entry.compressedSize > buffer.capacity()) {
+        throw new ZipException("Truncated entry " + entryName + " in " + path);
+      }
+      return data;
+    }
+
+    private void inflate(Inflater inflater, byte[] input, int inputLength, byte[] output, int size)
+        throws ZipException {
+      inflater.reset();
+      inflater.setInput(input, 0, inputLength);
+      int inflated = 0;
+      try {
+        while (inflated < size && !inflater.finished()) {
+          final int n = inflater.inflate(output, inflated, size - inflated);
+          if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+            break;
+          }
+          inflated += n;
+        }
+      } catch (DataFormatException e) {
+        throw new ZipException("Invalid deflated entry in " + path + ": " + e.getMessage());
+      }
+      if (inflated != size) {
+        throw new ZipException("Truncated deflated entry in " + path);
+      }
+    }
+
+    private void copy(int offset, byte[] target, int length) {
+      final ByteBuffer source = buffer.duplicate();
+      source.position(offset);
+      source.get(target, 0, length);
+    }
+
+    private String string(int offset, int length) {
+      final byte[] bytes = new byte[length];
+      copy(offset, bytes, length);
+      return new String(bytes, UTF_8);
+    }
+
+    private int unsignedShort(int offset) {
+      return buffer.getShort(offset) & 0xffff;
+    }
+
+    private long unsignedInt(int offset) {
+      return buffer.getInt(offset) & 0xffffffffL;
+    }
+
+    @Override
+    public void close() {
+      // nothing to do, there is no portable way of unmapping the buffer before it is collected
+    }
+  }
+
+  private static final class Streaming extends JarReader {
+
+    private final JarFile jarFile;
+
+    Streaming(JarFile jarFile) {
+      this.jarFile = jarFile;
+    }
+
+    @Override
+    Collection<String> classFileNames() {
+      final List<String> names = new ArrayList<>();
+      for (JarEntry entry : Collections.list(jarFile.entries())) {
+        if (entry.getName().endsWith(".class")) {
+          names.add(entry.getName());
+        }
+      }
+      return names;
+    }
+
+    @Override
+    DeclaredClass parse(String entryName, ClassParser parser) throws IOException {
+      final JarEntry entry = jarFile.getJarEntry(entryName);
+      if (entry == null) {
+        throw new FileNotFoundException(entryName + " not found in " + jarFile.getName());
+      }
+      final Buffers buffers = buffers();
+      final InputStream in = jarFile.getInputStream(entry);
+      final ByteBuffer classFile;
+      try {
+        classFile = readFully(in, buffers, entry.getSize());
+      } finally {
+        in.close();
+      }
+      return parser.parse(classFile.array(), classFile.limit());
+    }
+
+    @Override
+    Collection<String> nestedJarNames() {
+      final List<String> names = new ArrayList<>();
+      for (JarEntry entry : Collections.list(jarFile.entries())) {
+        if (entry.getName().endsWith(".jar")) {
+          names.add(entry.getName());
+        }
+      }
+      return names;
+    }
+
+    @Override
+    byte[] read(String entryName) throws IOException {
+      final JarEntry entry = jarFile.getJarEntry(entryName);
+      if (entry == null) {
+        return null;
+      }
+      final InputStream in = jarFile.getInputStream(entry);
+      final ByteBuffer contents;
+      try {
+        contents = readFully(in, buffers(), entry.getSize());
+      } finally {
+        in.close();
+      }
+      return Arrays.copyOf(contents.array(), contents.limit());
+    }
+
+    @Override
+    JarReader nested(String entryName) throws IOException {
+      final byte[] bytes = read(entryName);
+      if (bytes == null) {
+        throw new FileNotFoundException(entryName + " not found in " + jarFile.getName());
+      }
+      return new Mapped(jarFile.getName() + "!/" + entryName, ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    long size() {
+      return new File(jarFile.getName()).length();
+    }
+
+    /**
+     * Reads the stream into the output buffer, or a larger array if it does not fit, and returns
+     * the array with its limit at the end of what was read.
+     */
+    private static ByteBuffer readFully(InputStream in, Buffers buffers, long sizeHint)
+        throws IOException {
+      byte[] output = buffers.output(sizeHint < 0 ? 0 : (int) sizeHint);
+      int length = 0;
+      int n;
+      while ((n = in.read(output, length, output.length - length)) != -1) {
+        length += n;
+        if (length == output.length) {
+          final byte[] grown = buffers.output(output.length * 2);
+          System.arraycopy(output, 0, grown, 0, length);
+          output = grown;
+        }
+      }
+      return ByteBuffer.wrap(output, 0, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+      jarFile.close();
+    }
+  }
+
+  private static final class Filtered extends JarReader {
+
+    private final JarReader jar;
+    private final String prefix;
+    private final Predicate<String> filter;
+
+    Filtered(JarReader jar, String prefix, Predicate<String> filter) {
+      this.jar = jar;
+      this.prefix = prefix;
+      this.filter = filter;
+    }
+
+    @Override
+    Collection<String> classFileNames() {
+      return relative(jar.classFileNames(), filter);
+    }
+
+    @Override
+    DeclaredClass parse(String entryName, ClassParser parser) throws IOException {
+      return jar.parse(prefix + entryName, parser);
+    }
+
+    @Override
+    Collection<String> nestedJarNames() {
+      return relative(jar.nestedJarNames(), name -> true);
+    }
+
+    @Override
+    byte[] read(String entryName) throws IOException {
+      return jar.read(prefix + entryName);
+    }
+
+    @Override
+    JarReader nested(String entryName) throws IOException {
+      return jar.nested(prefix + entryName);
+    }
+
+    @Override
+    long size() {
+      return jar.size();
+    }
+
+    private List<String> relative(Collection<String> names, Predicate<String> filter) {
+      final List<String> relative = new ArrayList<>();
+      for (String name : names) {
+        if (name.startsWith(prefix)) {
+          final String relativeName = name.substring(prefix.length());
+          if (filter.test(relativeName)) {
+            relative.add(relativeName);
+          }
+        }
+      }
+      return relative;
+    }
+
+    @Override
+    public void close() {
+      // the jar belongs to whoever created the view
+    }
+  }
+}
@@ -35,16 +35,27 @@
  */
 package com.spotify.missinglink;
 
+import com.spotify.missinglink.datamodel.AccessedField;
 import com.spotify.missinglink.datamodel.Artifact;
 import com.spotify.missinglink.datamodel.ArtifactBuilder;
 import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.CalledMethod;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
 import com.spotify.missinglink.datamodel.DeclaredClass;
-import com.spotify.missinglink.datamodel.TypeDescriptors;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import com.spotify.missinglink.datamodel.TypeDescriptor;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -53,54 +64,165 @@ import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Loads the system modules of the running JVM (Java 9 and later) as one artifact per module.
+ *
+ * <p>The module API is accessed through reflection so that this compiles for Java 8. Each
+ * reflective method is looked up once per call rather than once per module or class.
+ *
+ * <p>Since the JDK only changes when it is upgraded, the loaded modules can be kept in an {@link
+ * ArtifactCache}, keyed by the runtime version and validated against the {@code lib/modules} image
+ * of the JDK. It is also possible to only load the modules that contain packages referenced by the
+ * artifacts being checked, along with the modules they transitively require.
+ */
 public class Java9ModuleLoader {
 
   public static List<Artifact> getJava9ModuleArtifacts(BiConsumer<String, Exception> log) {
+    return getJava9ModuleArtifacts(log, null, null, false);
+  }
+
+  /**
+   * @param cache where to keep snapshots of the loaded modules, or null to always parse them
+   * @param referencedPackages if not null, only the modules containing one of these packages (in
+   *     dotted form, like {@code java.util}) and the modules they require are loaded; {@code
+   *     java.base} is always loaded
+   * @param declarationsOnly whether to only load the declarations of the classes, see {@link
+   *     ClassLoader#loadDeclarations(InputStream)}
+   */
+  public static List<Artifact> getJava9ModuleArtifacts(
+      BiConsumer<String, Exception> log,
+      ArtifactCache cache,
+      Set<String> referencedPackages,
+      boolean declarationsOnly) {
+    return getJava9ModuleArtifacts(
+        log, cache, referencedPackages, declarationsOnly, CheckListener.NONE);
+  }
+
+  /**
+   * Like {@link #getJava9ModuleArtifacts(BiConsumer, ArtifactCache, Set, boolean)}, also telling
+   * the listener about every class parsed and every lookup of a module in the cache.
+   */
+  public static List<Artifact> getJava9ModuleArtifacts(
+      BiConsumer<String, Exception> log,
+      ArtifactCache cache,
+      Set<String> referencedPackages,
+      boolean declarationsOnly,
+      CheckListener listener) {
     List<Artifact> artifacts = new ArrayList<>();
     try {
+      final Class<?> moduleFinderClass = Class.forName("java.lang.module.ModuleFinder");
+      final Class<?> moduleReferenceClass = Class.forName("java.lang.module.ModuleReference");
+      final Class<?> moduleReaderClass = Class.forName("java.lang.module.ModuleReader");
+      final Class<?> moduleDescriptorClass = Class.forName("java.lang.module.ModuleDescriptor");
+      final Class<?> requiresClass = Class.forName("java.lang.module.ModuleDescriptor$Requires");
+      final Method descriptorMethod = moduleReferenceClass.getMethod("descriptor");
+      final Method openReaderMethod = moduleReferenceClass.getMethod("open");
+      final Method nameMethod = moduleDescriptorClass.getMethod("name");
+      final Method packagesMethod = moduleDescriptorClass.getMethod("packages");
+      final Method requiresMethod = moduleDescriptorClass.getMethod("requires");
+      final Method requiresNameMethod = requiresClass.getMethod("name");
+      final Method listMethod = moduleReaderClass.getMethod("list");
+      final Method openMethod = moduleReaderClass.getMethod("open", String.class);
+      final Method closeMethod = moduleReaderClass.getMethod("close");
 
-      final Class moduleFinderClass = Class.forName("java.lang.module.ModuleFinder");
       final Object systemModuleFinder = moduleFinderClass.getMethod("ofSystem").invoke(null);
-      final Set moduleReferences =
-          (Set) moduleFinderClass.getMethod("findAll").invoke(systemModuleFinder);
-      final Class moduleReferenceClass = Class.forName("java.lang.module.ModuleReference");
-      final Class moduleReaderClass = Class.forName("java.lang.module.ModuleReader");
+      final Set<?> moduleReferences =
+          (Set<?>) moduleFinderClass.getMethod("findAll").invoke(systemModuleFinder);
+
+      final Map<String, Object> referencesByName = new LinkedHashMap<>();
+      final Map<String, Set<String>> packagesByModule = new HashMap<>();
+      final Map<String, List<String>> requiresByModule = new HashMap<>();
       for (final Object moduleReference : moduleReferences) {
-        final Object descriptor =
-            moduleReferenceClass.getMethod("descriptor").invoke(moduleReference);
-        final String moduleName =
-            String.valueOf(descriptor.getClass().getMethod("name").invoke(descriptor));
-        Object reader = moduleReferenceClass.getMethod("open").invoke(moduleReference);
+        final Object descriptor = descriptorMethod.invoke(moduleReference);
+        final String moduleName = String.valueOf(nameMethod.invoke(descriptor));
+        referencesByName.put(moduleName, moduleReference);
+        if (referencedPackages != null) {
+          final Set<String> packages = new HashSet<>();
+          for (Object pkg : (Set<?>) packagesMethod.invoke(descriptor)) {
+            packages.add(String.valueOf(pkg));
+          }
+          packagesByModule.put(moduleName, packages);
+          final List<String> requires = new ArrayList<>();
+          for (Object require : (Set<?>) requiresMethod.invoke(descriptor)) {
+            requires.add(String.valueOf(requiresNameMethod.invoke(require)));
+          }
+          requiresByModule.put(moduleName, requires);
+        }
+      }
+
+      final Set<String> modulesToLoad =
+          referencedPackages == null
+              ? referencesByName.keySet()
+              : requiredModules(referencedPackages, packagesByModule, requiresByModule);
+
+      final File modulesImage = modulesImage();
+      final String runtimeVersion = System.getProperty("java.runtime.version");
+      for (final Map.Entry<String, Object> module : referencesByName.entrySet()) {
+        final String moduleName = module.getKey();
+        if (!modulesToLoad.contains(moduleName)) {
+          continue;
+        }
+        final ArtifactName name = new ArtifactName(moduleName);
+        final String cacheKey =
+            modulesImage
+                + "!/"
+                + moduleName
+                + "@"
+                + runtimeVersion
+                + (declarationsOnly ? "!declarations" : "");
+        if (cache != null && modulesImage != null) {
+          final Map<ClassTypeDescriptor, DeclaredClass> cached = cache.get(cacheKey, modulesImage);
+          listener.artifactCacheLookup(cached != null);
+          if (cached != null) {
+            artifacts.add(new ArtifactBuilder().name(name).classes(cached).build());
+            continue;
+          }
+        }
+
+        Object reader = openReaderMethod.invoke(module.getValue());
         try {
-          final ArtifactName name = new ArtifactName(moduleName);
           Map<ClassTypeDescriptor, DeclaredClass> classes = new HashMap<>();
           final List<String> readerList =
-              ((Stream<String>) moduleReaderClass.getMethod("list").invoke(reader))
+              ((Stream<?>) listMethod.invoke(reader))
+                  .map(String::valueOf)
                   .filter(className -> className.endsWith(".class"))
                   .collect(Collectors.toList());
 
           for (String className : readerList) {
-            final Optional<InputStream> opened =
-                (Optional<InputStream>)
-                    moduleReaderClass.getMethod("open", String.class).invoke(reader, className);
+            final Optional<?> opened = (Optional<?>) openMethod.invoke(reader, className);
             if (!opened.isPresent()) {
               continue;
             }
-            try (InputStream inputStream = opened.get()) {
-              DeclaredClass declaredClass = ClassLoader.load(inputStream);
-              classes.put(TypeDescriptors.fromClassName(className), declaredClass);
+            try {
+              final InputStream inputStream = (InputStream) opened.get();
+              final byte[] classFile;
+              try {
+                classFile = ClassLoader.readFully(inputStream);
+              } finally {
+                inputStream.close();
+              }
+              DeclaredClass declaredClass =
+                  declarationsOnly
+                      ? ClassLoader.loadDeclarations(classFile, classFile.length)
+                      : ClassLoader.load(classFile, classFile.length);
+              listener.classParsed(classFile.length);
+              classes.put(declaredClass.className(), declaredClass);
             } catch (Exception e) {
               log.accept("Could not read class " + className, e);
             }
           }
           artifacts.add(new ArtifactBuilder().name(name).classes(classes).build());
+          if (cache != null && modulesImage != null) {
+            try {
+              cache.put(cacheKey, modulesImage, classes);
+            } catch (IOException e) {
+              log.accept("Could not cache module " + moduleName, e);
+            }
+          }
         } finally {
           try {
-            moduleReaderClass.getMethod("close").invoke(reader);
-          } catch (InvocationTargetException
-              | NoSuchMethodException
-              | SecurityException
-              | IllegalAccessException e) {
+            closeMethod.invoke(reader);
+          } catch (InvocationTargetException | SecurityException | IllegalAccessException e) {
             log.accept("Could not close reader", e);
           }
         }
@@ -113,4 +235,99 @@ public class Java9ModuleLoader {
     }
     return artifacts;
   }
+
+  /**
+   * Returns the packages of all classes referenced from the given artifacts, as superclasses,
+   * interfaces, loaded classes, or owners of called methods and accessed fields. This parses every
+   * class of the artifacts, see {@link #referencedPackages(Artifact, List)} to only parse the
+   * classes the checker will look at.
+   */
+  public static Set<String> referencedPackages(Collection<Artifact> artifacts) {
+    final Set<String> packages = new HashSet<>();
+    for (Artifact artifact : artifacts) {
+      for (DeclaredClass clazz : artifact.classes().values()) {
+        addReferencedPackages(packages, clazz);
+      }
+    }
+    return packages;
+  }
+
+  /**
+   * Like {@link #referencedPackages(Collection)}, but only for the project classes and the classes
+   * of the classpath that are reachable from them, so that lazily loaded artifacts are not parsed
+   * any further than the conflict check itself would parse them.
+   *
+   * @param classpathArtifacts the artifacts in classpath order, where the first artifact declaring
+   *     a class is the one that defines it
+   */
+  public static Set<String> referencedPackages(
+      Artifact projectArtifact, List<Artifact> classpathArtifacts) {
+    final Map<ClassTypeDescriptor, Artifact> definingArtifacts = new HashMap<>();
+    for (Artifact artifact : classpathArtifacts) {
+      for (ClassTypeDescriptor className : artifact.classes().keySet()) {
+        definingArtifacts.putIfAbsent(className, artifact);
+      }
+    }
+    final Map<ClassTypeDescriptor, DeclaredClass> knownClasses =
+        new ConflictChecker.KnownClasses(definingArtifacts);
+
+    final Set<String> packages = new HashSet<>();
+    for (TypeDescriptor reachable :
+        ConflictChecker.reachableFrom(projectArtifact.classes().values(), knownClasses)) {
+      final ClassTypeDescriptor className = (ClassTypeDescriptor) reachable;
+      final DeclaredClass clazz = projectArtifact.classes().get(className);
+      addReferencedPackages(packages, clazz != null ? clazz : knownClasses.get(className));
+    }
+    return packages;
+  }
+
+  private static void addReferencedPackages(Set<String> packages, DeclaredClass clazz) {
+    addPackage(packages, clazz.className());
+    clazz.parents().forEach(parent -> addPackage(packages, parent));
+    clazz.loadedClasses().forEach(loaded -> addPackage(packages, loaded));
+    for (DeclaredMethod method : clazz.methods().values()) {
+      for (CalledMethod call : method.methodCalls()) {
+        addPackage(packages, call.owner());
+      }
+      for (AccessedField field : method.fieldAccesses()) {
+        addPackage(packages, field.owner());
+      }
+    }
+  }
+
+  private static void addPackage(Set<String> packages, ClassTypeDescriptor type) {
+    final String className = type.getClassName();
+    final int lastDot = className.lastIndexOf('.');
+    packages.add(lastDot < 0 ? "" : className.substring(0, lastDot));
+  }
+
+  static Set<String> requiredModules(
+      Set<String> referencedPackages,
+      Map<String, Set<String>> packagesByModule,
+      Map<String, List<String>> requiresByModule) {
+    final Set<String> modules = new HashSet<>();
+    final Deque<String> queue = new ArrayDeque<>();
+    queue.add("java.base");
+    for (Map.Entry<String, Set<String>> entry : packagesByModule.entrySet()) {
+      for (String pkg : entry.getValue()) {
+        if (referencedPackages.contains(pkg)) {
+          queue.add(entry.getKey());
+          break;
+        }
+      }
+    }
+    while (!queue.isEmpty()) {
+      final String module = queue.remove();
+      if (modules.add(module)) {
+        queue.addAll(requiresByModule.getOrDefault(module, new ArrayList<>()));
+      }
+    }
+    return modules;
+  }
+
+  private static File modulesImage() {
+    final File image =
+        new File(System.getProperty("java.home"), "lib" + File.separator + "modules");
+    return image.isFile() ? image : null;
+  }
 }
@@ -0,0 +1,157 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * An artifact whose class names are known up front, but whose classes are only parsed when they are
+ * first looked up. Iterating over {@link #classes()} or its values parses every class, so code that
+ * only needs some of them should go through the key set and {@link Map#get(Object)}.
+ *
+ * <p>Only equal to itself: comparing or hashing the classes would parse all of them, which would
+ * make putting the artifact in a set as expensive as loading it eagerly.
+ */
+final class LazyArtifact implements Artifact {
+
+  private final ArtifactName name;
+  private final LazyClassMap<?> classes;
+
+  /**
+   * @param sources what to load each class from, keyed by class name
+   * @param loader parses a class from its source; called at most once per class
+   */
+  <T> LazyArtifact(
+      ArtifactName name, Map<ClassTypeDescriptor, T> sources, Function<T, DeclaredClass> loader) {
+    this.name = name;
+    this.classes = new LazyClassMap<>(sources, loader);
+  }
+
+  @Override
+  public ArtifactName name() {
+    return name;
+  }
+
+  @Override
+  public Map<ClassTypeDescriptor, DeclaredClass> classes() {
+    return classes;
+  }
+
+  /** The number of classes that have been parsed so far. */
+  int loadedClassCount() {
+    return classes.loaded.size();
+  }
+
+  @Override
+  public String toString() {
+    return "Artifact{name=" + name + ", classes=" + classes.keySet() + '}';
+  }
+
+  private static final class LazyClassMap<T>
+      extends AbstractMap<ClassTypeDescriptor, DeclaredClass> {
+
+    private final Map<ClassTypeDescriptor, T> sources;
+    private final Function<T, DeclaredClass> loader;
+    private final Map<ClassTypeDescriptor, DeclaredClass> loaded = new ConcurrentHashMap<>();
+
+    LazyClassMap(Map<ClassTypeDescriptor, T> sources, Function<T, DeclaredClass> loader) {
+      this.sources = sources;
+      this.loader = loader;
+    }
+
+    @Override
+    public DeclaredClass get(Object key) {
+      final T source = sources.get(key);
+      if (source == null) {
+        return null;
+      }
+      return loaded.computeIfAbsent((ClassTypeDescriptor) key, k -> loader.apply(source));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return sources.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return sources.size();
+    }
+
+    @Override
+    public Set<ClassTypeDescriptor> keySet() {
+      return Collections.unmodifiableSet(sources.keySet());
+    }
+
+    @Override
+    public Set<Entry<ClassTypeDescriptor, DeclaredClass>> entrySet() {
+      return new AbstractSet<Entry<ClassTypeDescriptor, DeclaredClass>>() {
+        @Override
+        public Iterator<Entry<ClassTypeDescriptor, DeclaredClass>> iterator() {
+          final Iterator<ClassTypeDescriptor> keys = sources.keySet().iterator();
+          return new Iterator<Entry<ClassTypeDescriptor, DeclaredClass>>() {
+            @Override
+            public boolean hasNext() {
+              return keys.hasNext();
+            }
+
+            @Override
+            public Entry<ClassTypeDescriptor, DeclaredClass> next() {
+              final ClassTypeDescriptor key = keys.next();
+              return new SimpleImmutableEntry<>(key, get(key));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return sources.size();
+        }
+      };
+    }
+  }
+}
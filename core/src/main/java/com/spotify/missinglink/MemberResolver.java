@@ -0,0 +1,156 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.DeclaredField;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import com.spotify.missinglink.datamodel.MethodDescriptor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves called methods and accessed fields against the class hierarchy, remembering the verdict
+ * for every class that was visited on the way. A call to a method inherited from deep in the
+ * hierarchy is then only walked up once per check run, no matter how many call sites there are.
+ *
+ * <p>Safe to use from several threads. Two threads resolving the same member at the same time may
+ * both walk the hierarchy, which only affects the statistics.
+ */
+final class MemberResolver {
+
+  private final Map<ClassTypeDescriptor, DeclaredClass> knownClasses;
+  private final Map<ClassTypeDescriptor, Map<MethodDescriptor, Boolean>> missingStaticMethods =
+      new ConcurrentHashMap<>();
+  private final Map<ClassTypeDescriptor, Map<MethodDescriptor, Boolean>> missingInstanceMethods =
+      new ConcurrentHashMap<>();
+  private final Map<ClassTypeDescriptor, Map<DeclaredField, Boolean>> missingFields =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder methodHits = new LongAdder();
+  private final LongAdder methodMisses = new LongAdder();
+  private final LongAdder fieldHits = new LongAdder();
+  private final LongAdder fieldMisses = new LongAdder();
+
+  MemberResolver(Map<ClassTypeDescriptor, DeclaredClass> knownClasses) {
+    this.knownClasses = knownClasses;
+  }
+
+  /**
+   * @return true if neither the class nor any of its parents declares the method with the given
+   *     static-ness
+   */
+  boolean missingMethod(DeclaredClass calledClass, MethodDescriptor descriptor, boolean isStatic) {
+    final Map<MethodDescriptor, Boolean> verdicts =
+        (isStatic ? missingStaticMethods : missingInstanceMethods)
+            .computeIfAbsent(calledClass.className(), className -> new ConcurrentHashMap<>());
+    final Boolean cached = verdicts.get(descriptor);
+    if (cached != null) {
+      methodHits.increment();
+      return cached;
+    }
+    methodMisses.increment();
+    final boolean missing = resolveMethod(calledClass, descriptor, isStatic);
+    verdicts.put(descriptor, missing);
+    return missing;
+  }
+
+  private boolean resolveMethod(
+      DeclaredClass calledClass, MethodDescriptor descriptor, boolean isStatic) {
+    final DeclaredMethod method = calledClass.methods().get(descriptor);
+
+    if (method != null) {
+      // TODO: also validate return type
+      return isStatic != method.isStatic();
+    }
+
+    // Might be defined in a super class
+    for (ClassTypeDescriptor parentClass : calledClass.parents()) {
+      final DeclaredClass declaredClass = knownClasses.get(parentClass);
+      // ignore null parents - this means that the parent cannot be found, and this error gets
+      // reported since the class's constructor tries to call its parent's constructor.
+      if (declaredClass != null && !missingMethod(declaredClass, descriptor, isStatic)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /** @return true if neither the class nor any of its parents declares the field */
+  boolean missingField(DeclaredClass calledClass, DeclaredField field) {
+    final Map<DeclaredField, Boolean> verdicts =
+        missingFields.computeIfAbsent(
+            calledClass.className(), className -> new ConcurrentHashMap<>());
+    final Boolean cached = verdicts.get(field);
+    if (cached != null) {
+      fieldHits.increment();
+      return cached;
+    }
+    fieldMisses.increment();
+    final boolean missing = resolveField(calledClass, field);
+    verdicts.put(field, missing);
+    return missing;
+  }
+
+  private boolean resolveField(DeclaredClass calledClass, DeclaredField field) {
+    if (calledClass.fields().contains(field)) {
+      // TODO: also validate return type
+      return false;
+    }
+
+    // Might be defined in a super class
+    for (ClassTypeDescriptor parentClass : calledClass.parents()) {
+      final DeclaredClass declaredClass = knownClasses.get(parentClass);
+      // TODO 6/2/15 mbrown -- treat properly, by flagging as a different type of Conflict
+      if (declaredClass == null) {
+        System.out.printf(
+            "Warning: Cannot find parent %s of class %s%n", parentClass, calledClass.className());
+      } else if (!missingField(declaredClass, field)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  ResolutionStatistics statistics() {
+    return new ResolutionStatistics(
+        methodHits.sum(), methodMisses.sum(), fieldHits.sum(), fieldMisses.sum());
+  }
+}
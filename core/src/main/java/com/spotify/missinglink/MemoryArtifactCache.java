@@ -0,0 +1,117 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link ArtifactCache} that keeps the loaded classes in memory, for processes that run many
+ * checks on mostly the same jars, like a server. Entries are validated against the size and
+ * modification time of their source file just like on disk. If a directory is given, entries
+ * missing from memory are looked up there, and new entries are written there as well.
+ */
+public class MemoryArtifactCache extends ArtifactCache {
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /** Creates a cache that only keeps entries in memory. */
+  public MemoryArtifactCache() {
+    this(null);
+  }
+
+  /** Creates a cache in front of the on-disk cache in the directory, if not null. */
+  public MemoryArtifactCache(File directory) {
+    super(directory);
+  }
+
+  @Override
+  public Map<ClassTypeDescriptor, DeclaredClass> get(String key, File source) {
+    final Entry entry = entries.get(key);
+    if (entry != null && entry.isValidFor(source)) {
+      return entry.classes;
+    }
+    if (directory() == null) {
+      return null;
+    }
+    final Map<ClassTypeDescriptor, DeclaredClass> classes = super.get(key, source);
+    if (classes != null) {
+      entries.put(key, new Entry(source, classes));
+    }
+    return classes;
+  }
+
+  @Override
+  public void put(String key, File source, Map<ClassTypeDescriptor, DeclaredClass> classes)
+      throws IOException {
+    entries.put(key, new Entry(source, classes));
+    if (directory() != null) {
+      super.put(key, source, classes);
+    }
+  }
+
+  /** The number of entries held in memory. */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Forgets the entries held in memory; entries on disk are kept. */
+  public void clear() {
+    entries.clear();
+  }
+
+  private static final class Entry {
+
+    private final long length;
+    private final long lastModified;
+    private final Map<ClassTypeDescriptor, DeclaredClass> classes;
+
+    Entry(File source, Map<ClassTypeDescriptor, DeclaredClass> classes) {
+      this.length = source.length();
+      this.lastModified = source.lastModified();
+      this.classes = Collections.unmodifiableMap(classes);
+    }
+
+    boolean isValidFor(File source) {
+      return source.length() == length && source.lastModified() == lastModified;
+    }
+  }
+}
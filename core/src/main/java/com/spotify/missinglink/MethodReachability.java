@@ -0,0 +1,240 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.AccessedField;
+import com.spotify.missinglink.datamodel.CalledMethod;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import com.spotify.missinglink.datamodel.MethodDescriptor;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Finds the methods reachable from all the methods of a set of root classes, by following method
+ * calls rather than just class references.
+ *
+ * <p>A call reaches the called method as declared in the owner class or inherited from its parents,
+ * and, unless it is static or a constructor, the method each subtype of the owner that has been
+ * loaded so far or is loaded later dispatches to, whether the subtype declares it or inherits it
+ * from its parents. A class is loaded when it is referenced by a reached method (as the owner of a
+ * call or field access), when it is a parent of a loaded class, or when it is referenced by an ldc
+ * instruction of a loaded class. Loading a class reaches its static initializer.
+ *
+ * <p>Classes that are not checked (like the JDK) are only known by their declarations, so calls
+ * they make back into checked code are invisible. As an approximation, a method of a checked class
+ * that overrides a method declared in an unchecked supertype is reached as soon as the class is
+ * loaded.
+ */
+final class MethodReachability {
+
+  private static final String CONSTRUCTOR = "<init>";
+  private static final String STATIC_INITIALIZER = "<clinit>";
+
+  private final Map<ClassTypeDescriptor, DeclaredClass> roots = new HashMap<>();
+  private final Map<ClassTypeDescriptor, DeclaredClass> knownClasses;
+  private final Predicate<ClassTypeDescriptor> checked;
+
+  private final Map<ClassTypeDescriptor, Set<MethodDescriptor>> reached = new HashMap<>();
+  private final Deque<ClassTypeDescriptor> queuedClasses = new ArrayDeque<>();
+  private final Deque<MethodDescriptor> queuedMethods = new ArrayDeque<>();
+
+  private final Set<ClassTypeDescriptor> loaded = new HashSet<>();
+  private final Map<ClassTypeDescriptor, Set<ClassTypeDescriptor>> supertypes = new HashMap<>();
+  // supertype -> loaded subtypes, and owner -> methods called on it with virtual dispatch
+  private final Map<ClassTypeDescriptor, Set<ClassTypeDescriptor>> subtypes = new HashMap<>();
+  private final Map<ClassTypeDescriptor, Set<MethodDescriptor>> virtualCalls = new HashMap<>();
+
+  /**
+   * @param knownClasses the canonical class of each name; roots take precedence over these
+   * @param checked whether a class belongs to an artifact whose method bodies are checked
+   */
+  MethodReachability(
+      Map<ClassTypeDescriptor, DeclaredClass> knownClasses,
+      Predicate<ClassTypeDescriptor> checked) {
+    this.knownClasses = knownClasses;
+    this.checked = checked;
+  }
+
+  /** Returns the reachable methods of each class that has any. */
+  Map<ClassTypeDescriptor, Set<MethodDescriptor>> reachableFrom(Collection<DeclaredClass> roots) {
+    for (DeclaredClass root : roots) {
+      this.roots.putIfAbsent(root.className(), root);
+    }
+    for (DeclaredClass root : this.roots.values()) {
+      load(root.className());
+      for (MethodDescriptor method : root.methods().keySet()) {
+        reach(root.className(), method);
+      }
+    }
+
+    while (!queuedClasses.isEmpty()) {
+      process(queuedClasses.remove(), queuedMethods.remove());
+    }
+    return reached;
+  }
+
+  private DeclaredClass lookup(ClassTypeDescriptor className) {
+    final DeclaredClass root = roots.get(className);
+    return root != null ? root : knownClasses.get(className);
+  }
+
+  private void reach(ClassTypeDescriptor className, MethodDescriptor method) {
+    if (reached.computeIfAbsent(className, k -> new HashSet<>()).add(method)) {
+      queuedClasses.add(className);
+      queuedMethods.add(method);
+    }
+  }
+
+  private void process(ClassTypeDescriptor className, MethodDescriptor descriptor) {
+    final DeclaredClass declaredClass = lookup(className);
+    final DeclaredMethod method =
+        declaredClass == null ? null : declaredClass.methods().get(descriptor);
+    if (method == null) {
+      return;
+    }
+
+    for (CalledMethod call : method.methodCalls()) {
+      final ClassTypeDescriptor owner = call.owner();
+      load(owner);
+      resolve(owner, call.descriptor(), new HashSet<>());
+
+      if (!call.isStatic() && !call.descriptor().name().equals(CONSTRUCTOR)) {
+        if (virtualCalls.computeIfAbsent(owner, k -> new HashSet<>()).add(call.descriptor())) {
+          for (ClassTypeDescriptor subtype : subtypes.getOrDefault(owner, Collections.emptySet())) {
+            resolve(subtype, call.descriptor(), new HashSet<>());
+          }
+        }
+      }
+    }
+    for (AccessedField field : method.fieldAccesses()) {
+      load(field.owner());
+    }
+  }
+
+  /** Reaches the method as declared in the class, or else as inherited from its parents. */
+  private void resolve(
+      ClassTypeDescriptor className, MethodDescriptor method, Set<ClassTypeDescriptor> visited) {
+    if (!visited.add(className)) {
+      return;
+    }
+    final DeclaredClass declaredClass = lookup(className);
+    if (declaredClass == null) {
+      return;
+    }
+    if (declaredClass.methods().containsKey(method)) {
+      reach(className, method);
+      return;
+    }
+    for (ClassTypeDescriptor parent : declaredClass.parents()) {
+      resolve(parent, method, visited);
+    }
+  }
+
+  private void load(ClassTypeDescriptor className) {
+    if (!loaded.add(className)) {
+      return;
+    }
+    final DeclaredClass declaredClass = lookup(className);
+    if (declaredClass == null) {
+      return;
+    }
+    declaredClass.parents().forEach(this::load);
+    declaredClass.loadedClasses().forEach(this::load);
+
+    for (MethodDescriptor method : declaredClass.methods().keySet()) {
+      if (method.name().equals(STATIC_INITIALIZER)) {
+        reach(className, method);
+      }
+    }
+
+    final boolean isChecked = checked.test(className);
+    for (ClassTypeDescriptor supertype : supertypesOf(className)) {
+      subtypes.computeIfAbsent(supertype, k -> new HashSet<>()).add(className);
+      for (MethodDescriptor method : virtualCalls.getOrDefault(supertype, Collections.emptySet())) {
+        resolve(className, method, new HashSet<>());
+      }
+      if (isChecked && !checked.test(supertype)) {
+        reachCallbacks(className, declaredClass, supertype);
+      }
+    }
+  }
+
+  /** Reaches the methods of the class that override a method declared in the supertype. */
+  private void reachCallbacks(
+      ClassTypeDescriptor className, DeclaredClass declaredClass, ClassTypeDescriptor supertype) {
+    final DeclaredClass declaredSupertype = lookup(supertype);
+    if (declaredSupertype == null) {
+      return;
+    }
+    for (MethodDescriptor method : declaredClass.methods().keySet()) {
+      if (!method.name().equals(CONSTRUCTOR)
+          && !method.name().equals(STATIC_INITIALIZER)
+          && declaredSupertype.methods().containsKey(method)) {
+        reach(className, method);
+      }
+    }
+  }
+
+  /** All transitive parents of the class, not including the class itself. */
+  private Set<ClassTypeDescriptor> supertypesOf(ClassTypeDescriptor className) {
+    final Set<ClassTypeDescriptor> cached = supertypes.get(className);
+    if (cached != null) {
+      return cached;
+    }
+    final Set<ClassTypeDescriptor> result = new LinkedHashSet<>();
+    // added before it is filled in, so that a (broken) cyclic hierarchy terminates
+    supertypes.put(className, result);
+    final DeclaredClass declaredClass = lookup(className);
+    if (declaredClass != null) {
+      for (ClassTypeDescriptor parent : declaredClass.parents()) {
+        if (result.add(parent)) {
+          result.addAll(supertypesOf(parent));
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,235 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+
+/**
+ * Tests whether classes are in one of a set of packages, optionally including their subpackages.
+ * The packages are compiled into a trie of package name segments, so a lookup only walks the
+ * segments of the package of the class, however many packages there are, and allocates nothing.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class PackageMatcher {
+
+  private static final PackageMatcher EMPTY = new PackageMatcher(new Node());
+
+  private final Node root;
+
+  private PackageMatcher(Node root) {
+    this.root = root;
+  }
+
+  /** A matcher that matches nothing. */
+  public static PackageMatcher empty() {
+    return EMPTY;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** Whether the class is in one of the packages of this matcher. */
+  public boolean matches(ClassTypeDescriptor className) {
+    final String name = className.getClassName();
+    return matchesPackage(name, name.lastIndexOf('.'));
+  }
+
+  /** Whether a package, given as a dot-separated name like "com.spotify", is matched. */
+  public boolean matchesPackage(String packageName) {
+    return matchesPackage(packageName, packageName.length());
+  }
+
+  /** Whether the package in the first {@code length} characters of the name is matched. */
+  private boolean matchesPackage(String name, int length) {
+    if (length <= 0) {
+      // classes in the default package are in no package that can be configured
+      return false;
+    }
+    Node node = root;
+    int start = 0;
+    while (true) {
+      int end = name.indexOf('.', start);
+      if (end < 0 || end > length) {
+        end = length;
+      }
+      node = node.child(name, start, end);
+      if (node == null) {
+        return false;
+      }
+      if (end == length) {
+        return node.matchesItself || node.matchesSubpackages;
+      }
+      if (node.matchesSubpackages) {
+        return true;
+      }
+      start = end + 1;
+    }
+  }
+
+  public static final class Builder {
+
+    private Node root = new Node();
+
+    private Builder() {}
+
+    /**
+     * Adds a package, given as a dot-separated name like "com.spotify", and optionally all of its
+     * subpackages.
+     */
+    public Builder add(String packageName, boolean includeSubpackages) {
+      if (packageName.isEmpty()) {
+        throw new IllegalArgumentException("packageName cannot be empty");
+      }
+      Node node = root;
+      int start = 0;
+      while (start <= packageName.length()) {
+        int end = packageName.indexOf('.', start);
+        if (end < 0) {
+          end = packageName.length();
+        }
+        if (end == start) {
+          throw new IllegalArgumentException("Invalid package name: " + packageName);
+        }
+        node = node.addChild(packageName.substring(start, end));
+        start = end + 1;
+      }
+      if (includeSubpackages) {
+        node.matchesSubpackages = true;
+      } else {
+        node.matchesItself = true;
+      }
+      return this;
+    }
+
+    public PackageMatcher build() {
+      final PackageMatcher matcher = new PackageMatcher(root);
+      // the nodes must not be changed once a matcher shares them
+      root = root.copy();
+      return matcher;
+    }
+  }
+
+  /**
+   * A package name segment. The children are kept in an open-addressing table keyed by the segment
+   * names, which can be probed with a region of a longer name without creating a substring.
+   */
+  private static final class Node {
+
+    private static final String[] NO_NAMES = {};
+    private static final Node[] NO_NODES = {};
+
+    private String[] names = NO_NAMES;
+    private Node[] children = NO_NODES;
+    private int size;
+    private boolean matchesItself;
+    private boolean matchesSubpackages;
+
+    Node child(String name, int start, int end) {
+      if (size == 0) {
+        return null;
+      }
+      final int length = end - start;
+      final int mask = names.length - 1;
+      for (int i = hash(name, start, end) & mask; names[i] != null; i = (i + 1) & mask) {
+        final String candidate = names[i];
+        if (candidate.length() == length && name.regionMatches(start, candidate, 0, length)) {
+          return children[i];
+        }
+      }
+      return null;
+    }
+
+    Node addChild(String name) {
+      final Node existing = child(name, 0, name.length());
+      if (existing != null) {
+        return existing;
+      }
+      // keep the table at most half full
+      if ((size + 1) * 2 > names.length) {
+        final String[] oldNames = names;
+        final Node[] oldChildren = children;
+        names = new String[Math.max(4, oldNames.length * 2)];
+        children = new Node[names.length];
+        size = 0;
+        for (int i = 0; i < oldNames.length; i++) {
+          if (oldNames[i] != null) {
+            put(oldNames[i], oldChildren[i]);
+          }
+        }
+      }
+      final Node child = new Node();
+      put(name, child);
+      return child;
+    }
+
+    private void put(String name, Node child) {
+      final int mask = names.length - 1;
+      int i = hash(name, 0, name.length()) & mask;
+      while (names[i] != null) {
+        i = (i + 1) & mask;
+      }
+      names[i] = name;
+      children[i] = child;
+      size++;
+    }
+
+    Node copy() {
+      final Node copy = new Node();
+      copy.names = names.clone();
+      copy.children = new Node[children.length];
+      for (int i = 0; i < children.length; i++) {
+        if (children[i] != null) {
+          copy.children[i] = children[i].copy();
+        }
+      }
+      copy.size = size;
+      copy.matchesItself = matchesItself;
+      copy.matchesSubpackages = matchesSubpackages;
+      return copy;
+    }
+
+    /** The same as {@link String#hashCode()} of the substring, spread over the low bits. */
+    private static int hash(String name, int start, int end) {
+      int h = 0;
+      for (int i = start; i < end; i++) {
+        h = 31 * h + name.charAt(i);
+      }
+      return h ^ (h >>> 16);
+    }
+  }
+}
@@ -35,6 +35,8 @@
  */
 package com.spotify.missinglink;
 
+import com.spotify.missinglink.datamodel.Dependency;
+
 public class PrettyPrinter {
   public static String className(String className) {
     return className.replace('/', '.');
@@ -97,4 +99,25 @@ public class PrettyPrinter {
     }
     return sb.toString();
   }
+
+  /**
+   * Describes a conflict on a single line, like {@code METHOD_SIGNATURE_NOT_FOUND in lib.jar:
+   * com.foo.Bar.baz(int):42: Method not found: ...}.
+   */
+  public static String conflict(Conflict conflict) {
+    final Dependency dependency = conflict.dependency();
+    final StringBuilder sb =
+        new StringBuilder()
+            .append(conflict.category())
+            .append(" in ")
+            .append(conflict.usedBy().name())
+            .append(": ")
+            .append(dependency.fromClass())
+            .append('.')
+            .append(dependency.fromMethod().prettyWithoutReturnType());
+    if (dependency.fromLineNumber() != 0) {
+      sb.append(':').append(dependency.fromLineNumber());
+    }
+    return sb.append(": ").append(conflict.reason()).toString();
+  }
 }
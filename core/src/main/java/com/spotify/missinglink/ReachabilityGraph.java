@@ -0,0 +1,204 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import com.spotify.missinglink.datamodel.AccessedField;
+import com.spotify.missinglink.datamodel.CalledMethod;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import com.spotify.missinglink.datamodel.TypeDescriptor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The graph of references between classes, used to find the classes reachable from a set of root
+ * classes.
+ *
+ * <p>Every class gets an int id when it is first referenced, and its outgoing edges (parents,
+ * loaded classes, and owners of called methods and accessed fields) are computed once, as an array
+ * of ids, when it is first visited. The search itself is a breadth-first traversal over ids with a
+ * {@link BitSet} of visited classes, so each class is enqueued at most once. Classes are only
+ * looked up in the known classes once they are reached, which keeps lazily loaded artifacts from
+ * being parsed unnecessarily.
+ */
+final class ReachabilityGraph {
+
+  private static final int[] NO_EDGES = new int[0];
+
+  private final Map<ClassTypeDescriptor, DeclaredClass> knownClasses;
+  private final Map<ClassTypeDescriptor, Integer> ids = new HashMap<>();
+  // indexed by id; the edges are null until they have been computed
+  private final List<ClassTypeDescriptor> names = new ArrayList<>();
+  private final List<DeclaredClass> classes = new ArrayList<>();
+  private final List<int[]> edges = new ArrayList<>();
+
+  ReachabilityGraph(Map<ClassTypeDescriptor, DeclaredClass> knownClasses) {
+    this.knownClasses = knownClasses;
+  }
+
+  /**
+   * Returns the names of the roots and of all known classes reachable from them. A root takes
+   * precedence over a known class with the same name.
+   */
+  Set<TypeDescriptor> reachableFrom(Collection<DeclaredClass> roots) {
+    final BitSet visited = new BitSet();
+    int[] queue = new int[Math.max(16, roots.size())];
+    int head = 0;
+    int tail = 0;
+
+    for (DeclaredClass root : roots) {
+      final int id = add(root.className(), root);
+      if (!visited.get(id)) {
+        visited.set(id);
+        queue = ensureCapacity(queue, tail);
+        queue[tail++] = id;
+      }
+    }
+
+    while (head < tail) {
+      for (int next : edges(queue[head++])) {
+        if (!visited.get(next)) {
+          visited.set(next);
+          queue = ensureCapacity(queue, tail);
+          queue[tail++] = next;
+        }
+      }
+    }
+
+    final Set<TypeDescriptor> reachable = new HashSet<>(tail * 2);
+    for (int i = 0; i < tail; i++) {
+      reachable.add(names.get(queue[i]));
+    }
+    return reachable;
+  }
+
+  private static int[] ensureCapacity(int[] queue, int size) {
+    return size < queue.length ? queue : Arrays.copyOf(queue, queue.length * 2);
+  }
+
+  private int add(ClassTypeDescriptor name, DeclaredClass declaredClass) {
+    final Integer existing = ids.get(name);
+    if (existing != null) {
+      return existing;
+    }
+    final int id = names.size();
+    ids.put(name, id);
+    names.add(name);
+    classes.add(declaredClass);
+    edges.add(null);
+    return id;
+  }
+
+  /** The id of a known class, or -1 if there is no such class. */
+  private int id(ClassTypeDescriptor name) {
+    final Integer existing = ids.get(name);
+    if (existing != null) {
+      return existing;
+    }
+    final DeclaredClass declaredClass = knownClasses.get(name);
+    if (declaredClass == null) {
+      return -1;
+    }
+    return add(name, declaredClass);
+  }
+
+  private int[] edges(int id) {
+    int[] result = edges.get(id);
+    if (result == null) {
+      result = computeEdges(classes.get(id));
+      edges.set(id, result);
+    }
+    return result;
+  }
+
+  private int[] computeEdges(DeclaredClass declaredClass) {
+    final IntList targets = new IntList();
+    for (ClassTypeDescriptor parent : declaredClass.parents()) {
+      targets.add(id(parent));
+    }
+    for (ClassTypeDescriptor loaded : declaredClass.loadedClasses()) {
+      targets.add(id(loaded));
+    }
+    for (DeclaredMethod method : declaredClass.methods().values()) {
+      for (CalledMethod call : method.methodCalls()) {
+        targets.add(id(call.owner()));
+      }
+      for (AccessedField access : method.fieldAccesses()) {
+        targets.add(id(access.owner()));
+      }
+    }
+    return targets.toDistinctArray();
+  }
+
+  /** A growable list of non-negative ints; negative values are ignored. */
+  private static final class IntList {
+
+    private int[] values = new int[16];
+    private int size = 0;
+
+    void add(int value) {
+      if (value < 0) {
+        return;
+      }
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toDistinctArray() {
+      if (size == 0) {
+        return NO_EDGES;
+      }
+      Arrays.sort(values, 0, size);
+      int distinct = 1;
+      for (int i = 1; i < size; i++) {
+        if (values[i] != values[distinct - 1]) {
+          values[distinct++] = values[i];
+        }
+      }
+      return Arrays.copyOf(values, distinct);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import java.util.Locale;
+
+/**
+ * How often the member lookups of a check run were answered from the resolution cache (hits) rather
+ * than by walking the class hierarchy (misses). Lookups of the parents of a class while walking the
+ * hierarchy are counted as well.
+ */
+public final class ResolutionStatistics {
+
+  private final long methodHits;
+  private final long methodMisses;
+  private final long fieldHits;
+  private final long fieldMisses;
+
+  public ResolutionStatistics(
+      long methodHits, long methodMisses, long fieldHits, long fieldMisses) {
+    this.methodHits = methodHits;
+    this.methodMisses = methodMisses;
+    this.fieldHits = fieldHits;
+    this.fieldMisses = fieldMisses;
+  }
+
+  public long methodHits() {
+    return methodHits;
+  }
+
+  public long methodMisses() {
+    return methodMisses;
+  }
+
+  public long fieldHits() {
+    return fieldHits;
+  }
+
+  public long fieldMisses() {
+    return fieldMisses;
+  }
+
+  /** @return the fraction of all lookups that were cache hits, or 0 if there were none */
+  public double hitRate() {
+    final long hits = methodHits + fieldHits;
+    final long lookups = hits + methodMisses + fieldMisses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        Locale.ROOT,
+        "methods: %d hits, %d misses; fields: %d hits, %d misses; hit rate %.1f%%",
+        methodHits,
+        methodMisses,
+        fieldHits,
+        fieldMisses,
+        hitRate() * 100);
+  }
+}
@@ -47,6 +47,14 @@ public class ArrayTypeDescriptor implements TypeDescriptor {
     this.subType = Objects.requireNonNull(subType);
   }
 
+  TypeDescriptor subType() {
+    return subType;
+  }
+
+  int dimensions() {
+    return dimensions;
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
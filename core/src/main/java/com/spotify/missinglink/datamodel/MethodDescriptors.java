@@ -39,9 +39,6 @@ import static java.util.stream.Collectors.toList;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 import org.objectweb.asm.Type;
 
 public final class MethodDescriptors {
@@ -49,12 +46,20 @@ public final class MethodDescriptors {
   private MethodDescriptors() {}
 
   public static MethodDescriptor fromDesc(String desc, String name) {
-    final MethodKey key = new MethodKey(name, desc);
-    return methodDescriptorCache.computeIfAbsent(key, MethodDescriptors::newDescriptor);
+    return SymbolTable.current().method(name, desc);
   }
 
-  private static MethodDescriptor newDescriptor(MethodKey key) {
-    Type type = Type.getMethodType(key.desc);
+  /** The inverse of {@link #fromDesc(String, String)}, e.g. "(I[J)V" for void foo(int, long[]). */
+  public static String toDesc(MethodDescriptor descriptor) {
+    final StringBuilder sb = new StringBuilder("(");
+    for (TypeDescriptor parameterType : descriptor.parameterTypes()) {
+      sb.append(TypeDescriptors.toRaw(parameterType));
+    }
+    return sb.append(')').append(TypeDescriptors.toRaw(descriptor.returnType())).toString();
+  }
+
+  static MethodDescriptor newDescriptor(String name, String desc) {
+    Type type = Type.getMethodType(desc);
 
     List<TypeDescriptor> params =
         Arrays.stream(type.getArgumentTypes())
@@ -64,45 +69,8 @@ public final class MethodDescriptors {
 
     return new MethodDescriptorBuilder()
         .returnType(TypeDescriptors.fromRaw(type.getReturnType().getDescriptor()))
-        .name(key.name)
+        .name(name)
         .parameterTypes(params)
         .build();
   }
-
-  private static final Map<MethodKey, MethodDescriptor> methodDescriptorCache =
-      new ConcurrentHashMap<>();
-
-  private static class MethodKey {
-    private final String name;
-    private final String desc;
-
-    MethodKey(String name, String desc) {
-      this.name = Objects.requireNonNull(name);
-      this.desc = Objects.requireNonNull(desc);
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-
-      MethodKey key = (MethodKey) o;
-
-      if (!name.equals(key.name)) {
-        return false;
-      }
-      return desc.equals(key.desc);
-    }
-
-    @Override
-    public int hashCode() {
-      int result = name.hashCode();
-      result = 31 * result + desc.hashCode();
-      return result;
-    }
-  }
 }
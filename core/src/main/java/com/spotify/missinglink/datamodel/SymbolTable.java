@@ -0,0 +1,130 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.datamodel;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The canonical instances of the class types, method descriptors and member names seen while
+ * loading classes, so that every occurrence of a symbol shares one instance. {@link
+ * TypeDescriptors} and {@link MethodDescriptors} create their descriptors through the {@link
+ * #current()} table.
+ *
+ * <p>A table only grows, so a JVM that runs many checks, like a Maven daemon, should {@link
+ * #reset()} it after each check; otherwise every symbol of every check it ran stays reachable.
+ * Resetting while another check is loading classes is safe: descriptors from different tables are
+ * still equal when their contents are, they are only not the same instance.
+ */
+public final class SymbolTable {
+
+  private static volatile SymbolTable current = new SymbolTable();
+
+  private final Map<String, ClassTypeDescriptor> classTypes = new ConcurrentHashMap<>();
+  private final Map<MethodKey, MethodDescriptor> methods = new ConcurrentHashMap<>();
+  private final Map<String, String> names = new ConcurrentHashMap<>();
+
+  /** The table that descriptors are currently created in. */
+  public static SymbolTable current() {
+    return current;
+  }
+
+  /** Replaces the current table with an empty one, releasing the symbols of the old one. */
+  public static void reset() {
+    current = new SymbolTable();
+  }
+
+  ClassTypeDescriptor classType(String className) {
+    // computeIfAbsent, so that the name is only converted once per class and table
+    return classTypes.computeIfAbsent(className, ClassTypeDescriptor::new);
+  }
+
+  MethodDescriptor method(String name, String desc) {
+    return methods.computeIfAbsent(
+        new MethodKey(name, desc), key -> MethodDescriptors.newDescriptor(key.name, key.desc));
+  }
+
+  /** The canonical instance of a member name, like the name of a field. */
+  public String name(String name) {
+    final String existing = names.putIfAbsent(name, name);
+    return existing == null ? name : existing;
+  }
+
+  /** The number of distinct class types in this table. */
+  public int classTypeCount() {
+    return classTypes.size();
+  }
+
+  /** The number of distinct method descriptors in this table. */
+  public int methodCount() {
+    return methods.size();
+  }
+
+  private static final class MethodKey {
+    private final String name;
+    private final String desc;
+
+    MethodKey(String name, String desc) {
+      this.name = Objects.requireNonNull(name);
+      this.desc = Objects.requireNonNull(desc);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      MethodKey key = (MethodKey) o;
+
+      if (!name.equals(key.name)) {
+        return false;
+      }
+      return desc.equals(key.desc);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = name.hashCode();
+      result = 31 * result + desc.hashCode();
+      return result;
+    }
+  }
+}
@@ -36,23 +36,16 @@
 package com.spotify.missinglink.datamodel;
 
 import java.util.InputMismatchException;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class TypeDescriptors {
 
   private TypeDescriptors() {}
 
-  // Keep a cache of all the created ClassTypeDescriptor instances to prevent unnecessary
-  // duplication of instances. ClassTypeDescriptor is immutable once constructed.
-  // Since the CTD constructor involves string replacement, and there are several places where we
-  // want to turn a String into a ClassTypeDescriptor, we can optimize how many strings are
-  // created/replaced with this map.
-  private static Map<String, ClassTypeDescriptor> classTypeDescriptorCache =
-      new ConcurrentHashMap<>();
-
+  // The instances are shared through the current SymbolTable, to prevent unnecessary duplication
+  // of instances. ClassTypeDescriptor is immutable once constructed, and since its constructor
+  // involves string replacement this also limits how many strings are created/replaced.
   public static ClassTypeDescriptor fromClassName(String className) {
-    return classTypeDescriptorCache.computeIfAbsent(className, ClassTypeDescriptor::new);
+    return SymbolTable.current().classType(className);
   }
 
   public static TypeDescriptor fromRaw(String raw) {
@@ -79,4 +72,26 @@ public class TypeDescriptors {
     }
     return simpleType;
   }
+
+  /** The inverse of {@link #fromRaw(String)}, e.g. "[Ljava/lang/String;" for String[]. */
+  public static String toRaw(TypeDescriptor descriptor) {
+    if (descriptor instanceof ClassTypeDescriptor) {
+      return "L" + ((ClassTypeDescriptor) descriptor).getClassName().replace('.', '/') + ";";
+    }
+    if (descriptor instanceof PrimitiveTypeDescriptor) {
+      return ((PrimitiveTypeDescriptor) descriptor).getRaw();
+    }
+    if (descriptor instanceof VoidTypeDescriptor) {
+      return "V";
+    }
+    if (descriptor instanceof ArrayTypeDescriptor) {
+      final ArrayTypeDescriptor array = (ArrayTypeDescriptor) descriptor;
+      final StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < array.dimensions(); i++) {
+        sb.append('[');
+      }
+      return sb.append(toRaw(array.subType())).toString();
+    }
+    throw new IllegalArgumentException("Unknown type descriptor: " + descriptor);
+  }
 }
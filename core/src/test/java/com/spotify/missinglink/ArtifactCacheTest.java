@@ -0,0 +1,132 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.datamodel.Artifact;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArtifactCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File jar;
+  private ArtifactCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    jar = new File(folder.getRoot(), "asm.jar");
+    Files.copy(FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar").toPath(), jar.toPath());
+    cache = new ArtifactCache(new File(folder.getRoot(), "cache"));
+  }
+
+  @Test
+  public void testCachedArtifactIsIdentical() throws IOException {
+    final Artifact uncached = new ArtifactLoader().load(jar);
+
+    final ArtifactLoader loader = new ArtifactLoader(cache);
+    final Artifact first = loader.load(jar);
+    assertThat(cache.get(jar)).isEqualTo(uncached.classes());
+
+    final Artifact second = loader.load(jar);
+    assertThat(second).isEqualTo(first).isEqualTo(uncached);
+  }
+
+  @Test
+  public void testMissingEntry() {
+    assertThat(cache.get(jar)).isNull();
+  }
+
+  @Test
+  public void testChangedJarIsNotReused() throws IOException {
+    new ArtifactLoader(cache).load(jar);
+
+    assertThat(jar.setLastModified(jar.lastModified() - 60_000)).isTrue();
+
+    assertThat(cache.get(jar)).isNull();
+  }
+
+  @Test
+  public void testCorruptEntryIsIgnored() throws IOException {
+    new ArtifactLoader(cache).load(jar);
+
+    final File[] entries = cache.directory().listFiles();
+    assertThat(entries).hasSize(1);
+    final byte[] bytes = Files.readAllBytes(entries[0].toPath());
+    Files.write(entries[0].toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+    assertThat(cache.get(jar)).isNull();
+    // and loading still works, replacing the broken entry
+    assertThat(new ArtifactLoader(cache).load(jar).classes()).hasSize(25);
+    assertThat(cache.get(jar)).isNotNull();
+  }
+
+  @Test
+  public void testEntryOfAnotherFormatVersionIsIgnored() throws IOException {
+    new ArtifactLoader(cache).load(jar);
+
+    final File[] entries = cache.directory().listFiles();
+    assertThat(entries).hasSize(1);
+    final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(entries[0].toPath()));
+    // the version follows the magic number
+    assertThat(bytes.getInt(4)).isEqualTo(ArtifactCache.FORMAT_VERSION);
+    bytes.putInt(4, ArtifactCache.FORMAT_VERSION - 1);
+    Files.write(entries[0].toPath(), bytes.array());
+
+    assertThat(cache.get(jar)).isNull();
+  }
+
+  @Test
+  public void testKeyedEntryIsValidatedAgainstSource() throws IOException {
+    final Artifact artifact = new ArtifactLoader().load(jar);
+    cache.put("some-key", jar, artifact.classes());
+
+    assertThat(cache.get("some-key", jar)).isEqualTo(artifact.classes());
+    assertThat(cache.get("other-key", jar)).isNull();
+
+    assertThat(jar.setLastModified(jar.lastModified() - 60_000)).isTrue();
+    assertThat(cache.get("some-key", jar)).isNull();
+  }
+}
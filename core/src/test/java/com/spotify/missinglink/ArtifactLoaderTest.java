@@ -42,6 +42,8 @@ import static org.junit.Assert.assertTrue;
 
 import com.spotify.missinglink.datamodel.AccessedField;
 import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ArtifactBuilder;
+import com.spotify.missinglink.datamodel.ArtifactName;
 import com.spotify.missinglink.datamodel.CalledMethod;
 import com.spotify.missinglink.datamodel.CalledMethodBuilder;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
@@ -60,6 +62,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import org.junit.Assume;
 import org.junit.Before;
@@ -249,6 +252,59 @@ public class ArtifactLoaderTest {
     }
   }
 
+  @Test
+  public void testParallelLoadingGivesSameResult() throws Exception {
+    final Artifact sequential = loadAsmJar();
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final Artifact parallel = pool.submit(this::loadAsmJar).get();
+      assertThat(parallel).isEqualTo(sequential);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testLazyLoadingGivesSameResult() throws Exception {
+    try (ArtifactLoader lazyLoader = new ArtifactLoader(null, true)) {
+      final Artifact lazy =
+          lazyLoader.load(FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar"));
+      assertThat(((LazyArtifact) lazy).loadedClassCount()).isZero();
+
+      final Artifact eager = loadAsmJar();
+      assertThat(lazy.name()).isEqualTo(eager.name());
+      assertThat(lazy.classes()).isEqualTo(eager.classes());
+      assertThat(((LazyArtifact) lazy).loadedClassCount()).isEqualTo(25);
+    }
+  }
+
+  @Test
+  public void testLazyLoadingOnlyParsesReachableClasses() throws Exception {
+    final Artifact eager = loadAsmJar();
+    final DeclaredClass type =
+        eager.classes().get(TypeDescriptors.fromClassName("org/objectweb/asm/Type"));
+    final Artifact project =
+        new ArtifactBuilder()
+            .name(new ArtifactName("project"))
+            .classes(Collections.singletonMap(type.className(), type))
+            .build();
+
+    try (ArtifactLoader lazyLoader = new ArtifactLoader(null, true)) {
+      final Artifact lazy =
+          lazyLoader.load(FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar"));
+      final ConflictChecker checker = new ConflictChecker();
+
+      assertThat(
+              checker.check(
+                  project, Collections.singletonList(lazy), Collections.singletonList(lazy)))
+          .isEqualTo(
+              checker.check(
+                  project, Collections.singletonList(eager), Collections.singletonList(eager)));
+      assertThat(((LazyArtifact) lazy).loadedClassCount()).isBetween(1, 24);
+    }
+  }
+
   private Artifact loadAsmJar() throws IOException {
     return loader.load(FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar"));
   }
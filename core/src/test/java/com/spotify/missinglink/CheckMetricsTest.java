@@ -0,0 +1,94 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class CheckMetricsTest {
+
+  private final CheckMetrics metrics = new CheckMetrics();
+
+  @Test
+  public void shouldAddUpPhasesAndCounters() {
+    metrics.phaseFinished(CheckPhase.LOAD, TimeUnit.MILLISECONDS.toNanos(300));
+    metrics.phaseFinished(CheckPhase.LOAD, TimeUnit.MILLISECONDS.toNanos(200));
+    metrics.classParsed(1000);
+    metrics.classParsed(500);
+    metrics.artifactCacheLookup(true);
+    metrics.artifactCacheLookup(false);
+    metrics.artifactCacheLookup(true);
+    metrics.classChecked(10, 3);
+    metrics.resolutionFinished(new ResolutionStatistics(7, 2, 1, 4));
+
+    assertThat(metrics.phaseMillis(CheckPhase.LOAD)).isEqualTo(500);
+    assertThat(metrics.phaseMillis(CheckPhase.CHECK)).isEqualTo(0);
+    assertThat(metrics.counters())
+        .containsEntry("classesParsed", 2L)
+        .containsEntry("uncompressedBytesParsed", 1500L)
+        .containsEntry("artifactCacheHits", 2L)
+        .containsEntry("artifactCacheMisses", 1L)
+        .containsEntry("classesChecked", 1L)
+        .containsEntry("callSitesChecked", 10L)
+        .containsEntry("fieldAccessesChecked", 3L)
+        .containsEntry("resolutionCacheHits", 8L)
+        .containsEntry("hierarchyLookups", 6L);
+  }
+
+  @Test
+  public void shouldPrintEveryPhaseAndCounter() {
+    metrics.phaseFinished(CheckPhase.REACHABILITY, TimeUnit.MILLISECONDS.toNanos(42));
+
+    assertThat(metrics.summary())
+        .hasSize(CheckPhase.values().length + 1 + metrics.counters().size())
+        .anyMatch(line -> line.matches("reachability +42 ms"))
+        .anyMatch(line -> line.matches("total +42 ms"));
+  }
+
+  @Test
+  public void shouldWriteJson() {
+    metrics.phaseFinished(CheckPhase.CHECK, TimeUnit.MILLISECONDS.toNanos(12));
+    metrics.classParsed(100);
+
+    assertThat(metrics.toJson())
+        .startsWith("{\n  \"phases\": {\n    \"load\": 0,")
+        .contains("\"check\": 12\n  },")
+        .contains("\"classesParsed\": 1,")
+        .endsWith("\"hierarchyLookups\": 0\n  }\n}\n");
+  }
+}
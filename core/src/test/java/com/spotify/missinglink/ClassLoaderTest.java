@@ -38,12 +38,17 @@ package com.spotify.missinglink;
 import static com.spotify.missinglink.ClassLoadingUtil.findClass;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.spotify.missinglink.datamodel.CalledMethod;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
 import com.spotify.missinglink.datamodel.DeclaredClass;
 import com.spotify.missinglink.datamodel.TypeDescriptors;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -108,6 +113,75 @@ public class ClassLoaderTest {
     }
   }
 
+  @Test
+  public void shouldOnlyLoadDeclarations() throws Exception {
+    final DeclaredClass full;
+    try (FileInputStream inputStream = findClass(LdcLoadArrayOfType.class)) {
+      full = ClassLoader.load(inputStream);
+    }
+    try (FileInputStream inputStream = findClass(LdcLoadArrayOfType.class)) {
+      DeclaredClass loaded = ClassLoader.loadDeclarations(inputStream);
+
+      assertThat(loaded.className()).isEqualTo(full.className());
+      assertThat(loaded.parents()).isEqualTo(full.parents());
+      assertThat(loaded.fields()).isEqualTo(full.fields());
+      assertThat(loaded.methods().keySet()).isEqualTo(full.methods().keySet());
+      assertThat(loaded.loadedClasses()).isEmpty();
+      loaded
+          .methods()
+          .values()
+          .forEach(
+              method -> {
+                assertThat(method.methodCalls()).isEmpty();
+                assertThat(method.fieldAccesses()).isEmpty();
+              });
+    }
+  }
+
+  @Test
+  public void shouldResolveProtectingTryCatchBlocks() throws Exception {
+    try (FileInputStream inputStream = findClass(NestedTryCatch.class)) {
+      DeclaredClass loaded = ClassLoader.load(inputStream);
+
+      final Map<String, List<ClassTypeDescriptor>> caught =
+          loaded.methods().values().stream()
+              .flatMap(method -> method.methodCalls().stream())
+              .collect(
+                  Collectors.toMap(
+                      call -> call.descriptor().name(), CalledMethod::caughtExceptions));
+
+      assertThat(caught.get("inner"))
+          .containsExactly(
+              TypeDescriptors.fromClassName("java/lang/IllegalStateException"),
+              TypeDescriptors.fromClassName("java/lang/RuntimeException"));
+      assertThat(caught.get("outer"))
+          .containsExactly(TypeDescriptors.fromClassName("java/lang/RuntimeException"));
+      assertThat(caught.get("after")).isEmpty();
+    }
+  }
+
+  static class NestedTryCatch {
+    static void test() {
+      try {
+        try {
+          inner();
+        } catch (IllegalStateException e) {
+          // ignored
+        }
+        outer();
+      } catch (RuntimeException e) {
+        // ignored
+      }
+      after();
+    }
+
+    static void inner() {}
+
+    static void outer() {}
+
+    static void after() {}
+  }
+
   static class LdcLoadType {
     static void test() {
       System.out.println(FileInputStream.class.toString());
@@ -0,0 +1,138 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+
+public class CompactCollectionsTest {
+
+  private static final int[] SIZES = {0, 1, 2, 8, 9, 16, 17, 1000};
+
+  @Test
+  public void testSetsAreEqualToHashSets() {
+    for (int size : SIZES) {
+      final Set<String> expected = new HashSet<>();
+      for (int i = 0; i < size; i++) {
+        expected.add("element" + i);
+      }
+      final Set<String> compact = CompactCollections.set(expected);
+
+      assertThat(compact).isEqualTo(expected).hasSameHashCodeAs(expected).hasSize(size);
+      assertThat(expected).isEqualTo(compact);
+      assertThat(compact).containsExactlyInAnyOrderElementsOf(expected);
+      for (String element : expected) {
+        assertThat(compact.contains(new String(element))).isTrue();
+      }
+      assertThat(compact.contains("missing")).isFalse();
+      assertThat(compact.contains(null)).isFalse();
+    }
+  }
+
+  @Test
+  public void testMapsAreEqualToHashMaps() {
+    for (int size : SIZES) {
+      final Map<String, Integer> expected = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+        expected.put("key" + i, i);
+      }
+      final Map<String, Integer> compact = CompactCollections.map(expected);
+
+      assertThat(compact).isEqualTo(expected).hasSameHashCodeAs(expected).hasSize(size);
+      assertThat(expected).isEqualTo(compact);
+      assertThat(new ArrayList<>(compact.values()))
+          .containsExactlyInAnyOrderElementsOf(expected.values());
+      for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+        assertThat(compact.get(new String(entry.getKey()))).isEqualTo(entry.getValue());
+        assertThat(compact.containsKey(entry.getKey())).isTrue();
+      }
+      assertThat(compact.get("missing")).isNull();
+      assertThat(compact.containsKey(null)).isFalse();
+    }
+  }
+
+  @Test
+  public void testListsAreEqualToArrayLists() {
+    for (int size : SIZES) {
+      final List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        expected.add(i);
+      }
+      assertThat(CompactCollections.list(expected))
+          .isEqualTo(expected)
+          .hasSameHashCodeAs(expected)
+          .containsExactlyElementsOf(expected);
+    }
+  }
+
+  @Test
+  public void testCollidingHashCodes() {
+    // "Aa" and "BB" have the same hash code
+    final Set<String> expected = new HashSet<>();
+    for (int i = 0; i < 20; i++) {
+      expected.add("Aa" + i);
+      expected.add("BB" + i);
+    }
+    expected.addAll(Arrays.asList("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"));
+    final Set<String> compact = CompactCollections.set(expected);
+
+    assertThat(compact).isEqualTo(expected);
+    for (String element : expected) {
+      assertThat(compact).contains(element);
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSetsAreImmutable() {
+    CompactCollections.set(new HashSet<>(Arrays.asList("a", "b", "c"))).remove("a");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testMapsAreImmutable() {
+    final Map<String, String> map = new HashMap<>();
+    map.put("a", "b");
+    map.put("c", "d");
+    CompactCollections.map(map).put("e", "f");
+  }
+}
@@ -37,19 +37,30 @@ package com.spotify.missinglink;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.spotify.missinglink.Conflict.ConflictCategory;
 import com.spotify.missinglink.datamodel.Artifact;
 import com.spotify.missinglink.datamodel.ArtifactBuilder;
 import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.CalledMethod;
 import com.spotify.missinglink.datamodel.CalledMethodBuilder;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
 import com.spotify.missinglink.datamodel.DeclaredClassBuilder;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
 import com.spotify.missinglink.datamodel.DeclaredMethodBuilder;
 import com.spotify.missinglink.datamodel.MethodDescriptor;
 import com.spotify.missinglink.datamodel.MethodDescriptorBuilder;
 import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -162,4 +173,254 @@ public class ConflictCheckerTest {
 
     assertThat(checker.check(projectArtifact, artifacts, artifacts)).isEmpty();
   }
+
+  @Test
+  public void shouldReportResolutionStatistics() throws Exception {
+    List<Artifact> artifacts = Arrays.asList(projectArtifact, rt);
+    List<ResolutionStatistics> reported = new ArrayList<>();
+
+    ConflictChecker checker = new ConflictChecker().withResolutionStatistics(reported::add);
+
+    assertThat(checker.check(projectArtifact, artifacts, artifacts)).isEmpty();
+    assertThat(reported).hasSize(1);
+    assertThat(reported.get(0).methodMisses()).isEqualTo(1);
+    assertThat(reported.get(0).methodHits()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldReportPhasesAndCountersToTheListener() throws Exception {
+    List<Artifact> artifacts = Arrays.asList(projectArtifact, rt);
+    CheckMetrics metrics = new CheckMetrics();
+
+    ConflictChecker checker = new ConflictChecker().withListener(metrics);
+
+    assertThat(checker.check(projectArtifact, artifacts, artifacts)).isEmpty();
+    // the project class and the Object it calls, which is checked too since rt is
+    assertThat(metrics.counters())
+        .containsEntry("classesChecked", 2L)
+        .containsEntry("callSitesChecked", 1L)
+        .containsEntry("fieldAccessesChecked", 0L)
+        .containsEntry("hierarchyLookups", 1L);
+  }
+
+  @Test
+  public void shouldReportTheSameConflictsWhenCheckingInParallel() throws Exception {
+    final List<Artifact> artifacts = manyBrokenClasses();
+    final Artifact project = artifacts.get(0);
+
+    final List<Conflict> sequential = new ConflictChecker().check(project, artifacts, artifacts);
+    final List<Conflict> parallel =
+        new ConflictChecker().withParallelChecking(true).check(project, artifacts, artifacts);
+
+    assertThat(sequential).hasSize(1000);
+    assertThat(parallel).isEqualTo(sequential);
+  }
+
+  @Test
+  public void shouldStopCheckingOnceTheSinkHasEnoughConflicts() throws Exception {
+    final List<Artifact> artifacts = manyBrokenClasses();
+    final Artifact project = artifacts.get(0);
+    final List<Conflict> all = new ConflictChecker().check(project, artifacts, artifacts);
+    final List<Conflict> classesNotFound =
+        all.stream()
+            .filter(c -> c.category() == ConflictCategory.CLASS_NOT_FOUND)
+            .collect(Collectors.toList());
+
+    for (boolean parallel : new boolean[] {false, true}) {
+      final List<Conflict> received = new ArrayList<>();
+      final AtomicLong lookups = new AtomicLong();
+      new ConflictChecker()
+          .withParallelChecking(parallel)
+          .withResolutionStatistics(
+              statistics -> lookups.set(statistics.methodHits() + statistics.methodMisses()))
+          .check(
+              project,
+              artifacts,
+              artifacts,
+              ((ConflictSink) received::add)
+                  .limit(10)
+                  .filter(c -> c.category() == ConflictCategory.CLASS_NOT_FOUND));
+
+      assertThat(received).isEqualTo(classesNotFound.subList(0, 10));
+      if (!parallel) {
+        // the 500 calls of the project, then only the first 10 library classes
+        assertThat(lookups.get()).isEqualTo(510);
+      }
+    }
+  }
+
+  @Test
+  public void shouldOnlyLookForTheConflictsThatPassTheFilters() throws Exception {
+    final List<Artifact> artifacts = manyBrokenClasses();
+    final Artifact project = artifacts.get(0);
+    final List<Conflict> all = new ConflictChecker().check(project, artifacts, artifacts);
+    final Predicate<ClassTypeDescriptor> source =
+        className -> className.getClassName().startsWith("org.library.Class1");
+    final Predicate<ClassTypeDescriptor> destination =
+        className -> !className.getClassName().startsWith("org.library.Missing");
+    final AtomicLong lookups = new AtomicLong();
+
+    assertThat(
+            new ConflictChecker()
+                .withCategories(EnumSet.of(ConflictCategory.CLASS_NOT_FOUND))
+                .withResolutionStatistics(
+                    statistics -> lookups.set(statistics.methodHits() + statistics.methodMisses()))
+                .check(project, artifacts, artifacts))
+        .hasSize(500)
+        .isEqualTo(
+            all.stream()
+                .filter(c -> c.category() == ConflictCategory.CLASS_NOT_FOUND)
+                .collect(Collectors.toList()));
+    assertThat(lookups.get()).isZero();
+
+    assertThat(new ConflictChecker().withSourceFilter(source).check(project, artifacts, artifacts))
+        .hasSize(222)
+        .isEqualTo(
+            all.stream()
+                .filter(c -> source.test(c.dependency().fromClass()))
+                .collect(Collectors.toList()));
+
+    assertThat(
+            new ConflictChecker()
+                .withDestinationFilter(destination)
+                .check(project, artifacts, artifacts))
+        .hasSize(500)
+        .isEqualTo(
+            all.stream()
+                .filter(c -> destination.test(c.dependency().targetClass()))
+                .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void shouldPassOnTheConflictsLeftOutByTheFilters() throws Exception {
+    final List<Artifact> artifacts = manyBrokenClasses();
+    final Artifact project = artifacts.get(0);
+    final List<Conflict> all = new ConflictChecker().check(project, artifacts, artifacts);
+    final Predicate<ClassTypeDescriptor> source =
+        className -> className.getClassName().startsWith("org.library.Class1");
+    final List<Conflict> filtered = new ArrayList<>();
+
+    final List<Conflict> kept =
+        new ConflictChecker()
+            .withCategories(EnumSet.of(ConflictCategory.CLASS_NOT_FOUND))
+            .withSourceFilter(source)
+            .withFilteredConflicts(filtered::add)
+            .check(project, artifacts, artifacts);
+
+    assertThat(kept)
+        .hasSize(111)
+        .isEqualTo(
+            all.stream()
+                .filter(c -> c.category() == ConflictCategory.CLASS_NOT_FOUND)
+                .filter(c -> source.test(c.dependency().fromClass()))
+                .collect(Collectors.toList()));
+    assertThat(filtered)
+        .isEqualTo(all.stream().filter(c -> !kept.contains(c)).collect(Collectors.toList()));
+  }
+
+  /**
+   * A project calling 500 library classes, each with one call to a missing class and one call to a
+   * missing method of Object.
+   */
+  private List<Artifact> manyBrokenClasses() {
+    final DeclaredMethod missing = Simple.newMethod(false, Simple.VOID, "missing").build();
+    final List<DeclaredClass> libraryClasses = new ArrayList<>();
+    final Set<CalledMethod> entryPoints = new HashSet<>();
+    for (int i = 0; i < 500; i++) {
+      final DeclaredMethod method =
+          Simple.newMethod(false, Simple.VOID, "method" + i)
+              .methodCalls(
+                  new HashSet<>(
+                      Arrays.asList(
+                          Simple.newCall(
+                              TypeDescriptors.fromClassName("java/lang/Object"), missing, false),
+                          Simple.newCall(
+                              TypeDescriptors.fromClassName("org/library/Missing" + i),
+                              missing,
+                              false))))
+              .build();
+      final DeclaredClass clazz =
+          Simple.newClass("org/library/Class" + i)
+              .parents(Collections.singleton(TypeDescriptors.fromClassName("java/lang/Object")))
+              .methods(Simple.methodMap(method))
+              .build();
+      libraryClasses.add(clazz);
+      entryPoints.add(Simple.newCall(clazz.className(), method, false));
+    }
+    final Artifact library =
+        Simple.newArtifact("lib", libraryClasses.toArray(new DeclaredClass[0]));
+    final Artifact project =
+        Simple.newArtifact(
+            "project",
+            Simple.newClass("com/spotify/Main")
+                .methods(
+                    Simple.methodMap(
+                        Simple.newMethod(false, Simple.VOID, "main")
+                            .methodCalls(entryPoints)
+                            .build()))
+                .build());
+    return Arrays.asList(project, library, rt);
+  }
+
+  @Test
+  public void shouldOnlyRecheckMethodsWithConflictsIncrementally() throws Exception {
+    final Artifact project = projectCallingTheLibrary();
+    final List<Artifact> artifacts = Arrays.asList(projectArtifact, libraryArtifact, rt);
+    final IncrementalState state = IncrementalState.empty();
+    state.dependencies("deps");
+    final ConflictChecker checker = new ConflictChecker().withIncrementalState(state);
+
+    final List<Conflict> expected = new ConflictChecker().check(project, artifacts, artifacts);
+    assertThat(expected).hasSize(1);
+
+    assertThat(checker.check(project, artifacts, artifacts)).isEqualTo(expected);
+    // only Object.clone is remembered as clean, the broken method is checked again
+    assertThat(state.cleanMethodCount()).isEqualTo(1);
+    assertThat(checker.check(project, artifacts, artifacts)).isEqualTo(expected);
+  }
+
+  @Test
+  public void shouldNotRememberMethodsAsCleanWhenConflictsAreFilteredOut() throws Exception {
+    final Artifact project = projectCallingTheLibrary();
+    final List<Artifact> artifacts = Arrays.asList(projectArtifact, libraryArtifact, rt);
+    final IncrementalState state = IncrementalState.empty();
+    state.dependencies("deps");
+
+    assertThat(
+            new ConflictChecker()
+                .withIncrementalState(state)
+                .withCategories(EnumSet.of(ConflictCategory.CLASS_NOT_FOUND))
+                .check(project, artifacts, artifacts))
+        .isEmpty();
+    assertThat(state.cleanMethodCount()).isZero();
+
+    // a later run without the filter must still find the conflict left out above
+    assertThat(
+            new ConflictChecker().withIncrementalState(state).check(project, artifacts, artifacts))
+        .hasSize(1)
+        .isEqualTo(new ConflictChecker().check(project, artifacts, artifacts));
+  }
+
+  /** A project calling the broken method of the library artifact. */
+  private static Artifact projectCallingTheLibrary() {
+    return Simple.newArtifact(
+        "project",
+        Simple.newClass("com/spotify/Main")
+            .methods(
+                Simple.methodMap(
+                    Simple.newMethod(false, Simple.VOID, "main")
+                        .methodCalls(
+                            Collections.singleton(
+                                new CalledMethodBuilder()
+                                    .owner(TypeDescriptors.fromClassName("org/library/ClassName"))
+                                    .descriptor(
+                                        new MethodDescriptorBuilder()
+                                            .name("broken")
+                                            .returnType(
+                                                TypeDescriptors.fromClassName("java/lang/Object"))
+                                            .build())
+                                    .build()))
+                        .build()))
+            .build());
+  }
 }
@@ -0,0 +1,165 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.DeployedClasspath.Layout;
+import com.spotify.missinglink.DeployedClasspath.Source;
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DeployedClasspathTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final File asmJar = FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar");
+  private final ArtifactLoader loader = new ArtifactLoader();
+
+  @Test
+  public void testSpringBootJarInClasspathIndexOrder() throws Exception {
+    final File jar = folder.newFile("boot.jar");
+    final byte[] asm = Files.readAllBytes(asmJar.toPath());
+    try (JarFile source = new JarFile(asmJar);
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+      final String type = "org/objectweb/asm/Type.class";
+      put(
+          out,
+          "BOOT-INF/classes/" + type,
+          ClassLoader.readFully(source.getInputStream(source.getEntry(type))));
+      put(out, "BOOT-INF/lib/a.jar", asm);
+      put(out, "BOOT-INF/lib/b.jar", asm);
+      put(
+          out,
+          "BOOT-INF/classpath.idx",
+          "- \"BOOT-INF/lib/b.jar\"\n- \"BOOT-INF/lib/a.jar\"\n".getBytes(UTF_8));
+    }
+
+    try (DeployedClasspath deployed = DeployedClasspath.open(jar)) {
+      assertThat(deployed.layout()).isEqualTo(Layout.SPRING_BOOT);
+      assertThat(names(deployed.libraries())).containsExactly("b.jar", "a.jar");
+      assertThat(deployed.application().load(loader, false).classes()).hasSize(1);
+
+      final Artifact library = deployed.libraries().get(0).load(loader, false);
+      assertThat(library.classes()).hasSameSizeAs(loader.load(asmJar).classes());
+    }
+  }
+
+  @Test
+  public void testShadedJarIsSplitByTheMainClassPackage() throws Exception {
+    final File jar = folder.newFile("shaded.jar");
+    final Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest
+        .getMainAttributes()
+        .put(Attributes.Name.MAIN_CLASS, "org.objectweb.asm.signature.SignatureReader");
+    try (JarFile source = new JarFile(asmJar);
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(jar), manifest)) {
+      for (JarEntry entry : Collections.list(source.entries())) {
+        if (entry.getName().endsWith(".class")) {
+          put(out, entry.getName(), ClassLoader.readFully(source.getInputStream(entry)));
+        }
+      }
+    }
+
+    try (DeployedClasspath deployed = DeployedClasspath.open(jar)) {
+      assertThat(deployed.layout()).isEqualTo(Layout.SHADED);
+      final Artifact application = deployed.application().load(loader, false);
+      final Artifact libraries = deployed.libraries().get(0).load(loader, false);
+      assertThat(application.classes()).isNotEmpty();
+      for (ClassTypeDescriptor type : application.classes().keySet()) {
+        assertThat(type.getClassName()).startsWith("org.objectweb.asm.signature.");
+      }
+      assertThat(application.classes().size() + libraries.classes().size())
+          .isEqualTo(loader.load(asmJar).classes().size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testShadedJarWithoutApplicationPackages() throws Exception {
+    final File jar = folder.newFile("shaded.jar");
+    Files.copy(asmJar.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    DeployedClasspath.open(jar);
+  }
+
+  @Test
+  public void testDirectoryOfJars() throws Exception {
+    final File directory = folder.newFolder("app");
+    Files.createDirectories(new File(directory, "classes").toPath());
+    Files.createDirectories(new File(directory, "lib").toPath());
+    Files.copy(asmJar.toPath(), new File(directory, "lib/b.jar").toPath());
+    Files.copy(asmJar.toPath(), new File(directory, "lib/a.jar").toPath());
+    Files.write(new File(directory, "lib/README").toPath(), new byte[0]);
+
+    try (DeployedClasspath deployed = DeployedClasspath.open(directory)) {
+      assertThat(deployed.layout()).isEqualTo(Layout.DIRECTORY);
+      assertThat(deployed.application().file()).isEqualTo(new File(directory, "classes"));
+      assertThat(names(deployed.libraries()))
+          .containsExactly("lib" + File.separator + "a.jar", "lib" + File.separator + "b.jar");
+    }
+  }
+
+  private static List<String> names(List<Source> sources) {
+    final List<String> names = new ArrayList<>();
+    for (Source source : sources) {
+      names.add(source.name().name());
+    }
+    return names;
+  }
+
+  private static void put(JarOutputStream out, String name, byte[] bytes) throws IOException {
+    out.putNextEntry(new JarEntry(name));
+    out.write(bytes);
+    out.closeEntry();
+  }
+}
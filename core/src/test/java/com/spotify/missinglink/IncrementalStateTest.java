@@ -0,0 +1,160 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static com.spotify.missinglink.Simple.VOID;
+import static com.spotify.missinglink.Simple.newMethod;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.MethodDescriptor;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalStateTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ClassTypeDescriptor className = TypeDescriptors.fromClassName("org/lib/Lib");
+  private final MethodDescriptor method = newMethod(false, VOID, "method").build().descriptor();
+
+  private File file;
+  private byte[] classBytes;
+
+  @Before
+  public void setUp() throws IOException {
+    file = new File(folder.getRoot(), "state.bin");
+    classBytes =
+        Files.readAllBytes(
+            FilePathHelper.getPath("target/test-classes/com/spotify/missinglink/Simple.class")
+                .toPath());
+  }
+
+  @Test
+  public void testUnchangedClassFileIsReused() throws IOException {
+    final IncrementalState first = IncrementalState.load(file);
+    final DeclaredClass parsed = first.loadClass("Simple.class", classBytes);
+    assertThat(first.reusedClassFiles()).isEqualTo(0);
+    first.save(file);
+
+    final IncrementalState second = IncrementalState.load(file);
+    assertThat(second.loadClass("Simple.class", classBytes)).isEqualTo(parsed);
+    assertThat(second.reusedClassFiles()).isEqualTo(1);
+  }
+
+  @Test
+  public void testChangedClassFileIsParsedAgain() throws IOException {
+    final IncrementalState first = IncrementalState.load(file);
+    first.loadClass("Simple.class", classBytes);
+    first.save(file);
+
+    final byte[] other =
+        Files.readAllBytes(
+            FilePathHelper.getPath(
+                    "target/test-classes/com/spotify/missinglink/IncrementalStateTest.class")
+                .toPath());
+    final IncrementalState second = IncrementalState.load(file);
+    assertThat(second.loadClass("Simple.class", other).className().getClassName())
+        .isEqualTo("com.spotify.missinglink.IncrementalStateTest");
+    assertThat(second.reusedClassFiles()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCleanMethodsAreKeptWhileDependenciesAreUnchanged() throws IOException {
+    final IncrementalState first = IncrementalState.load(file);
+    assertThat(first.dependencies("deps")).isFalse();
+    first.markClean(className, method);
+    first.save(file);
+
+    final IncrementalState second = IncrementalState.load(file);
+    assertThat(second.dependencies("deps")).isTrue();
+    assertThat(second.isClean(className, method)).isTrue();
+    assertThat(second.cleanMethodCount()).isEqualTo(1);
+    second.save(file);
+
+    final IncrementalState third = IncrementalState.load(file);
+    assertThat(third.dependencies("other deps")).isFalse();
+    assertThat(third.isClean(className, method)).isFalse();
+    assertThat(third.cleanMethodCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testCorruptFileIsIgnored() throws IOException {
+    final IncrementalState first = IncrementalState.load(file);
+    first.dependencies("deps");
+    first.markClean(className, method);
+    first.loadClass("Simple.class", classBytes);
+    first.save(file);
+
+    final byte[] bytes = Files.readAllBytes(file.toPath());
+    Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+    final IncrementalState second = IncrementalState.load(file);
+    assertThat(second.dependencies("deps")).isFalse();
+    second.loadClass("Simple.class", classBytes);
+    assertThat(second.reusedClassFiles()).isEqualTo(0);
+  }
+
+  @Test
+  public void testFileOfAnotherCodecVersionIsIgnored() throws IOException {
+    final IncrementalState first = IncrementalState.load(file);
+    first.dependencies("deps");
+    first.markClean(className, method);
+    first.loadClass("Simple.class", classBytes);
+    first.save(file);
+
+    final ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+    // the version follows the magic number, and changes with the version of the encoded classes
+    assertThat(bytes.getInt(4)).isEqualTo(IncrementalState.FORMAT_VERSION);
+    assertThat(IncrementalState.FORMAT_VERSION & 0xffff).isEqualTo(DeclaredClassCodec.VERSION);
+    bytes.putInt(4, IncrementalState.FORMAT_VERSION - 1);
+    Files.write(file.toPath(), bytes.array());
+
+    final IncrementalState second = IncrementalState.load(file);
+    assertThat(second.dependencies("deps")).isFalse();
+    second.loadClass("Simple.class", classBytes);
+    assertThat(second.reusedClassFiles()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,190 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarReaderTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final File asmJar = FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar");
+
+  @Test
+  public void shouldReadDeflatedEntriesLikeJarFile() throws Exception {
+    assertThat(parseAll(JarReader.mapped(asmJar))).isEqualTo(parseAll(JarReader.streaming(asmJar)));
+  }
+
+  @Test
+  public void shouldReadStoredEntriesAfterAPrefix() throws Exception {
+    final File jar = folder.newFile("stored.jar");
+    try (OutputStream out = new FileOutputStream(jar)) {
+      // like a self-executing jar, the offsets in the zip do not account for the prefix
+      out.write("#!/bin/sh\nexec java -jar \"$0\"\n".getBytes(StandardCharsets.UTF_8));
+      try (JarFile source = new JarFile(asmJar);
+          JarOutputStream jarOut = new JarOutputStream(out)) {
+        for (JarEntry entry : Collections.list(source.entries())) {
+          final byte[] bytes = ClassLoader.readFully(source.getInputStream(entry));
+          final CRC32 crc = new CRC32();
+          crc.update(bytes);
+          final JarEntry stored = new JarEntry(entry.getName());
+          stored.setMethod(JarEntry.STORED);
+          stored.setSize(bytes.length);
+          stored.setCrc(crc.getValue());
+          jarOut.putNextEntry(stored);
+          jarOut.write(bytes);
+          jarOut.closeEntry();
+        }
+        jarOut.setComment("a comment at the end of the jar");
+      }
+    }
+
+    assertThat(parseAll(JarReader.mapped(jar))).isEqualTo(parseAll(JarReader.streaming(asmJar)));
+  }
+
+  @Test
+  public void shouldReadNestedJarsInPlace() throws Exception {
+    final byte[] asm = Files.readAllBytes(asmJar.toPath());
+    final File jar = folder.newFile("boot.jar");
+    try (JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(jar))) {
+      putEntry(jarOut, "BOOT-INF/lib/stored.jar", asm, true);
+      putEntry(jarOut, "BOOT-INF/lib/deflated.jar", asm, false);
+    }
+
+    try (JarReader reader = JarReader.mapped(jar)) {
+      assertThat(reader.nestedJarNames())
+          .containsExactly("BOOT-INF/lib/stored.jar", "BOOT-INF/lib/deflated.jar");
+      assertThat(parseAll(reader.nested("BOOT-INF/lib/stored.jar")))
+          .isEqualTo(parseAll(JarReader.streaming(asmJar)));
+      assertThat(parseAll(reader.nested("BOOT-INF/lib/deflated.jar")))
+          .isEqualTo(parseAll(JarReader.streaming(asmJar)));
+    }
+    try (JarReader reader = JarReader.streaming(jar)) {
+      assertThat(parseAll(reader.nested("BOOT-INF/lib/deflated.jar")))
+          .isEqualTo(parseAll(JarReader.streaming(asmJar)));
+    }
+  }
+
+  @Test
+  public void shouldFilterEntriesUnderAPrefix() throws Exception {
+    try (JarReader reader = JarReader.mapped(asmJar)) {
+      final JarReader filtered =
+          reader.filtered("org/objectweb/asm/", name -> name.startsWith("signature/"));
+      assertThat(filtered.classFileNames()).isNotEmpty();
+      for (String name : filtered.classFileNames()) {
+        assertThat(name.startsWith("signature/")).isTrue();
+      }
+      assertThat(parseAll(filtered)).hasSameSizeAs(filtered.classFileNames());
+    }
+  }
+
+  @Test
+  public void shouldReadAgainAfterReleasingBuffers() throws Exception {
+    final List<DeclaredClass> classes = parseAll(JarReader.mapped(asmJar));
+    JarReader.releaseBuffers();
+    assertThat(parseAll(JarReader.mapped(asmJar))).isEqualTo(classes);
+    JarReader.releaseBuffers();
+    assertThat(parseAll(JarReader.streaming(asmJar))).isEqualTo(classes);
+    JarReader.releaseBuffers();
+    // nothing left to release
+    JarReader.releaseBuffers();
+  }
+
+  @Test
+  public void shouldNotRetainBuffersAboveTheLimit() {
+    final JarReader.Buffers buffers = new JarReader.Buffers();
+    final int limit = JarReader.MAX_RETAINED_BUFFER_SIZE;
+
+    assertThat(buffers.output(100_000)).isSameAs(buffers.output(50_000));
+    assertThat(buffers.output(limit + 1)).isNotSameAs(buffers.output(limit + 1));
+    assertThat(buffers.output(limit)).hasSize(limit).isSameAs(buffers.output(1));
+    assertThat(buffers.input(limit + 1)).isNotSameAs(buffers.input(limit + 1));
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void shouldFailForMissingEntries() throws Exception {
+    try (JarReader reader = JarReader.mapped(asmJar)) {
+      reader.parse("org/objectweb/asm/Missing.class", ClassLoader::load);
+    }
+  }
+
+  private static List<DeclaredClass> parseAll(JarReader reader) throws IOException {
+    final List<DeclaredClass> classes = new ArrayList<>();
+    try {
+      for (String name : reader.classFileNames()) {
+        classes.add(reader.parse(name, ClassLoader::load));
+      }
+    } finally {
+      reader.close();
+    }
+    assertThat(classes).isNotEmpty();
+    return classes;
+  }
+
+  private static void putEntry(JarOutputStream jarOut, String name, byte[] bytes, boolean stored)
+      throws IOException {
+    final JarEntry entry = new JarEntry(name);
+    if (stored) {
+      final CRC32 crc = new CRC32();
+      crc.update(bytes);
+      entry.setMethod(JarEntry.STORED);
+      entry.setSize(bytes.length);
+      entry.setCrc(crc.getValue());
+    }
+    jarOut.putNextEntry(entry);
+    jarOut.write(bytes);
+    jarOut.closeEntry();
+  }
+}
@@ -0,0 +1,168 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ArtifactBuilder;
+import com.spotify.missinglink.datamodel.ArtifactName;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class Java9ModuleLoaderTest {
+
+  private static final BiConsumer<String, Exception> FAIL =
+      (message, e) -> {
+        throw new AssertionError(message, e);
+      };
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Before
+  public void setUp() {
+    assumeTrue(ArtifactLoader.currentJavaVersion() >= 9);
+  }
+
+  @Test
+  public void testOnlyReferencedModulesAreLoaded() {
+    final List<Artifact> artifacts =
+        Java9ModuleLoader.getJava9ModuleArtifacts(
+            FAIL, null, Collections.singleton("java.sql"), false);
+
+    // java.sql requires java.logging and java.xml, and everything requires java.base
+    assertThat(names(artifacts))
+        .contains("java.sql", "java.logging", "java.xml", "java.base")
+        .doesNotContain("java.desktop");
+  }
+
+  @Test
+  public void testJavaBaseIsAlwaysLoaded() {
+    final List<Artifact> artifacts =
+        Java9ModuleLoader.getJava9ModuleArtifacts(FAIL, null, Collections.emptySet(), false);
+
+    assertThat(names(artifacts)).containsExactly("java.base");
+    assertThat(artifacts.get(0).classes())
+        .containsKey(TypeDescriptors.fromClassName("java/lang/Object"));
+  }
+
+  @Test
+  public void testCachedModulesAreIdentical() {
+    final ArtifactCache cache = new ArtifactCache(new File(folder.getRoot(), "cache"));
+    final Set<String> packages = Collections.singleton("java.util");
+
+    final List<Artifact> uncached =
+        Java9ModuleLoader.getJava9ModuleArtifacts(FAIL, null, packages, false);
+    final List<Artifact> first =
+        Java9ModuleLoader.getJava9ModuleArtifacts(FAIL, cache, packages, false);
+    assertThat(cache.directory().listFiles()).hasSize(uncached.size());
+
+    final List<Artifact> second =
+        Java9ModuleLoader.getJava9ModuleArtifacts(FAIL, cache, packages, false);
+    assertThat(second).isEqualTo(first).isEqualTo(uncached);
+  }
+
+  @Test
+  public void testParsingAndCacheLookupsAreReported() {
+    final ArtifactCache cache = new ArtifactCache(new File(folder.getRoot(), "cache"));
+    final Set<String> packages = Collections.singleton("java.util");
+
+    final CheckMetrics first = new CheckMetrics();
+    final List<Artifact> modules =
+        Java9ModuleLoader.getJava9ModuleArtifacts(FAIL, cache, packages, true, first);
+    assertThat(first.counters())
+        .containsEntry("artifactCacheHits", 0L)
+        .containsEntry("artifactCacheMisses", (long) modules.size())
+        .containsEntry("classesParsed", modules.stream().mapToLong(m -> m.classes().size()).sum());
+    assertThat(first.counters().get("uncompressedBytesParsed")).isPositive();
+
+    final CheckMetrics second = new CheckMetrics();
+    Java9ModuleLoader.getJava9ModuleArtifacts(FAIL, cache, packages, true, second);
+    assertThat(second.counters())
+        .containsEntry("artifactCacheHits", (long) modules.size())
+        .containsEntry("artifactCacheMisses", 0L)
+        .containsEntry("classesParsed", 0L);
+  }
+
+  @Test
+  public void testReferencedPackages() throws IOException {
+    final Artifact artifact =
+        new ArtifactLoader().load(FilePathHelper.getPath("target/test-classes"));
+
+    assertThat(Java9ModuleLoader.referencedPackages(Collections.singletonList(artifact)))
+        .contains("com.spotify.missinglink", "java.lang", "java.util", "org.junit");
+  }
+
+  @Test
+  public void testReferencedPackagesOnlyParsesReachableClasses() throws IOException {
+    final Artifact asm =
+        new ArtifactLoader().load(FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar"));
+    final DeclaredClass type =
+        asm.classes().get(TypeDescriptors.fromClassName("org/objectweb/asm/Type"));
+    final Artifact project =
+        new ArtifactBuilder()
+            .name(new ArtifactName("project"))
+            .classes(Collections.singletonMap(type.className(), type))
+            .build();
+
+    try (ArtifactLoader lazyLoader = new ArtifactLoader(null, true)) {
+      final Artifact lazy =
+          lazyLoader.load(FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar"));
+
+      assertThat(Java9ModuleLoader.referencedPackages(project, Collections.singletonList(lazy)))
+          .contains("org.objectweb.asm", "java.lang")
+          .isSubsetOf(Java9ModuleLoader.referencedPackages(Collections.singletonList(asm)));
+      // Type only references itself and JDK classes, so nothing has to be parsed
+      assertThat(((LazyArtifact) lazy).loadedClassCount()).isZero();
+    }
+  }
+
+  private static List<String> names(List<Artifact> artifacts) {
+    return artifacts.stream().map(a -> a.name().name()).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,112 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static com.spotify.missinglink.Simple.INT;
+import static com.spotify.missinglink.Simple.VOID;
+import static com.spotify.missinglink.Simple.classMap;
+import static com.spotify.missinglink.Simple.methodMap;
+import static com.spotify.missinglink.Simple.newClass;
+import static com.spotify.missinglink.Simple.newField;
+import static com.spotify.missinglink.Simple.newMethod;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.DeclaredField;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import java.util.Collections;
+import org.junit.Test;
+
+public class MemberResolverTest {
+
+  private final DeclaredMethod run = newMethod(false, VOID, "run").build();
+  private final DeclaredMethod create = newMethod(true, VOID, "create").build();
+  private final DeclaredField count = newField(INT, "count");
+
+  private final DeclaredClass base =
+      newClass("com/lib/Base")
+          .methods(methodMap(run, create))
+          .fields(Collections.singleton(count))
+          .build();
+  private final DeclaredClass middle =
+      newClass("com/lib/Middle").parents(Collections.singleton(base.className())).build();
+  private final DeclaredClass sub =
+      newClass("com/lib/Sub").parents(Collections.singleton(middle.className())).build();
+
+  private final MemberResolver resolver = new MemberResolver(classMap(base, middle, sub));
+
+  @Test
+  public void testInheritedMethodIsResolvedOnce() {
+    assertThat(resolver.missingMethod(sub, run.descriptor(), false)).isFalse();
+    assertThat(resolver.statistics().methodMisses()).isEqualTo(3);
+    assertThat(resolver.statistics().methodHits()).isEqualTo(0);
+
+    assertThat(resolver.missingMethod(sub, run.descriptor(), false)).isFalse();
+    // middle was already resolved on the way up from sub
+    assertThat(resolver.missingMethod(middle, run.descriptor(), false)).isFalse();
+    assertThat(resolver.statistics().methodMisses()).isEqualTo(3);
+    assertThat(resolver.statistics().methodHits()).isEqualTo(2);
+  }
+
+  @Test
+  public void testStaticnessIsPartOfTheKey() {
+    assertThat(resolver.missingMethod(sub, create.descriptor(), true)).isFalse();
+    assertThat(resolver.missingMethod(sub, create.descriptor(), false)).isTrue();
+    assertThat(resolver.missingMethod(sub, run.descriptor(), true)).isTrue();
+    assertThat(resolver.statistics().methodHits()).isEqualTo(0);
+  }
+
+  @Test
+  public void testMissingVerdictIsCached() {
+    final DeclaredMethod absent = newMethod(false, VOID, "absent").build();
+    assertThat(resolver.missingMethod(sub, absent.descriptor(), false)).isTrue();
+    assertThat(resolver.missingMethod(sub, absent.descriptor(), false)).isTrue();
+    assertThat(resolver.statistics().methodMisses()).isEqualTo(3);
+    assertThat(resolver.statistics().methodHits()).isEqualTo(1);
+  }
+
+  @Test
+  public void testInheritedFieldIsResolvedOnce() {
+    assertThat(resolver.missingField(sub, count)).isFalse();
+    assertThat(resolver.missingField(sub, count)).isFalse();
+    assertThat(resolver.missingField(sub, newField(INT, "other"))).isTrue();
+
+    final ResolutionStatistics statistics = resolver.statistics();
+    assertThat(statistics.fieldMisses()).isEqualTo(6);
+    assertThat(statistics.fieldHits()).isEqualTo(1);
+    assertThat(statistics.hitRate()).isEqualTo(1.0 / 7);
+  }
+}
@@ -0,0 +1,111 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MemoryArtifactCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private File jar;
+
+  @Before
+  public void setUp() throws IOException {
+    jar = new File(folder.getRoot(), "asm.jar");
+    Files.copy(FilePathHelper.getPath("src/test/resources/asm-5.0.4.jar").toPath(), jar.toPath());
+  }
+
+  @Test
+  public void testLoadedJarIsKeptInMemory() throws IOException {
+    final MemoryArtifactCache cache = new MemoryArtifactCache();
+    final ArtifactLoader loader = new ArtifactLoader(cache);
+
+    final Artifact first = loader.load(jar);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.get(jar)).isEqualTo(first.classes());
+
+    // the classes are not parsed again, so the second artifact has the very same ones
+    final Artifact second = loader.load(jar);
+    assertThat(second).isEqualTo(first);
+    for (ClassTypeDescriptor className : first.classes().keySet()) {
+      assertThat(second.classes().get(className)).isSameAs(first.classes().get(className));
+    }
+  }
+
+  @Test
+  public void testChangedJarIsNotReused() throws IOException {
+    final MemoryArtifactCache cache = new MemoryArtifactCache();
+    new ArtifactLoader(cache).load(jar);
+
+    assertThat(jar.setLastModified(jar.lastModified() - 60_000)).isTrue();
+
+    assertThat(cache.get(jar)).isNull();
+  }
+
+  @Test
+  public void testFallsBackToDisk() throws IOException {
+    final File directory = new File(folder.getRoot(), "cache");
+    final Artifact artifact = new ArtifactLoader(new MemoryArtifactCache(directory)).load(jar);
+
+    // a new cache, like after a restart, starts empty but finds the entry on disk
+    final MemoryArtifactCache cache = new MemoryArtifactCache(directory);
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get(jar)).isEqualTo(artifact.classes());
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testClearOnlyForgetsMemory() throws IOException {
+    final MemoryArtifactCache cache = new MemoryArtifactCache(new File(folder.getRoot(), "cache"));
+    new ArtifactLoader(cache).load(jar);
+
+    cache.clear();
+
+    assertThat(cache.size()).isZero();
+    assertThat(cache.get(jar)).isNotNull();
+  }
+}
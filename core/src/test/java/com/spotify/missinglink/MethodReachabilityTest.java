@@ -0,0 +1,244 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static com.spotify.missinglink.ClassLoadingUtil.findClass;
+import static com.spotify.missinglink.Simple.VOID;
+import static com.spotify.missinglink.Simple.methodMap;
+import static com.spotify.missinglink.Simple.newArtifact;
+import static com.spotify.missinglink.Simple.newCall;
+import static com.spotify.missinglink.Simple.newClass;
+import static com.spotify.missinglink.Simple.newMethod;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.datamodel.Artifact;
+import com.spotify.missinglink.datamodel.CalledMethod;
+import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
+import com.spotify.missinglink.datamodel.DeclaredClass;
+import com.spotify.missinglink.datamodel.DeclaredMethod;
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+public class MethodReachabilityTest {
+
+  private static final ClassTypeDescriptor GONE = TypeDescriptors.fromClassName("com/gone/Gone");
+  private static final ClassTypeDescriptor OBJECT =
+      TypeDescriptors.fromClassName("java/lang/Object");
+
+  private final DeclaredMethod constructor = newMethod(false, VOID, "<init>").build();
+  private final DeclaredMethod run = newMethod(false, VOID, "run").build();
+  private final DeclaredMethod work = newMethod(false, VOID, "work").build();
+  private final DeclaredMethod start = newMethod(false, VOID, "start").build();
+
+  private final DeclaredClass object =
+      newClass("java/lang/Object").methods(methodMap(constructor)).build();
+  private final DeclaredClass runnable =
+      newClass("java/lang/Runnable").methods(methodMap(run)).build();
+  private final Artifact rt = newArtifact("rt", object, runnable);
+
+  private final ConflictChecker classLevel = new ConflictChecker();
+  private final ConflictChecker methodLevel = new ConflictChecker().withMethodReachability(true);
+
+  @Test
+  public void testUnreachableMethodIsNotChecked() {
+    final DeclaredMethod used = newMethod(false, VOID, "used").build();
+    final DeclaredClass lib =
+        newClass("com/lib/Lib")
+            .parents(Collections.singleton(OBJECT))
+            .methods(methodMap(used, broken("unused")))
+            .build();
+    final Artifact project = project(call(lib.className(), used));
+    final List<Artifact> artifacts = Arrays.asList(newArtifact("lib", lib), rt);
+
+    assertThat(classLevel.check(project, artifacts.subList(0, 1), artifacts)).hasSize(1);
+    assertThat(methodLevel.check(project, artifacts.subList(0, 1), artifacts)).isEmpty();
+  }
+
+  @Test
+  public void testVirtualCallReachesOverridingMethodOfLoadedSubclass() {
+    final DeclaredClass base =
+        newClass("com/lib/Base")
+            .parents(Collections.singleton(OBJECT))
+            .methods(methodMap(constructor, work))
+            .build();
+    final DeclaredClass sub =
+        newClass("com/lib/Sub")
+            .parents(Collections.singleton(base.className()))
+            .methods(methodMap(constructor, broken("work")))
+            .build();
+    final List<Artifact> artifacts = Arrays.asList(newArtifact("lib", base, sub), rt);
+
+    // Sub is never loaded, so calls to Base.work cannot end up in Sub.work
+    final Artifact withoutSub = project(call(base.className(), work));
+    assertThat(methodLevel.check(withoutSub, artifacts.subList(0, 1), artifacts)).isEmpty();
+
+    final Artifact withSub =
+        project(call(sub.className(), constructor), call(base.className(), work));
+    assertThat(methodLevel.check(withSub, artifacts.subList(0, 1), artifacts))
+        .extracting(conflict -> conflict.dependency().fromClass())
+        .containsExactly(sub.className());
+  }
+
+  @Test
+  public void testInterfaceCallReachesMethodInheritedBySubclass() {
+    // class B extends A implements I, where only A declares work()
+    final DeclaredClass iface =
+        newClass("com/lib/I")
+            .parents(Collections.singleton(OBJECT))
+            .methods(methodMap(work))
+            .build();
+    final DeclaredClass a =
+        newClass("com/lib/A")
+            .parents(Collections.singleton(OBJECT))
+            .methods(methodMap(constructor, broken("work")))
+            .build();
+    final DeclaredClass b =
+        newClass("com/lib/B")
+            .parents(new HashSet<>(Arrays.asList(a.className(), iface.className())))
+            .methods(methodMap(constructor))
+            .build();
+    final List<Artifact> artifacts = Arrays.asList(newArtifact("lib", iface, a, b), rt);
+
+    final Artifact project =
+        project(call(b.className(), constructor), call(iface.className(), work));
+    assertThat(methodLevel.check(project, artifacts.subList(0, 1), artifacts))
+        .extracting(conflict -> conflict.dependency().fromClass())
+        .containsExactly(a.className());
+  }
+
+  @Test
+  public void testCallbackFromUncheckedSupertypeIsReachable() {
+    final DeclaredClass task =
+        newClass("com/lib/Task")
+            .parents(new HashSet<>(Arrays.asList(OBJECT, runnable.className())))
+            .methods(methodMap(constructor, broken("run")))
+            .build();
+    final List<Artifact> artifacts = Arrays.asList(newArtifact("lib", task), rt);
+
+    // the JDK would call Task.run, but only the constructor is called from checked code
+    final Artifact project = project(call(task.className(), constructor));
+    assertThat(methodLevel.check(project, artifacts.subList(0, 1), artifacts))
+        .extracting(conflict -> conflict.dependency().fromClass())
+        .containsExactly(task.className());
+  }
+
+  @Test
+  public void testLambdaBodyIsReachedFromCallSite() throws Exception {
+    final DeclaredClass usesLambda = load(UsesLambda.class);
+    final List<Artifact> artifacts =
+        Arrays.asList(newArtifact("lib", usesLambda, calleeWithoutWork()), rt);
+
+    final Artifact project =
+        project(call(usesLambda.className(), constructor), call(usesLambda.className(), start));
+    assertThat(methodLevel.check(project, artifacts.subList(0, 1), artifacts))
+        .extracting(conflict -> conflict.dependency().fromMethod().name())
+        .hasSize(1)
+        .allMatch(name -> name.startsWith("lambda$"));
+  }
+
+  @Test
+  public void testMethodReferenceIsACall() throws Exception {
+    final DeclaredClass usesReference = load(UsesMethodReference.class);
+    final List<Artifact> artifacts =
+        Arrays.asList(newArtifact("lib", usesReference, calleeWithoutWork()), rt);
+
+    final Artifact project =
+        project(
+            call(usesReference.className(), constructor), call(usesReference.className(), start));
+    assertThat(methodLevel.check(project, artifacts.subList(0, 1), artifacts))
+        .extracting(conflict -> conflict.dependency().fromMethod())
+        .containsExactly(start.descriptor());
+  }
+
+  private static DeclaredClass load(Class<?> aClass) throws Exception {
+    try (FileInputStream inputStream = findClass(aClass)) {
+      return ClassLoader.load(inputStream);
+    }
+  }
+
+  /** {@link Callee} as it would be in an older version, before it got the work method. */
+  private static DeclaredClass calleeWithoutWork() {
+    return newClass(Callee.class.getName().replace('.', '/'))
+        .parents(Collections.singleton(OBJECT))
+        .methods(methodMap(newMethod(false, VOID, "<init>").build()))
+        .build();
+  }
+
+  private static DeclaredMethod broken(String name) {
+    final DeclaredMethod gone = newMethod(true, VOID, "gone").build();
+    return newMethod(false, VOID, name)
+        .methodCalls(Collections.singleton(newCall(GONE, gone, true)))
+        .build();
+  }
+
+  private static CalledMethod call(ClassTypeDescriptor owner, DeclaredMethod method) {
+    return newCall(owner, method, false);
+  }
+
+  private static Artifact project(CalledMethod... calls) {
+    final DeclaredMethod main =
+        newMethod(false, VOID, "main").methodCalls(new HashSet<>(Arrays.asList(calls))).build();
+    return newArtifact(
+        "project",
+        newClass("com/project/Main")
+            .parents(Collections.singleton(OBJECT))
+            .methods(methodMap(main))
+            .build());
+  }
+
+  static class Callee {
+    static void work() {}
+  }
+
+  static class UsesLambda {
+    void start() {
+      final Runnable task = () -> Callee.work();
+      task.run();
+    }
+  }
+
+  static class UsesMethodReference {
+    void start() {
+      final Runnable task = Callee::work;
+      task.run();
+    }
+  }
+}
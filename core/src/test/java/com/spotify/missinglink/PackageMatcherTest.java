@@ -0,0 +1,108 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.spotify.missinglink.datamodel.TypeDescriptors;
+import org.junit.Test;
+
+public class PackageMatcherTest {
+
+  private final PackageMatcher matcher =
+      PackageMatcher.builder()
+          .add("com.spotify", false)
+          .add("org.apache", true)
+          .add("org.apache.maven.plugin", false)
+          .add("javax", true)
+          .build();
+
+  @Test
+  public void shouldMatchTheExactPackage() {
+    assertThat(matches("com/spotify/Main")).isTrue();
+    assertThat(matches("com/spotify/Main$Inner")).isTrue();
+    assertThat(matches("com/spotify/missinglink/Main")).isFalse();
+    assertThat(matches("com/Main")).isFalse();
+    assertThat(matches("com/spotifyx/Main")).isFalse();
+  }
+
+  @Test
+  public void shouldMatchSubpackages() {
+    assertThat(matches("org/apache/Main")).isTrue();
+    assertThat(matches("org/apache/maven/Main")).isTrue();
+    assertThat(matches("org/apache/maven/plugin/Mojo")).isTrue();
+    assertThat(matches("javax/inject/Inject")).isTrue();
+    assertThat(matches("org/apachex/Main")).isFalse();
+    assertThat(matches("org/Main")).isFalse();
+  }
+
+  @Test
+  public void shouldNotMatchTheDefaultPackage() {
+    assertThat(matches("Main")).isFalse();
+    assertThat(PackageMatcher.empty().matches(TypeDescriptors.fromClassName("com/Main"))).isFalse();
+  }
+
+  @Test
+  public void shouldMatchPackageNames() {
+    assertThat(matcher.matchesPackage("com.spotify")).isTrue();
+    assertThat(matcher.matchesPackage("com")).isFalse();
+    assertThat(matcher.matchesPackage("org.apache.commons.lang")).isTrue();
+  }
+
+  @Test
+  public void shouldMatchManyPackages() {
+    final PackageMatcher.Builder builder = PackageMatcher.builder();
+    for (int i = 0; i < 1000; i++) {
+      builder.add("com.example.team" + i, i % 2 == 0);
+    }
+    final PackageMatcher many = builder.build();
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(many.matchesPackage("com.example.team" + i)).isTrue();
+      assertThat(many.matchesPackage("com.example.team" + i + ".sub")).isEqualTo(i % 2 == 0);
+    }
+    assertThat(many.matchesPackage("com.example.team1000")).isFalse();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectEmptySegments() {
+    PackageMatcher.builder().add("com..spotify", true);
+  }
+
+  private boolean matches(String className) {
+    return matcher.matches(TypeDescriptors.fromClassName(className));
+  }
+}
@@ -142,4 +142,43 @@ public class ReachableTest {
         new HashSet<>(Arrays.asList(root.className(), remote.className()));
     assertEquals(expected, reachable);
   }
+
+  @Test
+  public void testReachableViaCycle() {
+    DeclaredClass first =
+        newClass("other/First")
+            .parents(Collections.singleton(TypeDescriptors.fromClassName("other/Second")))
+            .build();
+    DeclaredClass second =
+        newClass("other/Second")
+            .loadedClasses(Collections.singleton(TypeDescriptors.fromClassName("other/First")))
+            .parents(Collections.singleton(TypeDescriptors.fromClassName("other/Missing")))
+            .build();
+    DeclaredClass root =
+        newClass("my/Root")
+            .parents(Collections.singleton(TypeDescriptors.fromClassName("other/First")))
+            .build();
+    Map<ClassTypeDescriptor, DeclaredClass> world = classMap(root, first, second);
+    Set<TypeDescriptor> reachable =
+        ConflictChecker.reachableFrom(Collections.singleton(root), world);
+    Set<ClassTypeDescriptor> expected =
+        new HashSet<>(Arrays.asList(root.className(), first.className(), second.className()));
+    assertEquals(expected, reachable);
+  }
+
+  @Test
+  public void testRootTakesPrecedenceOverKnownClass() {
+    DeclaredClass remote = newClass("other/Unknown").build();
+    DeclaredClass root =
+        newClass("my/Root")
+            .parents(Collections.singleton(TypeDescriptors.fromClassName("other/Unknown")))
+            .build();
+    // the known version of my/Root does not reference anything
+    Map<ClassTypeDescriptor, DeclaredClass> world = classMap(newClass("my/Root").build(), remote);
+    Set<TypeDescriptor> reachable =
+        ConflictChecker.reachableFrom(Collections.singleton(root), world);
+    Set<ClassTypeDescriptor> expected =
+        new HashSet<>(Arrays.asList(root.className(), remote.className()));
+    assertEquals(expected, reachable);
+  }
 }
@@ -107,6 +107,14 @@ public class TypeDescriptorTest {
     }
   }
 
+  @Test
+  public void testToRaw() {
+    String[] signatures = {"B", "Z", "V", "[D", "[[[D", "LFoo;", "[[Lfoo/bar/Baz;", "Lfoo/Bar$1;"};
+    for (String signature : signatures) {
+      assertEquals(signature, TypeDescriptors.toRaw(TypeDescriptors.fromRaw(signature)));
+    }
+  }
+
   @Test
   public void testTypes() {
     Map<String, Class> desc = new HashMap<>();
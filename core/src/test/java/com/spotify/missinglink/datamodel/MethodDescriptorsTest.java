@@ -61,4 +61,10 @@ public class MethodDescriptorsTest {
     MethodDescriptor desc = MethodDescriptors.fromDesc("([I[[Lfoo/Bar;Z)V", "baz");
     assertEquals("(int[], foo.Bar[][], boolean)", desc.prettyParameters());
   }
+
+  @Test
+  public void testToDesc() {
+    String desc = "([I[[Lfoo/Bar;Z)Ljava/lang/String;";
+    assertEquals(desc, MethodDescriptors.toDesc(MethodDescriptors.fromDesc(desc, "baz")));
+  }
 }
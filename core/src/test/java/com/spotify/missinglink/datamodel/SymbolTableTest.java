@@ -0,0 +1,73 @@
+/*-
+ * -\-\-
+ * missinglink-core
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.datamodel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class SymbolTableTest {
+
+  @Test
+  public void testSymbolsAreShared() {
+    assertThat(TypeDescriptors.fromClassName("foo/Bar"))
+        .isSameAs(TypeDescriptors.fromClassName("foo/Bar"));
+    assertThat(MethodDescriptors.fromDesc("(Lfoo/Bar;)V", "baz"))
+        .isSameAs(MethodDescriptors.fromDesc("(Lfoo/Bar;)V", "baz"));
+
+    final String name = new String("field");
+    assertThat(SymbolTable.current().name(new String("field")))
+        .isSameAs(SymbolTable.current().name(name));
+  }
+
+  @Test
+  public void testResetReleasesSymbols() {
+    final ClassTypeDescriptor before = TypeDescriptors.fromClassName("foo/Bar");
+    final MethodDescriptor method = MethodDescriptors.fromDesc("(Lfoo/Bar;)V", "baz");
+    final SymbolTable table = SymbolTable.current();
+
+    SymbolTable.reset();
+
+    assertThat(SymbolTable.current()).isNotSameAs(table);
+    assertThat(SymbolTable.current().classTypeCount()).isEqualTo(0);
+    assertThat(SymbolTable.current().methodCount()).isEqualTo(0);
+
+    // symbols from before the reset are still equal to the new ones
+    final ClassTypeDescriptor after = TypeDescriptors.fromClassName("foo/Bar");
+    assertThat(after).isNotSameAs(before).isEqualTo(before);
+    assertThat(MethodDescriptors.fromDesc("(Lfoo/Bar;)V", "baz")).isEqualTo(method);
+  }
+}
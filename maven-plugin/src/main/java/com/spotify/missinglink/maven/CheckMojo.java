@@ -42,33 +42,47 @@ import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
+import com.google.common.hash.Hashing;
 import com.google.common.io.Files;
+import com.spotify.missinglink.ArtifactCache;
 import com.spotify.missinglink.ArtifactLoader;
+import com.spotify.missinglink.CheckMetrics;
+import com.spotify.missinglink.CheckPhase;
+import com.spotify.missinglink.CheckRunner;
 import com.spotify.missinglink.Conflict;
 import com.spotify.missinglink.Conflict.ConflictCategory;
 import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.ConflictSink;
+import com.spotify.missinglink.IncrementalState;
 import com.spotify.missinglink.Java9ModuleLoader;
+import com.spotify.missinglink.PackageMatcher;
 import com.spotify.missinglink.datamodel.Artifact;
 import com.spotify.missinglink.datamodel.ArtifactBuilder;
 import com.spotify.missinglink.datamodel.ArtifactName;
 import com.spotify.missinglink.datamodel.ClassTypeDescriptor;
 import com.spotify.missinglink.datamodel.DeclaredClass;
 import com.spotify.missinglink.datamodel.Dependency;
+import com.spotify.missinglink.datamodel.SymbolTable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.apache.maven.model.Exclusion;
@@ -131,9 +145,9 @@ public class CheckMojo extends AbstractMojo {
    * Optional list of packages to ignore conflicts in where the source of the conflict is in one of
    * the specified packages.
    *
-   * <p>This parameter does not exclude those packages from analysis, but the plugin will not output
-   * the conflicts that are found in those packages when the caller side of the conflict is in this
-   * package, and they will not count against the {@link #failOnConflicts} setting.
+   * <p>Classes in those packages are not checked, so the conflicts whose caller side is in one of
+   * them are not output and do not count against the {@link #failOnConflicts} setting. With {@link
+   * #verbose}, they are still looked for, to log how many there were.
    *
    * <p>For example, if the package "javax.foo" is in ignoreSourcePackages, then any conflict found
    * originating in a javax.foo class is ignored. This is mostly the same behavior as {@link
@@ -154,9 +168,9 @@ public class CheckMojo extends AbstractMojo {
    * Optional list of packages to ignore conflicts in where the destination/called-side of the
    * conflict is in one of the specified packages.
    *
-   * <p>This parameter does not exclude those packages from analysis, but the plugin will not output
-   * the conflicts that are found in those packages when the called side of the conflict is in this
-   * package, and they will not count against the {@link #failOnConflicts} setting.
+   * <p>Calls into those packages are not resolved, so the conflicts whose called side is in one of
+   * them are not output and do not count against the {@link #failOnConflicts} setting. With {@link
+   * #verbose}, they are still looked for, to log how many there were.
    *
    * <p>For example, if the package "javax.bar" is in ignoreDestinationPackages, then any conflict
    * found having to do with calling a method in a class in javax.bar is ignored.
@@ -186,10 +200,94 @@ public class CheckMojo extends AbstractMojo {
   @Parameter(property = "misslink.bootClasspath")
   protected String bootClasspath;
 
+  /**
+   * Number of threads to use when loading dependencies and checking for conflicts. Jars are loaded
+   * concurrently, the classes of large jars are parsed in parallel and the reachable classes are
+   * checked in parallel, but the resulting artifacts and conflicts are always in the same order.
+   * Defaults to the number of available processors; set to 1 to do everything on the calling
+   * thread.
+   */
+  @Parameter(property = "missinglink.threads", defaultValue = "0")
+  protected int threads;
+
+  /**
+   * Whether to cache the classes loaded from dependency jars in {@link #cacheDirectory}, so that
+   * jars that have not changed since the last build do not have to be parsed again. Defaults to
+   * true.
+   */
+  @Parameter(property = "missinglink.cache", defaultValue = "true")
+  protected boolean cache;
+
+  /**
+   * Where to keep the cache of loaded dependency jars and JDK modules. Shared between all projects.
+   */
+  @Parameter(
+      property = "missinglink.cacheDirectory",
+      defaultValue = "${user.home}/.m2/missinglink-cache")
+  protected File cacheDirectory;
+
+  /**
+   * On Java 9 and later, only load the JDK modules containing packages that are referenced by the
+   * project or its dependencies, along with the modules they require, instead of every system
+   * module. Has no effect when {@link #bootClasspath} is set. Defaults to false.
+   */
+  @Parameter(property = "missinglink.referencedJdkModulesOnly", defaultValue = "false")
+  protected boolean referencedJdkModulesOnly;
+
+  /**
+   * Only parse the classes of dependency jars that are reachable from the project, instead of every
+   * class of every jar. Jars that are not already in the cache are then not added to it. Defaults
+   * to false.
+   */
+  @Parameter(property = "missinglink.lazyLoading", defaultValue = "false")
+  protected boolean lazyLoading;
+
+  /**
+   * Only check the methods that are reachable from the project, following calls method by method,
+   * instead of every method of every class that is reachable. Reports fewer conflicts from unused
+   * code in dependencies, but may miss methods only called through reflection. Defaults to false.
+   */
+  @Parameter(property = "missinglink.methodReachability", defaultValue = "false")
+  protected boolean methodReachability;
+
+  /**
+   * Remember the parsed classes of the project, and the methods of dependencies that were found to
+   * have no conflicts, in the build directory. The next run then only parses the class files that
+   * changed and only checks the methods it has not found clean before, until the dependencies
+   * change. Defaults to false.
+   */
+  @Parameter(property = "missinglink.incremental", defaultValue = "false")
+  protected boolean incremental;
+
+  /**
+   * Stop checking once this many conflicts have been found, counting only those that are not
+   * filtered out. On a badly broken classpath this saves the time and memory of finding every
+   * conflict when the first ones are enough to act on. Defaults to 0, meaning no limit.
+   */
+  @Parameter(property = "missinglink.maxConflicts", defaultValue = "0")
+  protected int maxConflicts;
+
+  /**
+   * Print a table of how long each phase of the check took, along with counters of the work done
+   * like the classes parsed and the call sites checked, at the end of the check. Defaults to false.
+   */
+  @Parameter(property = "missinglink.printMetrics", defaultValue = "false")
+  protected boolean printMetrics;
+
+  /** Optional: write the phase timings and counters described at {@link #printMetrics} as JSON. */
+  @Parameter(property = "missinglink.metricsFile")
+  protected File metricsFile;
+
   // TODO 6/1/15 mbrown -- how to hook into the Plexus container for proper DI lookups and the
   // conventional maven plugin way of how to set up things like this
-  protected ArtifactLoader artifactLoader = new ArtifactLoader();
-  protected ConflictChecker conflictChecker = new ConflictChecker();
+  // when not set beforehand (by tests), these are created in execute() from the configuration
+  protected ArtifactLoader artifactLoader;
+  protected ConflictChecker conflictChecker;
+  private ArtifactCache artifactCache;
+  private IncrementalState incrementalState;
+  private Predicate<ClassTypeDescriptor> sourceFilter;
+  private Predicate<ClassTypeDescriptor> destinationFilter;
+  private final CheckMetrics metrics = new CheckMetrics();
 
   public void execute() throws MojoExecutionException, MojoFailureException {
 
@@ -227,11 +325,73 @@ public class CheckMojo extends AbstractMojo {
       throw new MojoExecutionException(
           "Either ignoreSourcePackages or targetSourcePackages can be set, " + "but not both.");
     }
+    sourceFilter = packageFilter(ignoreSourcePackages, targetSourcePackages);
+    destinationFilter = packageFilter(ignoreDestinationPackages, targetDestinationPackages);
 
-    Collection<Conflict> conflicts = loadArtifactsAndCheckConflicts();
-    final int initialCount = conflicts.size();
+    if (cache) {
+      getLog().debug("caching loaded dependencies in " + cacheDirectory);
+      artifactCache = new ArtifactCache(cacheDirectory);
+    }
+    if (incremental) {
+      incrementalState = IncrementalState.load(incrementalStateFile());
+    }
+    if (artifactLoader == null) {
+      artifactLoader = new ArtifactLoader(artifactCache, lazyLoading, metrics);
+    }
+    final List<ConflictFilter> filters = conflictFilters(categoriesToInclude);
+    if (conflictChecker == null) {
+      ConflictChecker checker =
+          new ConflictChecker()
+              .withMethodReachability(methodReachability)
+              .withParallelChecking(threadCount() > 1)
+              .withCategories(categoriesToInclude)
+              .withSourceFilter(sourceFilter)
+              .withDestinationFilter(destinationFilter)
+              .withListener(metrics)
+              .withResolutionStatistics(
+                  statistics -> log.accept("Member resolution cache: " + statistics));
+      if (verbose) {
+        // still look for what the filters leave out, only counting it by the first filter that
+        // removes it to tell the user about it below; this gives up what filtering saves
+        checker = checker.withFilteredConflicts(conflict -> removedByFilters(filters, conflict));
+      } else if (!filters.isEmpty()) {
+        getLog()
+            .debug("Conflicts left out by filters are not looked for, use verbose to count them");
+      }
+      conflictChecker = checker;
+    }
 
-    conflicts = filterConflicts(conflicts, categoriesToInclude);
+    // the checker created above already leaves out what the filters remove, but they are still
+    // applied as the conflicts are found, for checkers set beforehand
+    final Set<Conflict> conflicts = new LinkedHashSet<>();
+    final ConflictSink sink =
+        conflict -> {
+          if (removedByFilters(filters, conflict)) {
+            return true;
+          }
+          conflicts.add(conflict);
+          return maxConflicts <= 0 || conflicts.size() < maxConflicts;
+        };
+    try {
+      loadArtifactsAndCheckConflicts(sink);
+    } finally {
+      try {
+        artifactLoader.close();
+      } catch (IOException e) {
+        getLog().warn("Could not close loaded artifacts", e);
+      }
+      // don't keep the symbols of this project alive in long-lived JVMs, like the Maven daemon
+      SymbolTable.reset();
+    }
+    outputMetrics();
+    int initialCount = conflicts.size();
+    for (ConflictFilter filter : filters) {
+      if (filter.removed > 0) {
+        getLog().warn(filter.logMessage.apply(filter.removed));
+        initialCount += filter.removed;
+      }
+    }
+    getLog().debug(initialCount + " total conflicts found");
 
     if (conflicts.isEmpty()) {
       getLog().info("No conflicts found");
@@ -241,6 +401,13 @@ public class CheckMojo extends AbstractMojo {
         warning += " (" + initialCount + " conflicts were found before applying filters)";
       }
       getLog().warn(warning);
+      if (maxConflicts > 0 && conflicts.size() >= maxConflicts) {
+        getLog()
+            .warn(
+                "Stopped checking after finding maxConflicts="
+                    + maxConflicts
+                    + " conflicts, there may be more.");
+      }
 
       outputConflicts(conflicts);
 
@@ -255,6 +422,21 @@ public class CheckMojo extends AbstractMojo {
     }
   }
 
+  private void outputMetrics() {
+    if (printMetrics) {
+      getLog().info("Check metrics:");
+      metrics.summary().forEach(line -> getLog().info("  " + line));
+    }
+    if (metricsFile != null) {
+      try {
+        Files.createParentDirs(metricsFile);
+        Files.asCharSink(metricsFile, StandardCharsets.UTF_8).write(metrics.toJson());
+      } catch (IOException e) {
+        getLog().warn("Could not write metrics to " + metricsFile, e);
+      }
+    }
+  }
+
   private void logDependencies(Consumer<String> log) {
     // project.getDependencies() only lists the declared dependencies, use .getArtifacts for
     // the transitive dependencies as well
@@ -265,8 +447,19 @@ public class CheckMojo extends AbstractMojo {
     mavenDependencies.stream().map(art -> "Dependency: " + art.toString()).forEach(log);
   }
 
-  private Collection<Conflict> filterConflicts(
-      Collection<Conflict> conflicts, Set<ConflictCategory> categoriesToInclude) {
+  /** Whether one of the filters removes the conflict, which is counted against the first one. */
+  private static boolean removedByFilters(List<ConflictFilter> filters, Conflict conflict) {
+    for (ConflictFilter filter : filters) {
+      if (!filter.keeps(conflict)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** The configured filters, in the order they are applied and their removals are counted. */
+  private List<ConflictFilter> conflictFilters(Set<ConflictCategory> categoriesToInclude) {
+    final List<ConflictFilter> filters = new ArrayList<>();
 
     if (!categoriesToInclude.isEmpty()) {
       getLog()
@@ -274,9 +467,8 @@ public class CheckMojo extends AbstractMojo {
               "Only including conflicts from categories: "
                   + Joiner.on(", ").join(categoriesToInclude));
 
-      conflicts =
-          filterConflictsBy(
-              conflicts,
+      filters.add(
+          new ConflictFilter(
               c -> categoriesToInclude.contains(c.category()),
               num ->
                   num
@@ -284,24 +476,23 @@ public class CheckMojo extends AbstractMojo {
                       + Joiner.on(", ").join(includeCategories)
                       + ". "
                       + "Run plugin again without the 'includeCategories' parameter to see "
-                      + "all conflicts that were found.");
+                      + "all conflicts that were found."));
     }
 
     if (!ignoreSourcePackages.isEmpty()) {
       getLog().debug("Ignoring source packages: " + Joiner.on(", ").join(ignoreSourcePackages));
 
       final Predicate<Conflict> predicate =
-          conflict -> !packageIsFiltered(ignoreSourcePackages, conflict.dependency().fromClass());
+          conflict -> sourceFilter.test(conflict.dependency().fromClass());
 
-      conflicts =
-          filterConflictsBy(
-              conflicts,
+      filters.add(
+          new ConflictFilter(
               predicate,
               num ->
                   num
                       + " conflicts found in ignored source packages. "
                       + "Run plugin again without the 'ignoreSourcePackages' parameter to see "
-                      + "all conflicts that were found.");
+                      + "all conflicts that were found."));
     } else if (!targetSourcePackages.isEmpty()) {
       getLog()
           .debug(
@@ -309,17 +500,16 @@ public class CheckMojo extends AbstractMojo {
                   + Joiner.on(", ").join(targetSourcePackages));
 
       final Predicate<Conflict> predicate =
-          conflict -> packageIsFiltered(targetSourcePackages, conflict.dependency().fromClass());
+          conflict -> sourceFilter.test(conflict.dependency().fromClass());
 
-      conflicts =
-          filterConflictsBy(
-              conflicts,
+      filters.add(
+          new ConflictFilter(
               predicate,
               num ->
                   num
                       + " conflicts found in targeted source packages. "
                       + "Run plugin again without the 'targetSourcePackages' parameter to see "
-                      + "all conflicts that were found.");
+                      + "all conflicts that were found."));
     }
 
     if (!ignoreDestinationPackages.isEmpty()) {
@@ -328,18 +518,16 @@ public class CheckMojo extends AbstractMojo {
               "Ignoring destination packages: " + Joiner.on(", ").join(ignoreDestinationPackages));
 
       final Predicate<Conflict> predicate =
-          conflict ->
-              !packageIsFiltered(ignoreDestinationPackages, conflict.dependency().targetClass());
+          conflict -> destinationFilter.test(conflict.dependency().targetClass());
 
-      conflicts =
-          filterConflictsBy(
-              conflicts,
+      filters.add(
+          new ConflictFilter(
               predicate,
               num ->
                   num
                       + " conflicts found in ignored destination packages. "
                       + "Run plugin again without the 'ignoreDestinationPackages' parameter to see "
-                      + "all conflicts that were found.");
+                      + "all conflicts that were found."));
     } else if (!targetDestinationPackages.isEmpty()) {
       getLog()
           .debug(
@@ -347,71 +535,72 @@ public class CheckMojo extends AbstractMojo {
                   + Joiner.on(", ").join(targetDestinationPackages));
 
       final Predicate<Conflict> predicate =
-          conflict ->
-              packageIsFiltered(targetDestinationPackages, conflict.dependency().targetClass());
+          conflict -> destinationFilter.test(conflict.dependency().targetClass());
 
-      conflicts =
-          filterConflictsBy(
-              conflicts,
+      filters.add(
+          new ConflictFilter(
               predicate,
               num ->
                   num
                       + " conflicts found in allowed targeted packages. "
                       + "Run plugin again without the 'targetDestinationPackages' parameter to see "
-                      + "all conflicts that were found.");
+                      + "all conflicts that were found."));
     }
 
-    return conflicts;
+    return filters;
   }
 
-  /**
-   * Repeated logic for filtering the collection of Conflicts based on a predicate.
-   *
-   * @param conflicts conflicts to filter
-   * @param predicate predicate to filter by
-   * @param logMessage a function that when give the difference in size between the original
-   *     collection and filtered collection, produces a message that will be logged as a warning to
-   *     the user.
-   * @return filtered conflicts
-   */
-  private Collection<Conflict> filterConflictsBy(
-      Collection<Conflict> conflicts,
-      Predicate<Conflict> predicate,
-      Function<Integer, String> logMessage) {
-
-    final Set<Conflict> filteredConflicts =
-        conflicts.stream().filter(predicate).collect(Collectors.toSet());
-
-    if (filteredConflicts.size() != conflicts.size()) {
-      final int diff = conflicts.size() - filteredConflicts.size();
-      getLog().warn(logMessage.apply(diff));
+  /** A filter that counts how many conflicts it removed, to tell the user about them. */
+  private static final class ConflictFilter {
+
+    private final Predicate<Conflict> predicate;
+    private final Function<Integer, String> logMessage;
+    private int removed;
+
+    /**
+     * @param predicate predicate to filter by
+     * @param logMessage a function that when given the number of conflicts removed by this filter,
+     *     produces a message that will be logged as a warning to the user.
+     */
+    ConflictFilter(Predicate<Conflict> predicate, Function<Integer, String> logMessage) {
+      this.predicate = predicate;
+      this.logMessage = logMessage;
     }
 
-    return filteredConflicts;
+    boolean keeps(Conflict conflict) {
+      if (predicate.test(conflict)) {
+        return true;
+      }
+      removed++;
+      return false;
+    }
   }
 
   /**
-   * Tests if the Conflict represented by this ClassTypeDescriptor (whether on the source-side or
-   * destination-side) is ignored based on the collection of IgnoredPackages. Reusable logic between
-   * ignoring source/destination packages.
+   * Compiles the ignored or the targeted packages, of which only one can be set, into a test of
+   * whether to look for conflicts involving a class.
    */
-  private boolean packageIsFiltered(
-      Collection<PackageFilter> packageFilters, ClassTypeDescriptor classTypeDescriptor) {
-    final String className = classTypeDescriptor.getClassName().replace('/', '.');
-    // this might be missing some corner-cases on naming rules:
-    final String conflictPackageName = className.substring(0, className.lastIndexOf('.'));
+  private static Predicate<ClassTypeDescriptor> packageFilter(
+      List<PackageFilter> ignoredPackages, List<PackageFilter> targetedPackages) {
+    if (!ignoredPackages.isEmpty()) {
+      final PackageMatcher matcher = packageMatcher(ignoredPackages);
+      return className -> !matcher.matches(className);
+    }
+    if (!targetedPackages.isEmpty()) {
+      return packageMatcher(targetedPackages)::matches;
+    }
+    return className -> true;
+  }
 
-    return packageFilters.stream()
-        .anyMatch(
-            p -> {
-              final String ignoredPackageName = p.getPackage();
-              return conflictPackageName.equals(ignoredPackageName)
-                  || (p.isFilterSubpackages()
-                      && conflictPackageName.startsWith(ignoredPackageName + "."));
-            });
+  private static PackageMatcher packageMatcher(List<PackageFilter> packageFilters) {
+    final PackageMatcher.Builder builder = PackageMatcher.builder();
+    for (PackageFilter packageFilter : packageFilters) {
+      builder.add(packageFilter.getPackage(), packageFilter.isFilterSubpackages());
+    }
+    return builder.build();
   }
 
-  private Collection<Conflict> loadArtifactsAndCheckConflicts() {
+  private void loadArtifactsAndCheckConflicts(ConflictSink sink) {
     // includes declared and transitive dependencies, anything in the scopes configured to be
     // included
     final List<org.apache.maven.artifact.Artifact> projectDeps =
@@ -424,42 +613,66 @@ public class CheckMojo extends AbstractMojo {
             "project dependencies: "
                 + projectDeps.stream().map(this::mavenCoordinates).collect(Collectors.toList()));
 
+    final ForkJoinPool pool = threadCount() > 1 ? ArtifactLoader.newPool(threadCount()) : null;
+    try {
+      loadArtifactsAndCheckConflicts(projectDeps, pool, sink);
+    } finally {
+      if (pool != null) {
+        pool.shutdown();
+      }
+    }
+  }
+
+  private int threadCount() {
+    return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+
+  private void loadArtifactsAndCheckConflicts(
+      List<org.apache.maven.artifact.Artifact> projectDeps, ForkJoinPool pool, ConflictSink sink) {
     Stopwatch stopwatch = Stopwatch.createStarted();
     // artifacts in runtime scope from the maven project (including transitives)
-    final ImmutableList<Artifact> runtimeProjectArtifacts = constructArtifacts(projectDeps);
+    final ImmutableList<Artifact> runtimeProjectArtifacts =
+        inPool(pool, () -> constructArtifacts(projectDeps));
     stopwatch.stop();
     getLog().debug("constructing runtime artifacts took: " + asMillis(stopwatch) + " ms");
 
+    stopwatch.start();
+    final Artifact projectArtifact = toArtifact(project.getBuild().getOutputDirectory());
+    stopwatch.stop();
+    metrics.phaseFinished(CheckPhase.LOAD, stopwatch.elapsed(TimeUnit.NANOSECONDS));
+
+    if (projectArtifact.classes().isEmpty()) {
+      getLog()
+          .warn(
+              "No classes found in project build directory"
+                  + " - did you run 'mvn compile' first?");
+    }
+
     // also need to load JDK classes from the bootstrap classpath
     final String bootstrapClasspath = bootClassPathToUse();
 
     stopwatch.reset().start();
 
-    final List<Artifact> bootstrapArtifacts = loadBootstrapArtifacts(bootstrapClasspath);
+    final List<Artifact> bootstrapArtifacts =
+        inPool(
+            pool,
+            () ->
+                loadBootstrapArtifacts(
+                    bootstrapClasspath, projectArtifact, runtimeProjectArtifacts));
 
     stopwatch.stop();
     getLog().debug("constructing bootstrap artifacts took: " + asMillis(stopwatch) + " ms");
+    metrics.phaseFinished(CheckPhase.BOOTSTRAP, stopwatch.elapsed(TimeUnit.NANOSECONDS));
 
-    final ImmutableList<Artifact> allArtifacts =
-        ImmutableList.<Artifact>builder()
-            .addAll(runtimeProjectArtifacts)
-            .addAll(bootstrapArtifacts)
-            .build();
+    final List<Artifact> allArtifacts =
+        CheckRunner.allArtifacts(runtimeProjectArtifacts, bootstrapArtifacts);
 
+    // kept in classpath order, which decides where duplicate classes are found
     final ImmutableList<Artifact> runtimeArtifactsAfterExclusions =
         ImmutableList.copyOf(
             runtimeProjectArtifacts.stream()
                 .filter(artifact -> !isExcluded(artifact))
-                .collect(Collectors.toSet()));
-
-    final Artifact projectArtifact = toArtifact(project.getBuild().getOutputDirectory());
-
-    if (projectArtifact.classes().isEmpty()) {
-      getLog()
-          .warn(
-              "No classes found in project build directory"
-                  + " - did you run 'mvn compile' first?");
-    }
+                .collect(Collectors.toList()));
 
     stopwatch.reset().start();
 
@@ -469,25 +682,98 @@ public class CheckMojo extends AbstractMojo {
       getLog().debug("    " + artifact.name().name());
     }
 
-    final Collection<Conflict> conflicts =
-        conflictChecker.check(projectArtifact, runtimeArtifactsAfterExclusions, allArtifacts);
+    ConflictChecker checker = conflictChecker;
+    if (incrementalState != null) {
+      if (incrementalState.dependencies(dependencyFingerprint(projectDeps, bootstrapClasspath))) {
+        getLog()
+            .debug(
+                "skipping "
+                    + incrementalState.cleanMethodCount()
+                    + " methods found to have no conflicts in the previous run");
+      } else {
+        getLog().info("Dependencies changed since the previous run, checking all of them");
+      }
+      checker = checker.withIncrementalState(incrementalState);
+    }
+    final ConflictChecker finalChecker = checker;
+    inPool(
+        pool,
+        () -> {
+          finalChecker.check(projectArtifact, runtimeArtifactsAfterExclusions, allArtifacts, sink);
+          return null;
+        });
 
     stopwatch.stop();
     getLog().debug("conflict checking took: " + asMillis(stopwatch) + " ms");
 
-    getLog().debug(conflicts.size() + " total conflicts found");
-    return conflicts;
+    if (incrementalState != null) {
+      try {
+        incrementalState.save(incrementalStateFile());
+      } catch (IOException e) {
+        getLog().warn("Could not save the state for the next incremental run", e);
+      }
+    }
   }
 
-  private List<Artifact> loadBootstrapArtifacts(final String bootstrapClasspath) {
+  private List<Artifact> loadBootstrapArtifacts(
+      final String bootstrapClasspath,
+      Artifact projectArtifact,
+      List<Artifact> runtimeProjectArtifacts) {
     if (bootstrapClasspath == null) {
-      return Java9ModuleLoader.getJava9ModuleArtifacts((s, ex) -> getLog().warn(s, ex));
+      Set<String> referencedPackages = null;
+      if (referencedJdkModulesOnly) {
+        referencedPackages =
+            Java9ModuleLoader.referencedPackages(projectArtifact, runtimeProjectArtifacts);
+      }
+      final List<Artifact> modules =
+          Java9ModuleLoader.getJava9ModuleArtifacts(
+              (s, ex) -> getLog().warn(s, ex), artifactCache, referencedPackages, true, metrics);
+      getLog()
+          .debug(
+              "loaded JDK modules: "
+                  + modules.stream().map(m -> m.name().name()).collect(Collectors.toList()));
+      return modules;
     } else {
       return constructArtifacts(
           Arrays.<String>asList(bootstrapClasspath.split(System.getProperty("path.separator"))));
     }
   }
 
+  private File incrementalStateFile() {
+    return new File(project.getBuild().getDirectory(), "missinglink/incremental-state.bin");
+  }
+
+  /**
+   * Identifies everything the classes of the dependencies are checked against, so that the methods
+   * found clean in an incremental run are only trusted as long as none of it changes.
+   */
+  private String dependencyFingerprint(
+      List<org.apache.maven.artifact.Artifact> projectDeps, String bootstrapClasspath) {
+    final StringBuilder sb = new StringBuilder();
+    for (org.apache.maven.artifact.Artifact dep : projectDeps) {
+      final File file = dep.getFile();
+      sb.append(mavenCoordinates(dep))
+          .append(' ')
+          .append(isExcluded(dep.getGroupId(), dep.getArtifactId()))
+          .append(' ')
+          .append(file == null ? "" : file.getAbsolutePath())
+          .append(' ')
+          .append(file == null ? 0 : file.length())
+          .append(' ')
+          .append(file == null ? 0 : file.lastModified())
+          .append('\n');
+    }
+    sb.append(bootstrapClasspath)
+        .append('\n')
+        .append(System.getProperty("java.home"))
+        .append(' ')
+        .append(System.getProperty("java.runtime.version"))
+        .append(' ')
+        .append(referencedJdkModulesOnly)
+        .append('\n');
+    return Hashing.sha256().hashString(sb, StandardCharsets.UTF_8).toString();
+  }
+
   private String bootClassPathToUse() {
     if (this.bootClasspath != null) {
       getLog().debug("using configured boot classpath: " + this.bootClasspath);
@@ -522,16 +808,18 @@ public class CheckMojo extends AbstractMojo {
   private boolean isExcluded(Artifact artifact) {
     if (artifact.name() instanceof MavenArtifactName) {
       MavenArtifactName name = (MavenArtifactName) artifact.name();
-      // excluded if the exclusions lists contains a match
-      return excludeDependencies.stream()
-          .anyMatch(
-              excl ->
-                  excl.getGroupId().equals(name.groupId())
-                      && excl.getArtifactId().equals(name.artifactId()));
+      return isExcluded(name.groupId(), name.artifactId());
     }
     return false;
   }
 
+  private boolean isExcluded(String groupId, String artifactId) {
+    // excluded if the exclusions lists contains a match
+    return excludeDependencies.stream()
+        .anyMatch(
+            excl -> excl.getGroupId().equals(groupId) && excl.getArtifactId().equals(artifactId));
+  }
+
   private static long asMillis(Stopwatch stopwatch) {
     return stopwatch.elapsed(TimeUnit.MILLISECONDS);
   }
@@ -599,27 +887,55 @@ public class CheckMojo extends AbstractMojo {
 
   @SuppressWarnings("UnstableApiUsage")
   private Artifact toArtifact(String outputDirectory) {
-    return new ArtifactBuilder()
-        .name(new ArtifactName("project"))
-        .classes(
-            FluentIterable.from(Files.fileTraverser().breadthFirst(new File(outputDirectory)))
-                .filter(f -> f.getName().endsWith(".class"))
-                .transform(this::loadClass)
-                .uniqueIndex(DeclaredClass::className))
-        .build();
+    final File root = new File(outputDirectory);
+    final Artifact artifact =
+        new ArtifactBuilder()
+            .name(new ArtifactName("project"))
+            .classes(
+                FluentIterable.from(Files.fileTraverser().breadthFirst(root))
+                    .filter(f -> f.getName().endsWith(".class"))
+                    .transform(f -> loadClass(root, f))
+                    .uniqueIndex(DeclaredClass::className))
+            .build();
+    if (incrementalState != null) {
+      getLog()
+          .debug(
+              "reused "
+                  + incrementalState.reusedClassFiles()
+                  + " of "
+                  + artifact.classes().size()
+                  + " project classes from the previous run");
+    }
+    return artifact;
   }
 
-  private DeclaredClass loadClass(File f) {
+  private DeclaredClass loadClass(File root, File f) {
     try {
+      if (incrementalState != null) {
+        final String path = root.toPath().relativize(f.toPath()).toString();
+        return incrementalState.loadClass(path, Files.toByteArray(f));
+      }
+      metrics.classParsed((int) f.length());
       return com.spotify.missinglink.ClassLoader.load(new FileInputStream(f));
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
   }
 
+  /**
+   * Runs the supplier on the pool, if there is one. Parallel streams started by the supplier (and
+   * by the ArtifactLoader) then use the threads of the pool rather than the common pool.
+   */
+  private static <T> T inPool(ForkJoinPool pool, Supplier<T> supplier) {
+    if (pool == null) {
+      return supplier.get();
+    }
+    return pool.submit(supplier::get).join();
+  }
+
   private ImmutableList<Artifact> constructArtifacts(Iterable<String> entries) {
     final List<Artifact> list =
-        StreamSupport.stream(entries.spliterator(), false)
+        StreamSupport.stream(entries.spliterator(), ForkJoinTask.inForkJoinPool())
             // don't inspect paths that don't exist.
             // some bootclasspath entries, like sunrsasign.jar, are reported even if they
             // don't exist on disk - ¯\_(ツ)_/¯
@@ -651,16 +967,17 @@ public class CheckMojo extends AbstractMojo {
       List<org.apache.maven.artifact.Artifact> mavenDeps) {
 
     final List<Artifact> list =
-        mavenDeps.stream()
+        (ForkJoinTask.inForkJoinPool() ? mavenDeps.parallelStream() : mavenDeps.stream())
             .filter(this::filterValidClasspathEntries)
             .map(this::mavenDepToArtifact)
             .collect(Collectors.toList());
     return ImmutableList.copyOf(list);
   }
 
+  // only used for the bootstrap classpath, whose method bodies are never checked
   private Artifact filepathToArtifact(String path) {
     getLog().debug("loading artifact for path: " + path);
-    return doArtifactLoad(() -> artifactLoader.load(new File(path)));
+    return doArtifactLoad(() -> artifactLoader.loadDeclarations(new File(path)));
   }
 
   private Artifact mavenDepToArtifact(org.apache.maven.artifact.Artifact dep) {
@@ -670,6 +987,10 @@ public class CheckMojo extends AbstractMojo {
     final MavenArtifactName name =
         new MavenArtifactName(dep.getGroupId(), dep.getArtifactId(), dep.getVersion());
 
+    // excluded dependencies are never checked, only the classes they declare are needed
+    if (isExcluded(dep.getGroupId(), dep.getArtifactId())) {
+      return doArtifactLoad(() -> artifactLoader.loadDeclarations(name, path));
+    }
     return doArtifactLoad(() -> artifactLoader.load(name, path));
   }
 
@@ -39,6 +39,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -49,11 +51,14 @@ import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
 import com.spotify.missinglink.ArtifactLoader;
+import com.spotify.missinglink.CheckListener;
 import com.spotify.missinglink.Conflict;
 import com.spotify.missinglink.Conflict.ConflictCategory;
 import com.spotify.missinglink.ConflictBuilder;
 import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.ConflictSink;
 import com.spotify.missinglink.datamodel.Artifact;
 import com.spotify.missinglink.datamodel.ArtifactBuilder;
 import com.spotify.missinglink.datamodel.ArtifactName;
@@ -68,6 +73,12 @@ import com.spotify.missinglink.datamodel.MethodDependencyBuilder;
 import com.spotify.missinglink.datamodel.MethodDescriptorBuilder;
 import com.spotify.missinglink.datamodel.TypeDescriptors;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import org.apache.maven.artifact.DefaultArtifact;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -79,6 +90,7 @@ import org.hamcrest.TypeSafeMatcher;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
 /**
@@ -103,6 +115,8 @@ public class CheckMojoTest {
 
   @Rule public TestResources resources = new TestResources();
 
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
   private final ArtifactLoader artifactLoader = mock(ArtifactLoader.class);
   private final ConflictChecker conflictChecker = mock(ConflictChecker.class);
 
@@ -116,6 +130,7 @@ public class CheckMojoTest {
             .classes(ImmutableMap.<ClassTypeDescriptor, DeclaredClass>of())
             .build();
     when(artifactLoader.load(any(File.class))).thenReturn(emptyArtifact);
+    when(artifactLoader.loadDeclarations(any(File.class))).thenReturn(emptyArtifact);
 
     when(artifactLoader.load(any(ArtifactName.class), any(File.class)))
         .thenAnswer(
@@ -123,12 +138,29 @@ public class CheckMojoTest {
                 ArtifactBuilder.from(emptyArtifact)
                     .name((ArtifactName) invocation.getArguments()[0])
                     .build());
+    when(artifactLoader.loadDeclarations(any(ArtifactName.class), any(File.class)))
+        .thenAnswer(
+            invocation ->
+                ArtifactBuilder.from(emptyArtifact)
+                    .name((ArtifactName) invocation.getArguments()[0])
+                    .build());
 
     setMockConflictResults(ImmutableList.of());
   }
 
   private void setMockConflictResults(ImmutableList<Conflict> results) {
-    when(conflictChecker.check(any(Artifact.class), anyList(), anyList())).thenReturn(results);
+    doAnswer(
+            invocation -> {
+              final ConflictSink sink = invocation.getArgument(3);
+              for (Conflict conflict : results) {
+                if (!sink.accept(conflict)) {
+                  break;
+                }
+              }
+              return null;
+            })
+        .when(conflictChecker)
+        .check(any(Artifact.class), anyList(), anyList(), any(ConflictSink.class));
   }
 
   private CheckMojo getMojo(String dirName) throws Exception {
@@ -239,17 +271,34 @@ public class CheckMojoTest {
     assertThat(ex.getMessage()).contains("conflicts found");
   }
 
+  @Test
+  public void stopsCheckingAtMaxConflicts() throws Exception {
+    setMockConflictResults(
+        mockConflicts(
+            ConflictCategory.CLASS_NOT_FOUND,
+            ConflictCategory.METHOD_SIGNATURE_NOT_FOUND,
+            ConflictCategory.FIELD_NOT_FOUND));
+
+    CheckMojo mojo = getMojo("fail-on-warning");
+    mojo.maxConflicts = 2;
+
+    MojoFailureException ex = assertThrows(MojoFailureException.class, mojo::execute);
+
+    assertThat(ex.getMessage()).startsWith("2 class/method conflicts found");
+  }
+
   /**
    * The plugin should fail, and not attempt to check conflicts, if the includeCategories
    * configuration has bad values in it.
    */
   @Test
   public void testBadValuesForIncludeCategories() throws Exception {
-    when(conflictChecker.check(any(Artifact.class), anyList(), anyList()))
-        .thenThrow(
+    doThrow(
             new RuntimeException(
                 "Mojo should not get as far as checking conflicts if the "
-                    + "configuration is bad!"));
+                    + "configuration is bad!"))
+        .when(conflictChecker)
+        .check(any(Artifact.class), anyList(), anyList(), any(ConflictSink.class));
 
     CheckMojo mojo = getMojo("include-categories-bad-values");
 
@@ -284,11 +333,26 @@ public class CheckMojoTest {
 
     ArgumentCaptor<ImmutableList> toCheck = ArgumentCaptor.forClass(ImmutableList.class);
 
-    verify(conflictChecker).check(any(Artifact.class), toCheck.capture(), anyList());
+    verify(conflictChecker)
+        .check(any(Artifact.class), toCheck.capture(), anyList(), any(ConflictSink.class));
 
     assertThat(toCheck.getValue()).isEmpty();
   }
 
+  @Test
+  public void testExcludedArtifactsOnlyLoadDeclarations() throws Exception {
+    final CheckMojo mojo = getMojo("exclude-dependencies");
+
+    setupProvidedArtifact(mojo);
+    mojo.includeScopes.add(Scope.provided);
+
+    mojo.execute();
+
+    verify(artifactLoader).loadDeclarations(argThat(hasId("bizbat")), any(File.class));
+    verify(artifactLoader, never()).load(argThat(hasId("bizbat")), any(File.class));
+    verify(artifactLoader).load(argThat(hasId("boobaz")), any(File.class));
+  }
+
   /**
    * Test that an instance of the mojo configured with failOnConflicts=true does not actually fail
    * when the conflict found is in one of the ignoreSourcePackages.
@@ -433,7 +497,57 @@ public class CheckMojoTest {
 
     mojo.execute();
 
-    verify(artifactLoader).load(new File(testPath));
+    verify(artifactLoader).loadDeclarations(new File(testPath));
+  }
+
+  /**
+   * With lazy loading, the dependencies the mojo hands to the checker must not have been parsed
+   * along the way, for instance by hashing them.
+   */
+  @Test
+  public void testLazyLoadingLeavesDependenciesUnparsed() throws Exception {
+    final AtomicInteger parsed = new AtomicInteger();
+    final CheckMojo mojo = getMojo("simple-test");
+    mojo.artifactLoader =
+        new ArtifactLoader(
+            null,
+            true,
+            new CheckListener() {
+              @Override
+              public void classParsed(int bytes) {
+                parsed.incrementAndGet();
+              }
+            });
+    mojo.bootClasspath = jarOf(folder.newFile("boot.jar")).getPath();
+
+    final org.apache.maven.artifact.Artifact dependency =
+        new DefaultArtifact("com.foobar", "bizbat", "1.2.3", "compile", "jar", "", null);
+    dependency.setFile(
+        jarOf(folder.newFile("bizbat.jar"), CheckMojoTest.class, MavenArtifactNameTest.class));
+    mojo.project.setArtifacts(ImmutableSet.of(dependency));
+
+    mojo.execute();
+
+    ArgumentCaptor<ImmutableList> toCheck = ArgumentCaptor.forClass(ImmutableList.class);
+    verify(conflictChecker)
+        .check(any(Artifact.class), toCheck.capture(), anyList(), any(ConflictSink.class));
+    assertThat(toCheck.getValue()).hasSize(1);
+    assertThat(((Artifact) toCheck.getValue().get(0)).classes()).hasSize(2);
+    assertThat(parsed.get()).isZero();
+  }
+
+  private static File jarOf(File file, Class<?>... classes) throws IOException {
+    try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+      for (Class<?> type : classes) {
+        final String entry = type.getName().replace('.', '/') + ".class";
+        out.putNextEntry(new JarEntry(entry));
+        try (InputStream in = type.getClassLoader().getResourceAsStream(entry)) {
+          ByteStreams.copy(in, out);
+        }
+        out.closeEntry();
+      }
+    }
+    return file;
   }
 
   @Test
@@ -0,0 +1,212 @@
+/*-
+ * -\-\-
+ * missinglink-server
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.server;
+
+import com.spotify.missinglink.Conflict.ConflictCategory;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A check sent by the client to the server. On the wire it is plain text, one setting per line
+ * written as a key and a value separated by a space:
+ *
+ * <pre>
+ * project /path/to/target/classes
+ * classpath /path/to/dependency-1.jar
+ * classpath /path/to/dependency-2.jar
+ * methodReachability true
+ * category CLASS_NOT_FOUND
+ * maxConflicts 100
+ * </pre>
+ *
+ * <p>The classpath lines are in classpath order. Without category lines all categories are checked,
+ * and a maxConflicts of 0 means no limit.
+ */
+public final class CheckRequest {
+
+  private final File project;
+  private final List<File> classpath;
+  private final boolean methodReachability;
+  private final Set<ConflictCategory> categories;
+  private final int maxConflicts;
+
+  public CheckRequest(
+      File project,
+      List<File> classpath,
+      boolean methodReachability,
+      Set<ConflictCategory> categories,
+      int maxConflicts) {
+    this.project = Objects.requireNonNull(project, "project");
+    this.classpath = Collections.unmodifiableList(new ArrayList<>(classpath));
+    this.methodReachability = methodReachability;
+    this.categories =
+        Collections.unmodifiableSet(
+            categories.isEmpty()
+                ? EnumSet.allOf(ConflictCategory.class)
+                : EnumSet.copyOf(categories));
+    if (maxConflicts < 0) {
+      throw new IllegalArgumentException("maxConflicts must not be negative: " + maxConflicts);
+    }
+    this.maxConflicts = maxConflicts;
+  }
+
+  public File project() {
+    return project;
+  }
+
+  public List<File> classpath() {
+    return classpath;
+  }
+
+  public boolean methodReachability() {
+    return methodReachability;
+  }
+
+  public Set<ConflictCategory> categories() {
+    return categories;
+  }
+
+  public int maxConflicts() {
+    return maxConflicts;
+  }
+
+  /**
+   * Parses a request in the format described above.
+   *
+   * @throws IllegalArgumentException if a line is not understood, or there is no project
+   */
+  public static CheckRequest parse(String text) {
+    File project = null;
+    final List<File> classpath = new ArrayList<>();
+    boolean methodReachability = true;
+    final Set<ConflictCategory> categories = EnumSet.noneOf(ConflictCategory.class);
+    int maxConflicts = 0;
+
+    for (String line : text.split("\r?\n")) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      final int space = line.indexOf(' ');
+      if (space < 0) {
+        throw new IllegalArgumentException("Expected a key and a value: " + line);
+      }
+      final String key = line.substring(0, space);
+      final String value = line.substring(space + 1);
+      switch (key) {
+        case "project":
+          project = new File(value);
+          break;
+        case "classpath":
+          classpath.add(new File(value));
+          break;
+        case "methodReachability":
+          methodReachability = Boolean.parseBoolean(value);
+          break;
+        case "category":
+          categories.add(ConflictCategory.valueOf(value));
+          break;
+        case "maxConflicts":
+          maxConflicts = Integer.parseInt(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown key: " + key);
+      }
+    }
+
+    if (project == null) {
+      throw new IllegalArgumentException("No project in request");
+    }
+    return new CheckRequest(project, classpath, methodReachability, categories, maxConflicts);
+  }
+
+  /** Writes the request in the format read by {@link #parse}. */
+  public String serialize() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("project ").append(project.getPath()).append('\n');
+    for (File file : classpath) {
+      sb.append("classpath ").append(file.getPath()).append('\n');
+    }
+    sb.append("methodReachability ").append(methodReachability).append('\n');
+    if (!categories.equals(EnumSet.allOf(ConflictCategory.class))) {
+      for (ConflictCategory category : categories) {
+        sb.append("category ").append(category.name()).append('\n');
+      }
+    }
+    sb.append("maxConflicts ").append(maxConflicts).append('\n');
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final CheckRequest that = (CheckRequest) o;
+    return methodReachability == that.methodReachability
+        && maxConflicts == that.maxConflicts
+        && project.equals(that.project)
+        && classpath.equals(that.classpath)
+        && categories.equals(that.categories);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(project, classpath, methodReachability, categories, maxConflicts);
+  }
+
+  @Override
+  public String toString() {
+    return "CheckRequest{project="
+        + project
+        + ", classpath="
+        + classpath.size()
+        + " entries, methodReachability="
+        + methodReachability
+        + ", categories="
+        + categories
+        + ", maxConflicts="
+        + maxConflicts
+        + "}";
+  }
+}
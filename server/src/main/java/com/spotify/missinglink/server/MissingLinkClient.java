@@ -0,0 +1,188 @@
+/*-
+ * -\-\-
+ * missinglink-server
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.spotify.missinglink.ClassLoader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sends checks to a running {@link MissingLinkServer}. From the command line it takes the project
+ * classes and the classpath, prints the conflicts found and exits with status 1 if there were any,
+ * so that it can be used in place of a full check in scripts and editors.
+ */
+public final class MissingLinkClient {
+
+  private final int port;
+
+  public MissingLinkClient(int port) {
+    this.port = port;
+  }
+
+  /** Returns a client for the server whose port is written in the file. */
+  public static MissingLinkClient fromPortFile(File portFile) throws IOException {
+    final String port = new String(Files.readAllBytes(portFile.toPath()), UTF_8).trim();
+    return new MissingLinkClient(Integer.parseInt(port));
+  }
+
+  /** Runs a check on the server, and returns the conflicts found as printed by it. */
+  public List<String> check(CheckRequest request) throws IOException {
+    final HttpURLConnection connection = post("/check", request.serialize());
+    final String body = readBody(connection);
+    final String count = connection.getHeaderField(MissingLinkServer.CONFLICTS_HEADER);
+    if (count == null || Integer.parseInt(count) == 0) {
+      return Collections.emptyList();
+    }
+    final List<String> conflicts = new ArrayList<>();
+    for (String line : body.split("\n")) {
+      if (!line.isEmpty()) {
+        conflicts.add(line);
+      }
+    }
+    return conflicts;
+  }
+
+  /** Returns the status of the server, as printed by it. */
+  public String status() throws IOException {
+    final HttpURLConnection connection = open("/status");
+    return readBody(connection);
+  }
+
+  /** Asks the server to stop. */
+  public void shutdown() throws IOException {
+    readBody(post("/shutdown", ""));
+  }
+
+  private HttpURLConnection open(String path) throws IOException {
+    final URL url = new URL("http", "127.0.0.1", port, path);
+    return (HttpURLConnection) url.openConnection();
+  }
+
+  private HttpURLConnection post(String path, String body) throws IOException {
+    final HttpURLConnection connection = open(path);
+    connection.setRequestMethod("POST");
+    connection.setDoOutput(true);
+    final byte[] bytes = body.getBytes(UTF_8);
+    connection.setFixedLengthStreamingMode(bytes.length);
+    final OutputStream out = connection.getOutputStream();
+    try {
+      out.write(bytes);
+    } finally {
+      out.close();
+    }
+    return connection;
+  }
+
+  private static String readBody(HttpURLConnection connection) throws IOException {
+    final int status = connection.getResponseCode();
+    final InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+    final String body;
+    if (in == null) {
+      body = "";
+    } else {
+      try {
+        body = new String(ClassLoader.readFully(in), UTF_8);
+      } finally {
+        in.close();
+      }
+    }
+    if (status >= 400) {
+      throw new IOException("Server responded with " + status + ": " + body.trim());
+    }
+    return body;
+  }
+
+  /**
+   * Usage: {@code MissingLinkClient <project> [classpath]} to check, where the classpath is
+   * separated like the java classpath, or {@code MissingLinkClient status|shutdown}. The port is
+   * read from ~/.missinglink/server.port unless the missinglink.portFile system property says
+   * otherwise.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: MissingLinkClient <project classes> [classpath]");
+      System.err.println("       MissingLinkClient status|shutdown");
+      System.exit(2);
+    }
+    final String portFile = System.getProperty("missinglink.portFile");
+    final MissingLinkClient client =
+        fromPortFile(portFile != null ? new File(portFile) : MissingLinkServer.DEFAULT_PORT_FILE);
+
+    if (args.length == 1 && "status".equals(args[0])) {
+      System.out.print(client.status());
+      return;
+    }
+    if (args.length == 1 && "shutdown".equals(args[0])) {
+      client.shutdown();
+      return;
+    }
+
+    final List<File> classpath = new ArrayList<>();
+    if (args.length == 2) {
+      for (String path : args[1].split(File.pathSeparator)) {
+        if (!path.isEmpty()) {
+          classpath.add(new File(path).getAbsoluteFile());
+        }
+      }
+    }
+    final CheckRequest request =
+        new CheckRequest(
+            new File(args[0]).getAbsoluteFile(),
+            classpath,
+            Boolean.parseBoolean(System.getProperty("missinglink.methodReachability", "true")),
+            Collections.emptySet(),
+            Integer.getInteger("missinglink.maxConflicts", 0));
+
+    final List<String> conflicts = client.check(request);
+    for (String conflict : conflicts) {
+      System.out.println(conflict);
+    }
+    if (!conflicts.isEmpty()) {
+      System.err.println(conflicts.size() + " conflicts found");
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,322 @@
+/*-
+ * -\-\-
+ * missinglink-server
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.server;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.spotify.missinglink.ArtifactLoader;
+import com.spotify.missinglink.CheckRunner;
+import com.spotify.missinglink.ClassLoader;
+import com.spotify.missinglink.Conflict;
+import com.spotify.missinglink.ConflictChecker;
+import com.spotify.missinglink.ConflictSink;
+import com.spotify.missinglink.MemoryArtifactCache;
+import com.spotify.missinglink.PrettyPrinter;
+import com.spotify.missinglink.datamodel.Artifact;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the classpath model warm between checks. The JDK classes are loaded once at startup, and
+ * the classes of every jar are kept in a {@link MemoryArtifactCache} until the jar changes on disk,
+ * so a check only pays for parsing what is new since the last one.
+ *
+ * <p>The server listens on the loopback interface only, and speaks plain HTTP:
+ *
+ * <ul>
+ *   <li>{@code POST /check} with a {@link CheckRequest} as body. The response lists the conflicts
+ *       found, one per line, and their number in the {@value #CONFLICTS_HEADER} header.
+ *   <li>{@code GET /status} describes what the server keeps in memory.
+ *   <li>{@code POST /shutdown} stops the server.
+ * </ul>
+ *
+ * <p>Checks run one at a time, each using all threads of the server's pool.
+ */
+public final class MissingLinkServer {
+
+  /** The response header holding the number of conflicts found. */
+  public static final String CONFLICTS_HEADER = "X-Missinglink-Conflicts";
+
+  /** Where the port of a server started from the command line is written by default. */
+  public static final File DEFAULT_PORT_FILE =
+      new File(System.getProperty("user.home"), ".missinglink/server.port");
+
+  private final MemoryArtifactCache cache;
+  private final ArtifactLoader loader;
+  private final ForkJoinPool pool;
+  private final CountDownLatch stopped = new CountDownLatch(1);
+  // only serializes checks, so that the status can be read while a check runs
+  private final Object checkLock = new Object();
+  private final AtomicLong checks = new AtomicLong();
+
+  private List<Artifact> bootstrapArtifacts;
+  private HttpServer httpServer;
+  private ExecutorService httpExecutor;
+  private volatile long startedAt;
+
+  /**
+   * @param cacheDirectory where the classes of jars are also cached on disk, to survive restarts,
+   *     or null to only keep them in memory
+   * @param threads the number of threads to load and check with
+   */
+  public MissingLinkServer(File cacheDirectory, int threads) {
+    this.cache = new MemoryArtifactCache(cacheDirectory);
+    this.loader = new ArtifactLoader(cache);
+    this.pool = ArtifactLoader.newPool(threads);
+  }
+
+  /**
+   * Loads the JDK classes and starts listening on the loopback interface.
+   *
+   * @param port the port to listen on, or 0 to pick a free one
+   * @return the port listened on
+   */
+  public synchronized int start(int port) throws IOException {
+    if (httpServer != null) {
+      throw new IllegalStateException("Already started");
+    }
+    bootstrapArtifacts = inPool(() -> CheckRunner.loadBootstrapArtifacts(loader, cache));
+
+    httpServer =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    httpExecutor = Executors.newCachedThreadPool();
+    httpServer.setExecutor(httpExecutor);
+    httpServer.createContext("/check", this::handleCheck);
+    httpServer.createContext("/status", this::handleStatus);
+    httpServer.createContext("/shutdown", this::handleShutdown);
+    httpServer.start();
+    startedAt = System.currentTimeMillis();
+    return httpServer.getAddress().getPort();
+  }
+
+  /** Stops listening and releases the threads and the cached classes. */
+  public synchronized void stop() {
+    if (httpServer != null) {
+      httpServer.stop(0);
+      httpExecutor.shutdown();
+      httpServer = null;
+    }
+    pool.shutdown();
+    cache.clear();
+    stopped.countDown();
+  }
+
+  /** Blocks until the server is stopped, locally or with a shutdown request. */
+  public void awaitStop() throws InterruptedException {
+    stopped.await();
+  }
+
+  /**
+   * Runs a check against the warm model; this is what {@code POST /check} does.
+   *
+   * @return the conflicts found, at most {@link CheckRequest#maxConflicts()} of them if not 0
+   */
+  public List<Conflict> check(CheckRequest request) throws IOException {
+    final ConflictChecker checker =
+        new ConflictChecker()
+            .withMethodReachability(request.methodReachability())
+            .withParallelChecking(true)
+            .withCategories(request.categories());
+    final CheckRunner runner =
+        new CheckRunner(loader, checker).withBootstrapArtifacts(bootstrapArtifacts);
+
+    final List<Conflict> conflicts = new ArrayList<>();
+    ConflictSink sink = conflicts::add;
+    if (request.maxConflicts() > 0) {
+      sink = sink.limit(request.maxConflicts());
+    }
+    final ConflictSink finalSink = sink;
+
+    synchronized (checkLock) {
+      checks.incrementAndGet();
+      inPool(
+          () -> {
+            runner.run(request.project(), request.classpath(), finalSink);
+            return null;
+          });
+    }
+    return conflicts;
+  }
+
+  private <T> T inPool(Callable<T> task) throws IOException {
+    try {
+      return pool.submit(task).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private void handleCheck(HttpExchange exchange) throws IOException {
+    if (!"POST".equals(exchange.getRequestMethod())) {
+      respond(exchange, 405, "Use POST\n");
+      return;
+    }
+    final CheckRequest request;
+    try {
+      request =
+          CheckRequest.parse(new String(ClassLoader.readFully(exchange.getRequestBody()), UTF_8));
+    } catch (IllegalArgumentException e) {
+      respond(exchange, 400, e.getMessage() + "\n");
+      return;
+    }
+
+    final List<Conflict> conflicts;
+    try {
+      conflicts = check(request);
+    } catch (IOException | RuntimeException e) {
+      respond(exchange, 500, "Check failed: " + e + "\n");
+      return;
+    }
+
+    final StringBuilder body = new StringBuilder();
+    for (Conflict conflict : conflicts) {
+      body.append(PrettyPrinter.conflict(conflict)).append('\n');
+    }
+    exchange.getResponseHeaders().set(CONFLICTS_HEADER, Integer.toString(conflicts.size()));
+    respond(exchange, 200, body.toString());
+  }
+
+  private void handleStatus(HttpExchange exchange) throws IOException {
+    final String body =
+        "uptimeSeconds "
+            + TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - startedAt)
+            + "\nchecks "
+            + checks.get()
+            + "\ncachedArtifacts "
+            + cache.size()
+            + "\nbootstrapArtifacts "
+            + bootstrapArtifacts.size()
+            + "\nthreads "
+            + pool.getParallelism()
+            + "\n";
+    respond(exchange, 200, body);
+  }
+
+  private void handleShutdown(HttpExchange exchange) throws IOException {
+    if (!"POST".equals(exchange.getRequestMethod())) {
+      respond(exchange, 405, "Use POST\n");
+      return;
+    }
+    respond(exchange, 200, "Stopping\n");
+    // stop from another thread, since stopping waits for the exchanges in flight
+    final Thread stopper = new Thread(this::stop, "missinglink-server-stop");
+    stopper.start();
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    final byte[] bytes = body.getBytes(UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    final OutputStream out = exchange.getResponseBody();
+    try {
+      out.write(bytes);
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Starts a server and writes its port to a file, where {@link MissingLinkClient} looks for it.
+   * The options are given as name=value: port (default 0, any free port), portFile (default
+   * ~/.missinglink/server.port), cacheDirectory (default none) and threads (default the number of
+   * processors).
+   */
+  public static void main(String[] args) throws Exception {
+    int port = 0;
+    File portFile = DEFAULT_PORT_FILE;
+    File cacheDirectory = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    for (String arg : args) {
+      final int equals = arg.indexOf('=');
+      if (equals < 0) {
+        throw new IllegalArgumentException("Expected name=value: " + arg);
+      }
+      final String name = arg.substring(0, equals);
+      final String value = arg.substring(equals + 1);
+      switch (name) {
+        case "port":
+          port = Integer.parseInt(value);
+          break;
+        case "portFile":
+          portFile = new File(value);
+          break;
+        case "cacheDirectory":
+          cacheDirectory = new File(value);
+          break;
+        case "threads":
+          threads = Integer.parseInt(value);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option: " + name);
+      }
+    }
+
+    final MissingLinkServer server = new MissingLinkServer(cacheDirectory, threads);
+    final int boundPort = server.start(port);
+    final File portFileToDelete = portFile;
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> portFileToDelete.delete()));
+    if (portFile.getParentFile() != null) {
+      Files.createDirectories(portFile.getParentFile().toPath());
+    }
+    Files.write(portFile.toPath(), Integer.toString(boundPort).getBytes(UTF_8));
+    System.out.println("missinglink server listening on 127.0.0.1:" + boundPort);
+    server.awaitStop();
+    Files.deleteIfExists(portFile.toPath());
+  }
+}
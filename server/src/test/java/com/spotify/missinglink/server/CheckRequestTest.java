@@ -0,0 +1,101 @@
+/*-
+ * -\-\-
+ * missinglink-server
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.spotify.missinglink.Conflict.ConflictCategory;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.junit.Test;
+
+public class CheckRequestTest {
+
+  @Test
+  public void testRoundTrip() {
+    final CheckRequest request =
+        new CheckRequest(
+            new File("/project/target/classes"),
+            Arrays.asList(new File("/repo/a.jar"), new File("/repo/dir with spaces/b.jar")),
+            false,
+            EnumSet.of(ConflictCategory.CLASS_NOT_FOUND, ConflictCategory.FIELD_NOT_FOUND),
+            10);
+
+    assertThat(CheckRequest.parse(request.serialize())).isEqualTo(request);
+  }
+
+  @Test
+  public void testDefaults() {
+    final CheckRequest request = CheckRequest.parse("project /project/target/classes\n");
+
+    assertThat(request.project()).isEqualTo(new File("/project/target/classes"));
+    assertThat(request.classpath()).isEmpty();
+    assertThat(request.methodReachability()).isTrue();
+    assertThat(request.categories()).isEqualTo(EnumSet.allOf(ConflictCategory.class));
+    assertThat(request.maxConflicts()).isZero();
+  }
+
+  @Test
+  public void testClasspathOrderIsKept() {
+    final CheckRequest request =
+        CheckRequest.parse("classpath /b.jar\nproject /classes\nclasspath /a.jar\n");
+
+    assertThat(request.classpath()).containsExactly(new File("/b.jar"), new File("/a.jar"));
+  }
+
+  @Test
+  public void testMissingProject() {
+    assertThrows(IllegalArgumentException.class, () -> CheckRequest.parse("classpath /a.jar\n"));
+  }
+
+  @Test
+  public void testUnknownKey() {
+    assertThrows(
+        IllegalArgumentException.class, () -> CheckRequest.parse("project /classes\nfoo bar\n"));
+  }
+
+  @Test
+  public void testNegativeMaxConflicts() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new CheckRequest(
+                new File("/classes"), Collections.emptyList(), true, Collections.emptySet(), -1));
+  }
+}
@@ -0,0 +1,99 @@
+/*-
+ * -\-\-
+ * missinglink-server
+ * --
+ * Copyright (C) 2016 - 2021 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+
+/*
+ * Copyright (c) 2026 Spotify AB
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.spotify.missinglink.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MissingLinkServerTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private MissingLinkServer server;
+  private MissingLinkClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new MissingLinkServer(null, 2);
+    client = new MissingLinkClient(server.start(0));
+  }
+
+  @After
+  public void tearDown() {
+    server.stop();
+  }
+
+  @Test
+  public void testCheckWithoutConflicts() throws IOException {
+    final CheckRequest request =
+        new CheckRequest(
+            folder.newFolder("classes"), Collections.emptyList(), true, Collections.emptySet(), 0);
+
+    assertThat(client.check(request)).isEmpty();
+    assertThat(client.check(request)).isEmpty();
+    assertThat(client.status()).contains("checks 2\n");
+  }
+
+  @Test
+  public void testFailedCheckIsReported() {
+    final CheckRequest request =
+        new CheckRequest(
+            new File(folder.getRoot(), "missing"),
+            Collections.emptyList(),
+            true,
+            Collections.emptySet(),
+            0);
+
+    final IOException e = assertThrows(IOException.class, () -> client.check(request));
+    assertThat(e).hasMessageContaining("500");
+  }
+
+  @Test
+  public void testShutdown() throws Exception {
+    client.shutdown();
+    server.awaitStop();
+    assertThrows(IOException.class, () -> client.status());
+  }
+}